@@ -0,0 +1,15 @@
+package frc3512.robot.benchmarks;
+
+import edu.wpi.first.hal.HAL;
+
+/** Shared setup for the benchmarks. */
+public final class BenchmarkUtil {
+  private BenchmarkUtil() {}
+
+  /** Starts the HAL in simulation so hardware classes can be constructed on desktop. */
+  public static void initializeHal() {
+    if (!HAL.initialize(500, 0)) {
+      throw new IllegalStateException("Failed to initialize the HAL");
+    }
+  }
+}
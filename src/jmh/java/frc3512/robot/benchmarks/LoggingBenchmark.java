@@ -0,0 +1,50 @@
+package frc3512.robot.benchmarks;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc3512.lib.logging.SpartanDoubleEntry;
+import frc3512.lib.logging.SpartanLogManager;
+import frc3512.lib.logging.SpartanPose2dEntry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks setting log entries, both synchronously and through the background writer. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingBenchmark {
+  @Param({"false", "true"})
+  public boolean async;
+
+  private SpartanDoubleEntry doubleEntry;
+  private SpartanPose2dEntry poseEntry;
+  private final Pose2d pose = new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(45.0));
+  private double value = 0.0;
+
+  @Setup
+  public void setup() {
+    BenchmarkUtil.initializeHal();
+    if (async) {
+      SpartanLogManager.enableAsyncLogging(1024);
+    }
+    doubleEntry = new SpartanDoubleEntry("/Benchmark/Double", 0.0, true);
+    poseEntry = new SpartanPose2dEntry("/Benchmark/Pose", new Pose2d(), true);
+  }
+
+  @Benchmark
+  public void setDouble() {
+    doubleEntry.set(value++);
+  }
+
+  @Benchmark
+  public void setPose2d() {
+    poseEntry.set(pose);
+  }
+}
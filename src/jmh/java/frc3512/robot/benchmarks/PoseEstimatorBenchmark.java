@@ -0,0 +1,44 @@
+package frc3512.robot.benchmarks;
+
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import frc3512.robot.Constants;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks a single pose estimator update with four module positions. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PoseEstimatorBenchmark {
+  private SwerveDrivePoseEstimator estimator;
+  private final SwerveModulePosition[] positions = new SwerveModulePosition[4];
+  private double timestamp = 0.0;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = new SwerveModulePosition();
+    }
+    estimator =
+        new SwerveDrivePoseEstimator(
+            Constants.Swerve.swerveKinematics, new Rotation2d(), positions, new Pose2d());
+  }
+
+  @Benchmark
+  public Pose2d update() {
+    timestamp += 0.02;
+    for (var position : positions) {
+      position.distanceMeters += 0.05;
+    }
+    return estimator.updateWithTime(timestamp, Rotation2d.fromDegrees(timestamp), positions);
+  }
+}
@@ -0,0 +1,66 @@
+package frc3512.robot.benchmarks;
+
+import frc3512.lib.util.MutableSwerveKinematics;
+import frc3512.lib.util.SwerveSetpointGenerator;
+import frc3512.robot.Constants;
+import frc3512.robot.subsystems.Swerve;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the drive math with and without the setpoint generator. The turning benchmark makes
+ * every call run the full bisection, which is the generator's worst case.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SetpointGeneratorBenchmark {
+  private final MutableSwerveKinematics kinematics =
+      new MutableSwerveKinematics(Constants.Swerve.moduleLocations);
+  private final double[] speeds = new double[4];
+  private final double[] angles = new double[4];
+  private SwerveSetpointGenerator generator;
+  private int iteration = 0;
+
+  @Setup
+  public void setup() {
+    generator =
+        new SwerveSetpointGenerator(
+            kinematics,
+            Constants.Swerve.maxModuleAcceleration,
+            Constants.Swerve.maxSteerVelocity,
+            Constants.Swerve.setpointGeneratorIterations);
+    generator.reset(speeds, angles);
+  }
+
+  @Benchmark
+  public double desaturateOnly() {
+    double rotation = (iteration++ & 1) == 0 ? 1.0 : -1.0;
+    Swerve.toModuleStates(kinematics, 2.0, 1.0, rotation, true, 30.0, speeds, angles);
+    return speeds[0];
+  }
+
+  @Benchmark
+  public double withSetpointGenerator() {
+    double rotation = (iteration++ & 1) == 0 ? 1.0 : -1.0;
+    Swerve.toModuleStates(kinematics, 2.0, 1.0, rotation, true, 30.0, speeds, angles);
+    generator.generate(speeds, angles, 0.02);
+    return speeds[0];
+  }
+
+  @Benchmark
+  public double turningWithSetpointGenerator() {
+    // Full speed at right angles to the previous request, which is never steerable in one step.
+    boolean forward = (iteration++ & 1) == 0;
+    Swerve.toModuleStates(
+        kinematics, forward ? 4.0 : 0.0, forward ? 0.0 : 4.0, 0.0, false, 0.0, speeds, angles);
+    generator.generate(speeds, angles, 0.02);
+    return speeds[0];
+  }
+}
@@ -0,0 +1,39 @@
+package frc3512.robot.benchmarks;
+
+import frc3512.robot.subsystems.Swerve;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks a full Swerve.drive() call, from chassis speeds to motor commands. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwerveDriveBenchmark {
+  private Swerve swerve;
+  private int iteration = 0;
+
+  @Setup
+  public void setup() {
+    BenchmarkUtil.initializeHal();
+    swerve = new Swerve(Swerve.Mode.kStepped);
+  }
+
+  @Benchmark
+  public void fieldRelativeDrive() {
+    // Alternate between two setpoints so the module angles keep changing.
+    double rotation = (iteration++ & 1) == 0 ? 1.0 : -1.0;
+    swerve.drive(2.0, 1.0, rotation, true, true);
+  }
+
+  @Benchmark
+  public void robotRelativeDrive() {
+    double rotation = (iteration++ & 1) == 0 ? 1.0 : -1.0;
+    swerve.drive(2.0, 1.0, rotation, false, false);
+  }
+}
@@ -0,0 +1,48 @@
+package frc3512.robot.benchmarks;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc3512.robot.Constants;
+import frc3512.robot.subsystems.ModuleIOSparkMax;
+import frc3512.robot.subsystems.SwerveInputs;
+import frc3512.robot.subsystems.SwerveModule;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmarks SwerveModule.setDesiredState() through both its object and primitive overloads. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwerveModuleBenchmark {
+  private SwerveModule module;
+  private final SwerveModuleState forward =
+      new SwerveModuleState(2.0, Rotation2d.fromDegrees(10.0));
+  private final SwerveModuleState backward =
+      new SwerveModuleState(2.0, Rotation2d.fromDegrees(170.0));
+  private int iteration = 0;
+
+  @Setup
+  public void setup() {
+    BenchmarkUtil.initializeHal();
+    module =
+        new SwerveModule(
+            0, new ModuleIOSparkMax(0, Constants.Swerve.Mod0.constants), new SwerveInputs(4));
+  }
+
+  @Benchmark
+  public void setDesiredState() {
+    // Alternating between opposite angles exercises the optimization flip.
+    module.setDesiredState((iteration++ & 1) == 0 ? forward : backward, false);
+  }
+
+  @Benchmark
+  public void setDesiredStatePrimitive() {
+    module.setDesiredState(2.0, (iteration++ & 1) == 0 ? 10.0 : 170.0, false);
+  }
+}
@@ -0,0 +1,82 @@
+package frc3512.robot.benchmarks;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc3512.lib.trajectory.TrajectoryTable;
+import frc3512.lib.util.MutableSwerveKinematics;
+import frc3512.robot.Constants;
+import frc3512.robot.auton.AutonPaths;
+import frc3512.robot.commands.driving.FollowTrajectoryTable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares one loop of PPSwerveControllerCommand against FollowTrajectoryTable: sampling the
+ * trajectory, the holonomic controller and the module states. The time steps through the whole
+ * path so the search in PathPlannerTrajectory.sample() is measured at every position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrajectoryFollowerBenchmark {
+  private final MutableSwerveKinematics kinematics =
+      new MutableSwerveKinematics(Constants.Swerve.moduleLocations);
+  private final PPHolonomicDriveController controller =
+      new PPHolonomicDriveController(
+          new PIDController(Constants.Auton.translationKP, 0, 0),
+          new PIDController(Constants.Auton.translationKP, 0, 0),
+          new PIDController(Constants.Auton.rotationKP, 0, 0));
+  private final TrajectoryTable.Sample sample = new TrajectoryTable.Sample();
+  private final double[] chassisSpeeds = new double[3];
+  private final double[] speeds = new double[4];
+  private final double[] angles = new double[4];
+  private final Pose2d pose = new Pose2d(2.0, 2.0, Rotation2d.fromDegrees(30.0));
+  private PathPlannerTrajectory trajectory;
+  private TrajectoryTable table;
+  private int iteration = 0;
+
+  @Setup
+  public void setup() {
+    trajectory = AutonPaths.testAuto2.generate();
+    table = new TrajectoryTable(trajectory, TimedRobot.kDefaultPeriod);
+  }
+
+  private double nextTime() {
+    double t = (iteration++ % 1000) * TimedRobot.kDefaultPeriod;
+    return t % trajectory.getTotalTimeSeconds();
+  }
+
+  @Benchmark
+  public double pathPlannerFollower() {
+    var state = (PathPlannerState) trajectory.sample(nextTime());
+    var targetSpeeds = controller.calculate(pose, state);
+    SwerveModuleState[] states =
+        Constants.Swerve.swerveKinematics.toSwerveModuleStates(targetSpeeds);
+    return states[0].speedMetersPerSecond;
+  }
+
+  @Benchmark
+  public double trajectoryTableFollower() {
+    table.sample(nextTime(), sample);
+    FollowTrajectoryTable.calculate(sample, pose, chassisSpeeds);
+    kinematics.toModuleStates(chassisSpeeds[0], chassisSpeeds[1], chassisSpeeds[2], speeds, angles);
+    return speeds[0];
+  }
+
+  @Benchmark
+  public TrajectoryTable buildTable() {
+    return new TrajectoryTable(trajectory, TimedRobot.kDefaultPeriod);
+  }
+}
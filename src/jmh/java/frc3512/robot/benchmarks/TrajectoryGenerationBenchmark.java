@@ -0,0 +1,62 @@
+package frc3512.robot.benchmarks;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import frc3512.lib.trajectory.TrajectoryCache;
+import frc3512.robot.auton.AutonPaths;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks generating the auton trajectories against loading them from the trajectory cache,
+ * which is what happens during robotInit().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrajectoryGenerationBenchmark {
+  private Path cacheFile;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    cacheFile = Files.createTempFile("trajectories", ".bin");
+    TrajectoryCache.write(cacheFile, AutonPaths.all());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(cacheFile);
+  }
+
+  @Benchmark
+  public PathPlannerTrajectory[] generate() {
+    var paths = AutonPaths.all();
+    var trajectories = new PathPlannerTrajectory[paths.size()];
+    for (int i = 0; i < trajectories.length; i++) {
+      trajectories[i] = paths.get(i).generate();
+    }
+    return trajectories;
+  }
+
+  @Benchmark
+  public PathPlannerTrajectory[] loadFromCache() {
+    // A new cache every time so the file is mapped and decoded instead of memoized.
+    var cache = new TrajectoryCache(cacheFile);
+    var paths = AutonPaths.all();
+    var trajectories = new PathPlannerTrajectory[paths.size()];
+    for (int i = 0; i < trajectories.length; i++) {
+      trajectories[i] = cache.get(paths.get(i));
+    }
+    return trajectories;
+  }
+}
@@ -0,0 +1,217 @@
+package frc3512.lib.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of a log written by {@link ColumnarLogConverter}. Only the directory is read when
+ * the file is opened; each column is memory mapped the first time it is used, so logs of several
+ * hundred megabytes can be queried without loading them onto the heap.
+ *
+ * <p>Columns are safe to read from several threads at once, which is what {@link ColumnarQueries}
+ * relies on for its parallel scans.
+ */
+public class ColumnarLog implements AutoCloseable {
+  /** A column of samples sorted by timestamp. */
+  public static class Column {
+    private final FileChannel channel;
+    private final String name;
+    private final int size;
+    private final long timestampsOffset;
+    private final long valuesOffset;
+    private volatile MappedByteBuffer timestamps;
+    private volatile MappedByteBuffer values;
+
+    private Column(
+        FileChannel channel, String name, int size, long timestampsOffset, long valuesOffset) {
+      this.channel = channel;
+      this.name = name;
+      this.size = size;
+      this.timestampsOffset = timestampsOffset;
+      this.valuesOffset = valuesOffset;
+    }
+
+    private synchronized void map() {
+      if (values != null) {
+        return;
+      }
+      try {
+        timestamps = channel.map(FileChannel.MapMode.READ_ONLY, timestampsOffset, size * 8L);
+        values = channel.map(FileChannel.MapMode.READ_ONLY, valuesOffset, size * 8L);
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to map column " + name, e);
+      }
+    }
+
+    /**
+     * Returns the name of the column.
+     *
+     * @return The entry name, with {@code [i]} appended for array elements.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return Number of samples.
+     */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Returns the timestamp of a sample.
+     *
+     * @param index Index of the sample.
+     * @return Timestamp in microseconds.
+     */
+    public long getTimestamp(int index) {
+      if (timestamps == null) {
+        map();
+      }
+      return timestamps.getLong(index * 8);
+    }
+
+    /**
+     * Returns the value of a sample.
+     *
+     * @param index Index of the sample.
+     * @return Value of the sample.
+     */
+    public double getValue(int index) {
+      if (values == null) {
+        map();
+      }
+      return values.getDouble(index * 8);
+    }
+
+    /**
+     * Returns the index of the first sample at or after a timestamp.
+     *
+     * @param timestamp Timestamp in microseconds.
+     * @return Index of the sample, or {@link #size()} if every sample is earlier.
+     */
+    public int lowerBound(long timestamp) {
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (getTimestamp(mid) < timestamp) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+
+  private final FileChannel channel;
+  private final Map<String, Column> columns = new LinkedHashMap<>();
+
+  /**
+   * Opens a columnar log.
+   *
+   * @param file Path of the file.
+   * @throws IOException If the file can't be read or isn't a columnar log.
+   */
+  public ColumnarLog(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      readDirectory();
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private void readDirectory() throws IOException {
+    var header = ByteBuffer.allocate(12);
+    channel.read(header, 0);
+    if (header.getInt(0) != ColumnarLogConverter.kMagic
+        || header.getInt(4) != ColumnarLogConverter.kVersion) {
+      throw new IOException("Unknown columnar log format");
+    }
+    int count = header.getInt(8);
+
+    // The directory's length isn't stored, so map as much as one mapping allows. Only the pages
+    // actually holding the directory are ever read.
+    var directory =
+        channel.map(
+            FileChannel.MapMode.READ_ONLY, 12, Math.min(channel.size() - 12, Integer.MAX_VALUE));
+    int position = 0;
+    for (int i = 0; i < count; i++) {
+      int nameLength = directory.getShort(position) & 0xffff;
+      byte[] name = new byte[nameLength];
+      for (int j = 0; j < nameLength; j++) {
+        name[j] = directory.get(position + 2 + j);
+      }
+      position += 2 + nameLength;
+      long size = directory.getLong(position);
+      long timestampsOffset = directory.getLong(position + 8);
+      long valuesOffset = directory.getLong(position + 16);
+      position += 24;
+
+      if (size > Integer.MAX_VALUE / 8) {
+        throw new IOException("Column too large to map");
+      }
+      var nameString = new String(name, StandardCharsets.UTF_8);
+      columns.put(
+          nameString,
+          new Column(channel, nameString, (int) size, timestampsOffset, valuesOffset));
+    }
+  }
+
+  /**
+   * Returns every column.
+   *
+   * @return Columns in the order their entries first appeared in the log.
+   */
+  public List<Column> getColumns() {
+    return Collections.unmodifiableList(new ArrayList<>(columns.values()));
+  }
+
+  /**
+   * Returns a column by name.
+   *
+   * @param name Name of the column.
+   * @return The column, or null if the log has none with that name.
+   */
+  public Column getColumn(String name) {
+    return columns.get(name);
+  }
+
+  /**
+   * Returns every column whose name starts with a prefix, for example every element of an array
+   * entry.
+   *
+   * @param prefix Prefix of the column names.
+   * @return Matching columns.
+   */
+  public List<Column> getColumns(String prefix) {
+    List<Column> matching = new ArrayList<>();
+    for (var column : columns.values()) {
+      if (column.getName().startsWith(prefix)) {
+        matching.add(column);
+      }
+    }
+    return matching;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,277 @@
+package frc3512.lib.logging;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts a .wpilog into the columnar format read by {@link ColumnarLog}. Every numeric entry
+ * becomes a column of timestamps and a column of values, and every element of a double array entry
+ * becomes its own column named {@code name[i]}. Booleans are stored as 0 and 1.
+ *
+ * <p>The log is read twice through the memory mapped DataLogReader: once to count the samples of
+ * each column and once to write them straight into the memory mapped output file, so neither file
+ * is ever loaded onto the heap.
+ *
+ * <p>Records aren't always in timestamp order in the .wpilog. The asynchronous log writer appends
+ * samples from its own thread while large arrays are still written synchronously, so a column can
+ * get a sample that is older than the one before it. The queries binary search the timestamps, so
+ * any column that comes out of order is sorted afterwards. Samples with equal timestamps keep
+ * their order in the log.
+ */
+public final class ColumnarLogConverter {
+  static final int kMagic = 0x5350434c; // "SPCL"
+  static final int kVersion = 1;
+
+  private static class EntryInfo {
+    final String name;
+    final String type;
+
+    EntryInfo(String name, String type) {
+      this.name = name;
+      this.type = type;
+    }
+  }
+
+  private static class ColumnInfo {
+    final String name;
+    long count = 0;
+    long timestampsOffset;
+    long valuesOffset;
+    MappedByteBuffer timestamps;
+    MappedByteBuffer values;
+    int written = 0;
+    long lastTimestamp = Long.MIN_VALUE;
+    boolean sorted = true;
+
+    ColumnInfo(String name) {
+      this.name = name;
+    }
+  }
+
+  private ColumnarLogConverter() {}
+
+  /**
+   * Converts a .wpilog file.
+   *
+   * @param input The .wpilog to read.
+   * @param output The columnar file to write.
+   * @return Number of columns written.
+   * @throws IOException If either file can't be accessed or the log is invalid.
+   */
+  public static int convert(Path input, Path output) throws IOException {
+    var reader = new DataLogReader(input.toString());
+    if (!reader.isValid()) {
+      throw new IOException("Not a valid .wpilog file: " + input);
+    }
+
+    // Pass 1: count the samples of every column.
+    Map<String, ColumnInfo> columns = new LinkedHashMap<>();
+    scan(reader, columns, false);
+
+    List<ColumnInfo> ordered = new ArrayList<>(columns.values());
+    long offset = 12;
+    for (var column : ordered) {
+      offset += 2 + column.name.getBytes(StandardCharsets.UTF_8).length + 24;
+    }
+    offset = align(offset);
+    for (var column : ordered) {
+      column.timestampsOffset = offset;
+      offset += column.count * 8;
+      column.valuesOffset = offset;
+      offset += column.count * 8;
+    }
+
+    try (var channel =
+        FileChannel.open(
+            output,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      writeHeader(channel, ordered);
+      for (var column : ordered) {
+        column.timestamps =
+            channel.map(FileChannel.MapMode.READ_WRITE, column.timestampsOffset, column.count * 8);
+        column.values =
+            channel.map(FileChannel.MapMode.READ_WRITE, column.valuesOffset, column.count * 8);
+      }
+
+      // Pass 2: write every sample into its column.
+      scan(reader, columns, true);
+
+      for (var column : ordered) {
+        if (!column.sorted) {
+          sort(column);
+        }
+        column.timestamps.force();
+        column.values.force();
+        column.timestamps = null;
+        column.values = null;
+      }
+    }
+    return ordered.size();
+  }
+
+  private static long align(long offset) {
+    return (offset + 7) & ~7L;
+  }
+
+  private static void writeHeader(FileChannel channel, List<ColumnInfo> columns)
+      throws IOException {
+    int size = 12;
+    for (var column : columns) {
+      size += 2 + column.name.getBytes(StandardCharsets.UTF_8).length + 24;
+    }
+    var header = ByteBuffer.allocate(size);
+    header.putInt(kMagic);
+    header.putInt(kVersion);
+    header.putInt(columns.size());
+    for (var column : columns) {
+      byte[] name = column.name.getBytes(StandardCharsets.UTF_8);
+      header.putShort((short) name.length);
+      header.put(name);
+      header.putLong(column.count);
+      header.putLong(column.timestampsOffset);
+      header.putLong(column.valuesOffset);
+    }
+    header.flip();
+    channel.write(header, 0);
+  }
+
+  private static void scan(DataLogReader reader, Map<String, ColumnInfo> columns, boolean write) {
+    Map<Integer, EntryInfo> entries = new HashMap<>();
+    Map<Integer, ColumnInfo> scalarColumns = new HashMap<>();
+    Map<Integer, ColumnInfo[]> arrayColumns = new HashMap<>();
+
+    for (DataLogRecord record : reader) {
+      if (record.isStart()) {
+        var data = record.getStartData();
+        entries.put(data.entry, new EntryInfo(data.name, data.type));
+        scalarColumns.remove(data.entry);
+        arrayColumns.remove(data.entry);
+        continue;
+      } else if (record.isFinish()) {
+        entries.remove(record.getFinishEntry());
+        scalarColumns.remove(record.getFinishEntry());
+        arrayColumns.remove(record.getFinishEntry());
+        continue;
+      } else if (record.isControl()) {
+        continue;
+      }
+
+      var entry = entries.get(record.getEntry());
+      if (entry == null) {
+        continue;
+      }
+      long timestamp = record.getTimestamp();
+
+      double value;
+      switch (entry.type) {
+        case "double":
+          value = record.getDouble();
+          break;
+        case "float":
+          value = record.getFloat();
+          break;
+        case "int64":
+          value = record.getInteger();
+          break;
+        case "boolean":
+          value = record.getBoolean() ? 1.0 : 0.0;
+          break;
+        case "double[]":
+          double[] values = record.getDoubleArray();
+          var elements = arrayColumns.get(record.getEntry());
+          if (elements == null || elements.length < values.length) {
+            elements = new ColumnInfo[values.length];
+            for (int i = 0; i < values.length; i++) {
+              elements[i] = columns.computeIfAbsent(entry.name + "[" + i + "]", ColumnInfo::new);
+            }
+            arrayColumns.put(record.getEntry(), elements);
+          }
+          for (int i = 0; i < values.length; i++) {
+            append(elements[i], timestamp, values[i], write);
+          }
+          continue;
+        default:
+          continue;
+      }
+
+      var column = scalarColumns.get(record.getEntry());
+      if (column == null) {
+        column = columns.computeIfAbsent(entry.name, ColumnInfo::new);
+        scalarColumns.put(record.getEntry(), column);
+      }
+      append(column, timestamp, value, write);
+    }
+  }
+
+  private static void append(ColumnInfo column, long timestamp, double value, boolean write) {
+    if (!write) {
+      column.count++;
+      return;
+    }
+    int index = column.written++;
+    column.timestamps.putLong(index * 8, timestamp);
+    column.values.putDouble(index * 8, value);
+    if (timestamp < column.lastTimestamp) {
+      column.sorted = false;
+    }
+    column.lastTimestamp = timestamp;
+  }
+
+  /** Stably sorts a column by timestamp. Only this column is loaded onto the heap. */
+  private static void sort(ColumnInfo column) {
+    int size = column.written;
+    long[] timestamps = new long[size];
+    double[] values = new double[size];
+    for (int i = 0; i < size; i++) {
+      timestamps[i] = column.timestamps.getLong(i * 8);
+      values[i] = column.values.getDouble(i * 8);
+    }
+
+    // Bottom-up merge sort, which keeps samples with equal timestamps in order.
+    long[] timestampsScratch = new long[size];
+    double[] valuesScratch = new double[size];
+    for (int width = 1; width < size; width *= 2) {
+      for (int low = 0; low < size; low += 2 * width) {
+        int mid = Math.min(low + width, size);
+        int high = Math.min(low + 2 * width, size);
+        int left = low;
+        int right = mid;
+        for (int out = low; out < high; out++) {
+          if (left < mid && (right >= high || timestamps[left] <= timestamps[right])) {
+            timestampsScratch[out] = timestamps[left];
+            valuesScratch[out] = values[left++];
+          } else {
+            timestampsScratch[out] = timestamps[right];
+            valuesScratch[out] = values[right++];
+          }
+        }
+      }
+      long[] swapTimestamps = timestamps;
+      timestamps = timestampsScratch;
+      timestampsScratch = swapTimestamps;
+      double[] swapValues = values;
+      values = valuesScratch;
+      valuesScratch = swapValues;
+    }
+
+    for (int i = 0; i < size; i++) {
+      column.timestamps.putLong(i * 8, timestamps[i]);
+      column.values.putDouble(i * 8, values[i]);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package frc3512.lib.logging;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command line front end for {@link ColumnarLogConverter} and {@link ColumnarQueries}. Times are
+ * given in seconds since the log started.
+ *
+ * <ul>
+ *   <li>{@code convert <input.wpilog> <output>} converts a log to the columnar format.
+ *   <li>{@code list <file>} lists every column and its sample count.
+ *   <li>{@code stats <file> <prefix> [start] [end]} prints count, min, max and mean of every column
+ *       starting with the prefix, for example {@code /Diagnostics/Swerve/States} for the velocity
+ *       and angle extremes of every module.
+ *   <li>{@code percentiles <file> <column> [start] [end]} prints the 50th, 90th, 99th and 99.9th
+ *       percentiles of a column, for example a loop time entry.
+ *   <li>{@code downsample <file> <column> <buckets> [start] [end]} prints min, max and mean of a
+ *       column over evenly spaced time buckets.
+ * </ul>
+ */
+public final class ColumnarLogTool {
+  private static final double[] kPercentiles = {0.5, 0.9, 0.99, 0.999};
+
+  private ColumnarLogTool() {}
+
+  public static void main(String... args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException(
+          "Usage: ColumnarLogTool convert <input.wpilog> <output> | list <file> | stats <file>"
+              + " <prefix> [start] [end] | percentiles <file> <column> [start] [end] | downsample"
+              + " <file> <column> <buckets> [start] [end]");
+    }
+
+    long start = System.nanoTime();
+    if (args[0].equals("convert")) {
+      int columns = ColumnarLogConverter.convert(Path.of(args[1]), Path.of(args[2]));
+      System.out.printf(
+          "Wrote %d columns to %s in %.2f s%n",
+          columns, args[2], (System.nanoTime() - start) * 1e-9);
+      return;
+    }
+
+    try (var log = new ColumnarLog(Path.of(args[1]))) {
+      switch (args[0]) {
+        case "list":
+          for (var column : log.getColumns()) {
+            System.out.printf("%10d  %s%n", column.size(), column.getName());
+          }
+          break;
+        case "stats":
+          printStats(log, args[2], parseTime(args, 3, 0), parseTime(args, 4, Long.MAX_VALUE));
+          break;
+        case "percentiles":
+          printPercentiles(
+              getColumn(log, args[2]), parseTime(args, 3, 0), parseTime(args, 4, Long.MAX_VALUE));
+          break;
+        case "downsample":
+          printDownsampled(
+              getColumn(log, args[2]),
+              Integer.parseInt(args[3]),
+              parseTime(args, 4, -1),
+              parseTime(args, 5, -1));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown command " + args[0]);
+      }
+    }
+    System.out.printf("Query took %.1f ms%n", (System.nanoTime() - start) * 1e-6);
+  }
+
+  private static long parseTime(String[] args, int index, long defaultMicros) {
+    if (index >= args.length) {
+      return defaultMicros;
+    }
+    return (long) (Double.parseDouble(args[index]) * 1e6);
+  }
+
+  private static ColumnarLog.Column getColumn(ColumnarLog log, String name) {
+    var column = log.getColumn(name);
+    if (column == null) {
+      throw new IllegalArgumentException("No column named " + name);
+    }
+    return column;
+  }
+
+  private static void printStats(ColumnarLog log, String prefix, long start, long end) {
+    System.out.println("count,min,min time,max,max time,mean,column");
+    for (var column : log.getColumns(prefix)) {
+      var stats = ColumnarQueries.aggregate(column, start, end);
+      System.out.printf(
+          "%d,%.6f,%.3f,%.6f,%.3f,%.6f,%s%n",
+          stats.count,
+          stats.min,
+          stats.minTimestamp * 1e-6,
+          stats.max,
+          stats.maxTimestamp * 1e-6,
+          stats.getMean(),
+          column.getName());
+    }
+  }
+
+  private static void printPercentiles(ColumnarLog.Column column, long start, long end) {
+    double[] values = ColumnarQueries.percentiles(column, start, end, kPercentiles);
+    for (int i = 0; i < kPercentiles.length; i++) {
+      System.out.printf("p%s: %.6f%n", kPercentiles[i] * 100, values[i]);
+    }
+  }
+
+  private static void printDownsampled(
+      ColumnarLog.Column column, int buckets, long start, long end) {
+    if (column.size() == 0) {
+      return;
+    }
+    // Without a range, cover the whole column.
+    if (start < 0) {
+      start = column.getTimestamp(0);
+    }
+    if (end < 0) {
+      end = column.getTimestamp(column.size() - 1) + 1;
+    }
+
+    long width = Math.max(1, (end - start + buckets - 1) / buckets);
+    System.out.println("time,count,min,max,mean");
+    var downsampled = ColumnarQueries.downsample(column, start, end, buckets);
+    for (int i = 0; i < downsampled.length; i++) {
+      var stats = downsampled[i];
+      if (stats.count == 0) {
+        continue;
+      }
+      System.out.printf(
+          "%.3f,%d,%.6f,%.6f,%.6f%n",
+          (start + i * width) * 1e-6, stats.count, stats.min, stats.max, stats.getMean());
+    }
+  }
+}
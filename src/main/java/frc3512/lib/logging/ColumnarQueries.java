@@ -0,0 +1,207 @@
+package frc3512.lib.logging;
+
+import frc3512.lib.logging.ColumnarLog.Column;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Range, aggregate, percentile and downsample queries over {@link ColumnarLog} columns. Every scan
+ * is split into chunks that are summarized in parallel on the common fork/join pool and then
+ * merged, and only reads the samples in the requested time range.
+ */
+public final class ColumnarQueries {
+  private static final int kChunkSize = 1 << 16;
+  private static final int kHistogramBuckets = 1 << 16;
+
+  /** Summary of the samples in a range of a column. */
+  public static class Stats {
+    public long count = 0;
+    public double min = Double.POSITIVE_INFINITY;
+    public double max = Double.NEGATIVE_INFINITY;
+    public double sum = 0.0;
+    public long minTimestamp = 0;
+    public long maxTimestamp = 0;
+
+    /**
+     * Returns the mean of the samples.
+     *
+     * @return The mean, or NaN if there are no samples.
+     */
+    public double getMean() {
+      return count == 0 ? Double.NaN : sum / count;
+    }
+
+    private void add(long timestamp, double value) {
+      count++;
+      sum += value;
+      if (value < min) {
+        min = value;
+        minTimestamp = timestamp;
+      }
+      if (value > max) {
+        max = value;
+        maxTimestamp = timestamp;
+      }
+    }
+
+    private static Stats merge(Stats a, Stats b) {
+      var merged = new Stats();
+      merged.count = a.count + b.count;
+      merged.sum = a.sum + b.sum;
+      if (a.min <= b.min) {
+        merged.min = a.min;
+        merged.minTimestamp = a.minTimestamp;
+      } else {
+        merged.min = b.min;
+        merged.minTimestamp = b.minTimestamp;
+      }
+      if (a.max >= b.max) {
+        merged.max = a.max;
+        merged.maxTimestamp = a.maxTimestamp;
+      } else {
+        merged.max = b.max;
+        merged.maxTimestamp = b.maxTimestamp;
+      }
+      return merged;
+    }
+  }
+
+  private ColumnarQueries() {}
+
+  /**
+   * Returns the samples of a column within a time range.
+   *
+   * @param column The column.
+   * @param startMicros Start of the range, inclusive.
+   * @param endMicros End of the range, exclusive.
+   * @return Index of the first sample in the range and one past the last one.
+   */
+  public static int[] range(Column column, long startMicros, long endMicros) {
+    int start = column.lowerBound(startMicros);
+    int end = Math.max(start, column.lowerBound(endMicros));
+    return new int[] {start, end};
+  }
+
+  /**
+   * Summarizes the samples of a column within a time range.
+   *
+   * @param column The column.
+   * @param startMicros Start of the range, inclusive.
+   * @param endMicros End of the range, exclusive.
+   * @return Count, min, max and mean of the samples.
+   */
+  public static Stats aggregate(Column column, long startMicros, long endMicros) {
+    int[] range = range(column, startMicros, endMicros);
+    return aggregate(column, range[0], range[1]);
+  }
+
+  private static Stats aggregate(Column column, int start, int end) {
+    int chunks = (end - start + kChunkSize - 1) / kChunkSize;
+    return IntStream.range(0, chunks)
+        .parallel()
+        .mapToObj(
+            chunk -> {
+              var stats = new Stats();
+              int chunkEnd = Math.min(end, start + (chunk + 1) * kChunkSize);
+              for (int i = start + chunk * kChunkSize; i < chunkEnd; i++) {
+                stats.add(column.getTimestamp(i), column.getValue(i));
+              }
+              return stats;
+            })
+        .reduce(new Stats(), Stats::merge);
+  }
+
+  /**
+   * Estimates percentiles of the samples of a column within a time range. The samples are counted
+   * into {@value #kHistogramBuckets} buckets between the minimum and maximum, so each percentile is
+   * within (max - min) / {@value #kHistogramBuckets} of the exact value.
+   *
+   * @param column The column.
+   * @param startMicros Start of the range, inclusive.
+   * @param endMicros End of the range, exclusive.
+   * @param percentiles Percentiles to estimate, each between 0 and 1.
+   * @return Estimated value at each percentile, or NaN if there are no samples.
+   */
+  public static double[] percentiles(
+      Column column, long startMicros, long endMicros, double... percentiles) {
+    int[] range = range(column, startMicros, endMicros);
+    int start = range[0];
+    int end = range[1];
+    double[] results = new double[percentiles.length];
+
+    var stats = aggregate(column, start, end);
+    if (stats.count == 0) {
+      Arrays.fill(results, Double.NaN);
+      return results;
+    }
+    double min = stats.min;
+    double width = (stats.max - stats.min) / kHistogramBuckets;
+    if (width == 0.0) {
+      Arrays.fill(results, min);
+      return results;
+    }
+
+    int chunks = (end - start + kChunkSize - 1) / kChunkSize;
+    long[] histogram =
+        IntStream.range(0, chunks)
+            .parallel()
+            .mapToObj(
+                chunk -> {
+                  long[] counts = new long[kHistogramBuckets];
+                  int chunkEnd = Math.min(end, start + (chunk + 1) * kChunkSize);
+                  for (int i = start + chunk * kChunkSize; i < chunkEnd; i++) {
+                    int bucket = (int) ((column.getValue(i) - min) / width);
+                    counts[Math.min(bucket, kHistogramBuckets - 1)]++;
+                  }
+                  return counts;
+                })
+            .reduce(
+                (a, b) -> {
+                  for (int i = 0; i < kHistogramBuckets; i++) {
+                    a[i] += b[i];
+                  }
+                  return a;
+                })
+            .get();
+
+    for (int p = 0; p < percentiles.length; p++) {
+      long target = (long) Math.ceil(percentiles[p] * stats.count);
+      long seen = 0;
+      int bucket = 0;
+      while (bucket < kHistogramBuckets - 1 && seen + histogram[bucket] < Math.max(target, 1)) {
+        seen += histogram[bucket];
+        bucket++;
+      }
+      results[p] = min + (bucket + 0.5) * width;
+    }
+    return results;
+  }
+
+  /**
+   * Splits a time range into equal buckets and summarizes the samples of a column in each one,
+   * for plotting a long log at a manageable resolution.
+   *
+   * @param column The column.
+   * @param startMicros Start of the range, inclusive.
+   * @param endMicros End of the range, exclusive.
+   * @param buckets Number of buckets.
+   * @return Summary of each bucket.
+   */
+  public static Stats[] downsample(Column column, long startMicros, long endMicros, int buckets) {
+    long width = Math.max(1, (endMicros - startMicros + buckets - 1) / buckets);
+    return IntStream.range(0, buckets)
+        .parallel()
+        .mapToObj(
+            bucket -> {
+              long bucketStart = startMicros + bucket * width;
+              long bucketEnd = Math.min(endMicros, bucketStart + width);
+              int[] range = range(column, bucketStart, bucketEnd);
+              var stats = new Stats();
+              for (int i = range[0]; i < range[1]; i++) {
+                stats.add(column.getTimestamp(i), column.getValue(i));
+              }
+              return stats;
+            })
+        .toArray(Stats[]::new);
+  }
+}
@@ -0,0 +1,42 @@
+package frc3512.lib.logging;
+
+import edu.wpi.first.util.datalog.DataLog;
+
+/**
+ * Decides which samples of an entry are logged. An entry logs its first sample and then skips as
+ * many samples as the decimation rate of its level asks for.
+ */
+final class LogDecimator {
+  // Rough size of a DataLog record header: the length byte, entry ID, payload size and timestamp.
+  static final int kRecordHeaderBytes = 10;
+
+  LogLevel level = LogLevel.kDiagnostic;
+  private int skipped = 0;
+
+  /**
+   * Counts a sample and returns where to log it.
+   *
+   * @param payloadBytes Size of the sample's value.
+   * @return The log to write the sample to, or null if the sample is skipped.
+   */
+  DataLog sample(int payloadBytes) {
+    int bytes = kRecordHeaderBytes + payloadBytes;
+    SpartanLogManager.recordOfferedBytes(level, bytes);
+
+    int decimation = SpartanLogManager.getDecimation(level);
+    if (decimation <= 0) {
+      return null;
+    }
+    if (skipped > 0) {
+      skipped--;
+      return null;
+    }
+    skipped = decimation - 1;
+
+    var current = SpartanLogManager.getLogForEntry(level);
+    if (current != null) {
+      SpartanLogManager.recordLoggedBytes(level, bytes);
+    }
+    return current;
+  }
+}
@@ -0,0 +1,14 @@
+package frc3512.lib.logging;
+
+/**
+ * Priority of a logged entry. Each level is logged at its own decimation rate, which is set with
+ * {@link SpartanLogManager#setDecimation(LogLevel, int, int)}.
+ */
+public enum LogLevel {
+  /** Needed to reconstruct a match. Kept when disk space is low. */
+  kCritical,
+  /** Setpoints and measurements of the control loops. */
+  kControl,
+  /** Everything else. */
+  kDiagnostic
+}
@@ -0,0 +1,338 @@
+package frc3512.lib.logging;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits the log into a series of files that are each bounded in size and time, and keeps the log
+ * directory within a disk budget by deleting the oldest logs first. A background thread watches
+ * the free space. When it runs low, only critical entries are logged until space is freed again,
+ * so writes never stall on a full disk.
+ *
+ * <p>Entries switch to the newest file the next time they are written. A file is only closed one
+ * rotation after it was replaced, so an entry that is in the middle of writing to it never writes
+ * to a closed log.
+ *
+ * <p>Every file gets a sequence number that keeps counting up across boots, and the oldest logs are
+ * the ones with the lowest numbers. The roboRIO has no battery backed clock, so like the
+ * DataLogManager, files are named FRC_TBD until the driver station has synced the time, and are
+ * then renamed after the time they were started.
+ */
+class LogRotator {
+  private static final double kCheckPeriodSeconds = 1.0;
+
+  // Free space has to recover to this multiple of the minimum before every entry is logged again,
+  // so logging doesn't flap around the threshold.
+  private static final double kResumeFreeSpaceFactor = 2.0;
+
+  private static final String kExtension = ".wpilog";
+  private static final DateTimeFormatter kTimeFormat =
+      DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+  private static final Pattern kNamePattern =
+      Pattern.compile("FRC_(TBD|\\d{8}_\\d{6})_(\\d{6,})\\.wpilog");
+
+  // The clock can't be right if it is before 2023-01-01, since it starts at 1970 on boot.
+  private static final long kMinValidTimeMillis = 1672531200000L;
+
+  /** A file named before the time was synced. */
+  private static class UnnamedFile {
+    final File file;
+    final double start;
+
+    UnnamedFile(File file, double start) {
+      this.file = file;
+      this.start = start;
+    }
+  }
+
+  private final File dir;
+  private final long maxFileBytes;
+  private final double maxFileSeconds;
+  private final long budgetBytes;
+  private final long minFreeBytes;
+  private final Notifier notifier;
+
+  // Only touched with the lock held.
+  private long sequence = 0;
+  private boolean timeValid = false;
+  private final List<UnnamedFile> unnamedFiles = new ArrayList<>();
+  private File currentFile;
+  private double currentStart;
+  private DataLog previousLog;
+  private File previousFile;
+
+  private volatile DataLog currentLog;
+  private volatile boolean criticalOnly = false;
+
+  private DoublePublisher freeSpace;
+  private DoublePublisher usedSpace;
+  private DoublePublisher sequencePub;
+  private DoublePublisher criticalOnlyPub;
+
+  /**
+   * Creates a new LogRotator. Nothing is written until {@link #start()} is called.
+   *
+   * @param dir Directory to write the logs to.
+   * @param maxFileBytes Size after which a new file is started.
+   * @param maxFileSeconds Time after which a new file is started.
+   * @param budgetBytes Total size the logs in the directory may take up.
+   * @param minFreeBytes Free space below which old logs are deleted and then only critical
+   *     entries are logged.
+   */
+  LogRotator(
+      String dir, long maxFileBytes, double maxFileSeconds, long budgetBytes, long minFreeBytes) {
+    this.dir = new File(dir);
+    this.maxFileBytes = maxFileBytes;
+    this.maxFileSeconds = maxFileSeconds;
+    this.budgetBytes = budgetBytes;
+    this.minFreeBytes = minFreeBytes;
+
+    notifier = new Notifier(this::check);
+    notifier.setName("LogRotator");
+  }
+
+  /**
+   * Returns the directory the DataLogManager would write to.
+   *
+   * @return Path of the log directory.
+   */
+  static String getDefaultDir() {
+    if (RobotBase.isReal()) {
+      var usb = new File("/u");
+      if (usb.isDirectory() && usb.canWrite()) {
+        return "/u/logs";
+      }
+      return "/home/lvuser/logs";
+    }
+    return Filesystem.getOperatingDirectory().getAbsolutePath() + "/logs";
+  }
+
+  /**
+   * Opens the first file and starts watching the size of the logs.
+   *
+   * @return The first log.
+   */
+  synchronized DataLog start() {
+    dir.mkdirs();
+    var nt = SpartanLogManager.getNTInstance();
+    freeSpace = nt.getDoubleTopic("/Diagnostics/Logging/Free Space").publish();
+    usedSpace = nt.getDoubleTopic("/Diagnostics/Logging/Used Space").publish();
+    sequencePub = nt.getDoubleTopic("/Diagnostics/Logging/File Number").publish();
+    criticalOnlyPub = nt.getDoubleTopic("/Diagnostics/Logging/Critical Only").publish();
+
+    // Continue counting from the newest log of the previous boots.
+    File[] files = listLogs();
+    if (files != null) {
+      for (var file : files) {
+        sequence = Math.max(sequence, sequenceOf(file));
+      }
+    }
+    timeValid = isTimeValid();
+    openNext();
+    notifier.startPeriodic(kCheckPeriodSeconds);
+    return currentLog;
+  }
+
+  /**
+   * Returns the log that entries should write to.
+   *
+   * @return The current log.
+   */
+  DataLog getLog() {
+    return currentLog;
+  }
+
+  /**
+   * Returns whether free space is low, so only critical entries should be logged.
+   *
+   * @return Whether only critical entries are logged.
+   */
+  boolean isCriticalOnly() {
+    return criticalOnly;
+  }
+
+  private void openNext() {
+    String name;
+    do {
+      sequence++;
+      name = timeValid ? nameAt(LocalDateTime.now(), sequence) : nameAt(null, sequence);
+    } while (new File(dir, name).exists());
+
+    currentFile = new File(dir, name);
+    currentStart = Timer.getFPGATimestamp();
+    currentLog = new DataLog(dir.getPath(), name);
+    if (!timeValid) {
+      unnamedFiles.add(new UnnamedFile(currentFile, currentStart));
+    }
+  }
+
+  /**
+   * Returns the name of a log file.
+   *
+   * @param start When the file was started, or null if the time isn't known yet.
+   * @param sequence Sequence number of the file.
+   * @return Name of the file.
+   */
+  static String nameAt(LocalDateTime start, long sequence) {
+    String time = start == null ? "TBD" : start.format(kTimeFormat);
+    return String.format("FRC_%s_%06d%s", time, sequence, kExtension);
+  }
+
+  /**
+   * Returns the sequence number of a log file, or -1 for files that weren't written by the
+   * rotator, so they are deleted first.
+   *
+   * @param file Log file.
+   * @return Sequence number of the file.
+   */
+  static long sequenceOf(File file) {
+    Matcher matcher = kNamePattern.matcher(file.getName());
+    if (!matcher.matches()) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(matcher.group(2));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Sorts log files in the order they are deleted, oldest first.
+   *
+   * @param files Log files, sorted in place.
+   */
+  static void sortOldestFirst(File[] files) {
+    // File times can't be trusted before the clock is synced, but the sequence numbers can.
+    Arrays.sort(
+        files, Comparator.comparingLong(LogRotator::sequenceOf).thenComparing(File::getName));
+  }
+
+  private static boolean isTimeValid() {
+    if (!RobotBase.isReal()) {
+      return true;
+    }
+    return DriverStation.isDSAttached() && System.currentTimeMillis() >= kMinValidTimeMillis;
+  }
+
+  /** Renames the files of this boot that were started before the time was synced. */
+  private void nameUnnamedFiles() {
+    var now = LocalDateTime.now();
+    double nowFpga = Timer.getFPGATimestamp();
+    for (var unnamed : unnamedFiles) {
+      var start = now.minusNanos((long) ((nowFpga - unnamed.start) * 1e9));
+      String name = nameAt(start, sequenceOf(unnamed.file));
+      var named = new File(dir, name);
+      if (unnamed.file.equals(currentFile)) {
+        currentLog.setFilename(name);
+        currentFile = named;
+      } else if (unnamed.file.equals(previousFile)) {
+        previousLog.setFilename(name);
+        previousFile = named;
+      } else if (!unnamed.file.renameTo(named)) {
+        continue;
+      }
+      SpartanLogManager.logMessage("Renamed log " + unnamed.file.getName() + " to " + name);
+    }
+    unnamedFiles.clear();
+  }
+
+  private synchronized void check() {
+    if (!timeValid && isTimeValid()) {
+      timeValid = true;
+      nameUnnamedFiles();
+    }
+    if (currentFile.length() >= maxFileBytes
+        || Timer.getFPGATimestamp() - currentStart >= maxFileSeconds) {
+      rotate();
+    }
+    long used = evict();
+
+    long free = dir.getUsableSpace();
+    if (!criticalOnly && free < minFreeBytes) {
+      criticalOnly = true;
+      SpartanLogManager.logMessage(
+          String.format(
+              "Log storage has %.1f MB free, only logging critical entries", free / 1e6));
+    } else if (criticalOnly && free > minFreeBytes * kResumeFreeSpaceFactor) {
+      criticalOnly = false;
+      SpartanLogManager.logMessage(
+          String.format("Log storage has %.1f MB free, logging every entry again", free / 1e6));
+    }
+
+    freeSpace.set(free / 1e6);
+    usedSpace.set(used / 1e6);
+    sequencePub.set(sequence);
+    criticalOnlyPub.set(criticalOnly ? 1.0 : 0.0);
+  }
+
+  private void rotate() {
+    // Nothing has written to the previous log since entries moved to the current one.
+    if (previousLog != null) {
+      previousLog.close();
+    }
+    previousLog = currentLog;
+    previousFile = currentFile;
+    openNext();
+  }
+
+  private File[] listLogs() {
+    return dir.listFiles((d, name) -> name.endsWith(kExtension));
+  }
+
+  /**
+   * Deletes the oldest logs until the logs fit in the budget and the minimum free space is met.
+   * The files that are still open are never deleted.
+   *
+   * @return Total size of the logs left in the directory.
+   */
+  private long evict() {
+    File[] files = listLogs();
+    if (files == null) {
+      return 0;
+    }
+    sortOldestFirst(files);
+
+    long total = 0;
+    for (var file : files) {
+      total += file.length();
+    }
+    long free = dir.getUsableSpace();
+    for (var file : files) {
+      if (total <= budgetBytes && free >= minFreeBytes) {
+        break;
+      }
+      if (isOpen(file)) {
+        continue;
+      }
+      long length = file.length();
+      if (file.delete()) {
+        total -= length;
+        free += length;
+        SpartanLogManager.logMessage("Deleted old log " + file.getName());
+      }
+    }
+    return total;
+  }
+
+  /** Compares sequence numbers, since an open file may still be renamed in the background. */
+  private boolean isOpen(File file) {
+    long fileSequence = sequenceOf(file);
+    return fileSequence == sequenceOf(currentFile)
+        || (previousFile != null && fileSequence == sequenceOf(previousFile));
+  }
+}
@@ -7,7 +7,7 @@ import edu.wpi.first.util.datalog.BooleanLogEntry;
 import edu.wpi.first.util.datalog.DataLog;
 
 /** Sets up a boolean value in NetworkTables with the option to be logged */
-public class SpartanBooleanEntry {
+public class SpartanBooleanEntry implements SpartanLogWriter.AsyncLogTarget {
 
   private BooleanTopic topic;
   private BooleanPublisher pub;
@@ -15,7 +15,9 @@ public class SpartanBooleanEntry {
   private BooleanLogEntry log;
   boolean defaultValue = false;
   boolean logged = false;
-  DataLog logInstance = SpartanLogManager.getCurrentLog();
+  final LogDecimator decimator = new LogDecimator();
+  DataLog logInstance = null;
+  private final String name;
 
   public SpartanBooleanEntry(String name) {
     this(name, false);
@@ -27,15 +29,55 @@ public class SpartanBooleanEntry {
 
   public SpartanBooleanEntry(String name, boolean value, boolean logged) {
     this.defaultValue = value;
+    this.name = name;
     this.logged = logged;
     topic = SpartanLogManager.getNTInstance().getBooleanTopic(name);
-    log = new BooleanLogEntry(logInstance, name);
   }
 
   public void set(boolean value) {
+    var writer = SpartanLogManager.getAsyncWriter();
+    if (writer != null) {
+      writer.submit(this, value);
+    } else {
+      write(value, 0);
+    }
+  }
+
+  private void write(boolean value, long timestamp) {
     if (pub == null) pub = topic.publish();
-    pub.set(value);
-    if (SpartanLogManager.isCompetition() && logged) log.append(value);
+    pub.set(value, timestamp);
+    if (logged) {
+      var entry = getLogEntry(1);
+      if (entry != null) entry.append(value, timestamp);
+    }
+  }
+
+  /**
+   * Returns this entry in the current log file, or null if the sample is skipped because of the
+   * entry's level.
+   */
+  private BooleanLogEntry getLogEntry(int payloadBytes) {
+    var current = decimator.sample(payloadBytes);
+    if (current != null && current != logInstance) {
+      logInstance = current;
+      log = new BooleanLogEntry(current, name);
+    }
+    return current != null ? log : null;
+  }
+
+  /**
+   * Sets the priority of the entry, which decides how often it is logged. Entries are {@link
+   * LogLevel#kDiagnostic} unless set otherwise.
+   *
+   * @param level Priority of the entry.
+   */
+  public void setLevel(LogLevel level) {
+    decimator.level = level;
+  }
+
+  @Override
+  public void writeAsync(SpartanLogWriter.Slot slot) {
+    write(slot.booleanValue, slot.timestamp);
   }
 
   public boolean get() {
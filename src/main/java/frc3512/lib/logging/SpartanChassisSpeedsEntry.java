@@ -0,0 +1,42 @@
+package frc3512.lib.logging;
+
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Sets up a ChassisSpeeds value in NetworkTables with the option to be logged. The speeds are
+ * packed as [vx, vy, omega].
+ */
+public class SpartanChassisSpeedsEntry extends SpartanStructEntry {
+
+  public SpartanChassisSpeedsEntry(String name) {
+    this(name, false);
+  }
+
+  public SpartanChassisSpeedsEntry(String name, boolean logged) {
+    super(name, 3, logged);
+  }
+
+  public void set(ChassisSpeeds speeds) {
+    set(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond, speeds.omegaRadiansPerSecond);
+  }
+
+  public void set(
+      double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond) {
+    buffer[0] = vxMetersPerSecond;
+    buffer[1] = vyMetersPerSecond;
+    buffer[2] = omegaRadiansPerSecond;
+    publish();
+  }
+
+  /**
+   * Reads the latest speeds into an existing ChassisSpeeds.
+   *
+   * @param out Speeds to update.
+   */
+  public void get(ChassisSpeeds out) {
+    var currValue = read();
+    out.vxMetersPerSecond = currValue[0];
+    out.vyMetersPerSecond = currValue[1];
+    out.omegaRadiansPerSecond = currValue[2];
+  }
+}
@@ -7,15 +7,18 @@ import edu.wpi.first.util.datalog.DataLog;
 import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
 
 /** Sets up a double array value in NetworkTables with the option to be logged */
-public class SpartanDoubleArrayEntry {
+public class SpartanDoubleArrayEntry implements SpartanLogWriter.AsyncLogTarget {
 
   private DoubleArrayTopic topic;
   private DoubleArrayPublisher pub;
   private DoubleArraySubscriber sub;
   private DoubleArrayLogEntry log;
+  private double[] asyncBuffer = new double[0];
   double[] defaultValue = new double[] {};
   boolean logged = false;
-  DataLog logInstance = SpartanLogManager.getCurrentLog();
+  final LogDecimator decimator = new LogDecimator();
+  DataLog logInstance = null;
+  private final String name;
 
   public SpartanDoubleArrayEntry(String name) {
     this(name, new double[] {});
@@ -27,15 +30,57 @@ public class SpartanDoubleArrayEntry {
 
   public SpartanDoubleArrayEntry(String name, double[] value, boolean logged) {
     this.defaultValue = value;
+    this.name = name;
     this.logged = logged;
     topic = SpartanLogManager.getNTInstance().getDoubleArrayTopic(name);
-    log = new DoubleArrayLogEntry(logInstance, name);
   }
 
   public void set(double[] value) {
+    var writer = SpartanLogManager.getAsyncWriter();
+    if (writer != null && value.length <= SpartanLogWriter.kMaxArrayLength) {
+      writer.submit(this, value, value.length);
+    } else {
+      write(value, 0);
+    }
+  }
+
+  private void write(double[] value, long timestamp) {
     if (pub == null) pub = topic.publish();
-    pub.set(value);
-    if (SpartanLogManager.isCompetition() && logged) log.append(value);
+    pub.set(value, timestamp);
+    if (logged) {
+      var entry = getLogEntry(value.length * 8);
+      if (entry != null) entry.append(value, timestamp);
+    }
+  }
+
+  /**
+   * Returns this entry in the current log file, or null if the sample is skipped because of the
+   * entry's level.
+   */
+  private DoubleArrayLogEntry getLogEntry(int payloadBytes) {
+    var current = decimator.sample(payloadBytes);
+    if (current != null && current != logInstance) {
+      logInstance = current;
+      log = new DoubleArrayLogEntry(current, name);
+    }
+    return current != null ? log : null;
+  }
+
+  /**
+   * Sets the priority of the entry, which decides how often it is logged. Entries are {@link
+   * LogLevel#kDiagnostic} unless set otherwise.
+   *
+   * @param level Priority of the entry.
+   */
+  public void setLevel(LogLevel level) {
+    decimator.level = level;
+  }
+
+  @Override
+  public void writeAsync(SpartanLogWriter.Slot slot) {
+    if (asyncBuffer.length != slot.arrayLength) asyncBuffer = new double[slot.arrayLength];
+    System.arraycopy(slot.arrayValue, 0, asyncBuffer, 0, slot.arrayLength);
+    write(asyncBuffer, slot.timestamp);
   }
 
   public double[] get() {
@@ -7,7 +7,7 @@ import edu.wpi.first.util.datalog.DataLog;
 import edu.wpi.first.util.datalog.DoubleLogEntry;
 
 /** Sets up a double value in NetworkTables with the option to be logged */
-public class SpartanDoubleEntry {
+public class SpartanDoubleEntry implements SpartanLogWriter.AsyncLogTarget {
 
   private DoubleTopic topic;
   private DoublePublisher pub;
@@ -15,7 +15,9 @@ public class SpartanDoubleEntry {
   private DoubleLogEntry log;
   double defaultValue = 0.0;
   boolean logged = false;
-  DataLog logInstance = SpartanLogManager.getCurrentLog();
+  final LogDecimator decimator = new LogDecimator();
+  DataLog logInstance = null;
+  private final String name;
 
   public SpartanDoubleEntry(String name) {
     this(name, 0.0);
@@ -27,15 +29,55 @@ public class SpartanDoubleEntry {
 
   public SpartanDoubleEntry(String name, double value, boolean logged) {
     this.defaultValue = value;
+    this.name = name;
     this.logged = logged;
     topic = SpartanLogManager.getNTInstance().getDoubleTopic(name);
-    log = new DoubleLogEntry(logInstance, name);
   }
 
   public void set(double value) {
+    var writer = SpartanLogManager.getAsyncWriter();
+    if (writer != null) {
+      writer.submit(this, value);
+    } else {
+      write(value, 0);
+    }
+  }
+
+  private void write(double value, long timestamp) {
     if (pub == null) pub = topic.publish();
-    pub.set(value);
-    if (SpartanLogManager.isCompetition() && logged) log.append(value);
+    pub.set(value, timestamp);
+    if (logged) {
+      var entry = getLogEntry(8);
+      if (entry != null) entry.append(value, timestamp);
+    }
+  }
+
+  /**
+   * Returns this entry in the current log file, or null if the sample is skipped because of the
+   * entry's level.
+   */
+  private DoubleLogEntry getLogEntry(int payloadBytes) {
+    var current = decimator.sample(payloadBytes);
+    if (current != null && current != logInstance) {
+      logInstance = current;
+      log = new DoubleLogEntry(current, name);
+    }
+    return current != null ? log : null;
+  }
+
+  /**
+   * Sets the priority of the entry, which decides how often it is logged. Entries are {@link
+   * LogLevel#kDiagnostic} unless set otherwise.
+   *
+   * @param level Priority of the entry.
+   */
+  public void setLevel(LogLevel level) {
+    decimator.level = level;
+  }
+
+  @Override
+  public void writeAsync(SpartanLogWriter.Slot slot) {
+    write(slot.doubleValue, slot.timestamp);
   }
 
   public double get() {
@@ -1,18 +1,57 @@
 package frc3512.lib.logging;
 
+import edu.wpi.first.networktables.DoublePublisher;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.StringLogEntry;
 import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Timer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /** Wrapper class around the DataLogManager for additional features. */
 public class SpartanLogManager {
 
-  private static boolean isCompetition = false;
-  private static DataLog log = DataLogManager.getLog();
+  private static final double kStatsPeriodSeconds = 1.0;
+
+  private static volatile boolean isCompetition = false;
+  private static volatile DataLog log = null;
+  private static volatile LogRotator rotator = null;
   private static NetworkTableInstance ntInstance = NetworkTableInstance.getDefault();
+  private static volatile SpartanLogWriter asyncWriter = null;
+
+  // Decimation rate of each level, indexed by LogLevel ordinal. Every level is logged at full rate
+  // until told otherwise.
+  private static final int kNumLevels = LogLevel.values().length;
+  private static final AtomicIntegerArray practiceDecimation = filled(kNumLevels, 1);
+  private static final AtomicIntegerArray competitionDecimation = filled(kNumLevels, 1);
+
+  // Bytes every level would log at full rate and bytes it actually logged.
+  private static final AtomicLongArray offeredBytes = new AtomicLongArray(kNumLevels);
+  private static final AtomicLongArray loggedBytes = new AtomicLongArray(kNumLevels);
+  private static final long[] lastOfferedBytes = new long[kNumLevels];
+  private static final long[] lastLoggedBytes = new long[kNumLevels];
+  private static DoublePublisher[] fullRatePubs;
+  private static DoublePublisher[] predictedPubs;
+  private static DoublePublisher[] loggedPubs;
+  private static DoublePublisher totalPredictedPub;
+  private static double lastStatsTime = 0.0;
+
+  // Messages entry of the current log when the logs are rotated.
+  private static StringLogEntry messages = null;
+  private static DataLog messagesLog = null;
+
+  private static AtomicIntegerArray filled(int length, int value) {
+    var array = new AtomicIntegerArray(length);
+    for (int i = 0; i < length; i++) {
+      array.set(i, value);
+    }
+    return array;
+  }
 
   /**
-   * Set whether to enable competition mode. This disables logging to free up network bandwith.
+   * Set whether to enable competition mode. Entries are then logged at the competition decimation
+   * rate of their level instead of the practice rate.
    *
    * @param isCompeting Whether or not your robot is competing at an offical event.
    */
@@ -26,22 +65,112 @@ public class SpartanLogManager {
     DataLogManager.start();
   }
 
+  /**
+   * Start logging to a series of files instead of a single file per boot. A new file is started
+   * when the current one reaches a size or age limit, and the oldest logs are deleted to stay in a
+   * disk budget. When free space drops below the minimum anyway, only entries marked as critical
+   * are logged until space is freed. Call this before anything is logged.
+   *
+   * @param maxFileBytes Size after which a new file is started.
+   * @param maxFileSeconds Time after which a new file is started.
+   * @param budgetBytes Total size the logs may take up.
+   * @param minFreeBytes Free space below which only critical entries are logged.
+   */
+  public static synchronized void startLogging(
+      long maxFileBytes, double maxFileSeconds, long budgetBytes, long minFreeBytes) {
+    if (rotator != null) {
+      return;
+    }
+    var newRotator =
+        new LogRotator(
+            LogRotator.getDefaultDir(), maxFileBytes, maxFileSeconds, budgetBytes, minFreeBytes);
+    newRotator.start();
+    rotator = newRotator;
+  }
+
+  /**
+   * Moves NetworkTables publishing and DataLog appends for every entry onto a background thread.
+   * Entries then only copy their value into a preallocated ring buffer when set. Call this before
+   * any entries are set.
+   *
+   * @param capacity Number of samples the ring buffer can hold before samples are dropped.
+   */
+  public static void enableAsyncLogging(int capacity) {
+    if (asyncWriter == null) {
+      var writer = new SpartanLogWriter(capacity);
+      writer.start();
+      asyncWriter = writer;
+    }
+  }
+
+  /**
+   * Returns the background log writer.
+   *
+   * @return The writer, or null if asynchronous logging is disabled.
+   */
+  public static SpartanLogWriter getAsyncWriter() {
+    return asyncWriter;
+  }
+
   /**
    * Log a specified string text into the messages" entry. Also prints out to standard output.
    *
    * @param message Message text.
    */
   public static void logMessage(String message) {
-    DataLogManager.log(message);
+    if (rotator == null) {
+      DataLogManager.log(message);
+      return;
+    }
+
+    System.out.println(message);
+    synchronized (SpartanLogManager.class) {
+      var current = getCurrentLog();
+      if (current != messagesLog) {
+        messagesLog = current;
+        messages = new StringLogEntry(current, "messages");
+      }
+      messages.append(message);
+    }
   }
 
   /**
-   * Returns the DataLog object for creating custom log entries.
+   * Returns the DataLog object for creating custom log entries. When the logs are rotated, this
+   * changes every time a new file is started.
    *
    * @return Instance of the DataLog.
    */
   public static DataLog getCurrentLog() {
-    return log;
+    var currentRotator = rotator;
+    if (currentRotator != null) {
+      return currentRotator.getLog();
+    }
+    var current = log;
+    if (current == null) {
+      synchronized (SpartanLogManager.class) {
+        if (log == null) {
+          log = DataLogManager.getLog();
+        }
+        current = log;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Returns the log an entry should write to right now.
+   *
+   * @param level Priority of the entry.
+   * @return The current log, or null if disk space is low and the entry isn't critical.
+   */
+  public static DataLog getLogForEntry(LogLevel level) {
+    var currentRotator = rotator;
+    if (currentRotator != null
+        && level != LogLevel.kCritical
+        && currentRotator.isCriticalOnly()) {
+      return null;
+    }
+    return getCurrentLog();
   }
 
   /**
@@ -54,11 +183,91 @@ public class SpartanLogManager {
   }
 
   /**
-   * Returns if the robot is set to run in competition mode. Disables logging if thats the case.
+   * Returns if the robot is set to run in competition mode, which logs at the competition
+   * decimation rates.
    *
    * @return Whether or not competition mode is enabled.
    */
   public static boolean isCompetition() {
-    return !isCompetition;
+    return isCompetition;
+  }
+
+  /**
+   * Sets how often entries of a level are logged. A decimation of n logs every nth sample, and 0
+   * stops logging the level. Can be changed at any time.
+   *
+   * @param level Priority level.
+   * @param practice Decimation outside of competition mode.
+   * @param competition Decimation in competition mode.
+   */
+  public static void setDecimation(LogLevel level, int practice, int competition) {
+    practiceDecimation.set(level.ordinal(), Math.max(0, practice));
+    competitionDecimation.set(level.ordinal(), Math.max(0, competition));
+  }
+
+  /**
+   * Returns how often entries of a level are logged in the current mode.
+   *
+   * @param level Priority level.
+   * @return Every how many samples one is logged, or 0 if the level isn't logged.
+   */
+  public static int getDecimation(LogLevel level) {
+    return isCompetition
+        ? competitionDecimation.get(level.ordinal())
+        : practiceDecimation.get(level.ordinal());
+  }
+
+  static void recordOfferedBytes(LogLevel level, int bytes) {
+    offeredBytes.addAndGet(level.ordinal(), bytes);
+  }
+
+  static void recordLoggedBytes(LogLevel level, int bytes) {
+    loggedBytes.addAndGet(level.ordinal(), bytes);
+  }
+
+  /**
+   * Publishes the log data rate of every level under /Diagnostics/Logging once a second: the rate
+   * at full rate, the rate predicted from the current decimation, and the rate actually logged.
+   * Call periodically.
+   */
+  public static synchronized void publishStats() {
+    double now = Timer.getFPGATimestamp();
+    double dt = now - lastStatsTime;
+    if (dt < kStatsPeriodSeconds) {
+      return;
+    }
+    lastStatsTime = now;
+
+    if (fullRatePubs == null) {
+      fullRatePubs = new DoublePublisher[kNumLevels];
+      predictedPubs = new DoublePublisher[kNumLevels];
+      loggedPubs = new DoublePublisher[kNumLevels];
+      for (var level : LogLevel.values()) {
+        String prefix = "/Diagnostics/Logging/" + level.name().substring(1) + "/";
+        int i = level.ordinal();
+        fullRatePubs[i] = ntInstance.getDoubleTopic(prefix + "Full Rate Bytes").publish();
+        predictedPubs[i] = ntInstance.getDoubleTopic(prefix + "Predicted Bytes").publish();
+        loggedPubs[i] = ntInstance.getDoubleTopic(prefix + "Logged Bytes").publish();
+      }
+      totalPredictedPub =
+          ntInstance.getDoubleTopic("/Diagnostics/Logging/Predicted Bytes").publish();
+    }
+
+    double totalPredicted = 0.0;
+    for (var level : LogLevel.values()) {
+      int i = level.ordinal();
+      long offered = offeredBytes.get(i);
+      long logged = loggedBytes.get(i);
+      double fullRate = (offered - lastOfferedBytes[i]) / dt;
+      int decimation = getDecimation(level);
+      double predicted = decimation > 0 ? fullRate / decimation : 0.0;
+      fullRatePubs[i].set(fullRate);
+      predictedPubs[i].set(predicted);
+      loggedPubs[i].set((logged - lastLoggedBytes[i]) / dt);
+      totalPredicted += predicted;
+      lastOfferedBytes[i] = offered;
+      lastLoggedBytes[i] = logged;
+    }
+    totalPredictedPub.set(totalPredicted);
   }
 }
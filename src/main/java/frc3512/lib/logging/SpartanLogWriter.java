@@ -0,0 +1,233 @@
+package frc3512.lib.logging;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.util.WPIUtilJNI;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer for the Spartan*Entry classes. When asynchronous logging is enabled, set() only
+ * copies the value into a preallocated lock-free ring buffer and the writer thread publishes it to
+ * NetworkTables and appends it to the DataLog in batches. If the buffer is full the sample is
+ * dropped and counted instead of blocking the caller.
+ */
+public class SpartanLogWriter {
+  /** Largest double array that fits into a slot. Larger arrays are written synchronously. */
+  public static final int kMaxArrayLength = 16;
+
+  private static final int kBatchSize = 256;
+  private static final long kIdleParkNanos = 1_000_000;
+  private static final long kStatsPeriodMicros = 1_000_000;
+
+  /** A single queued sample. Slots are preallocated and reused. */
+  static final class Slot {
+    AsyncLogTarget target;
+    long timestamp;
+    double doubleValue;
+    boolean booleanValue;
+    Object objectValue;
+    final double[] arrayValue = new double[kMaxArrayLength];
+    int arrayLength;
+  }
+
+  /** Implemented by every entry type that can be written by the background thread. */
+  interface AsyncLogTarget {
+    void writeAsync(Slot slot);
+  }
+
+  private final int mask;
+  private final Slot[] slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  private long head = 0; // Only touched by the writer thread.
+
+  private final AtomicLong droppedSamples = new AtomicLong();
+  private final AtomicLong writtenSamples = new AtomicLong();
+  private final AtomicLong maxSetLatencyNanos = new AtomicLong();
+
+  private final Thread thread;
+  private volatile boolean running = false;
+
+  /**
+   * Creates a new SpartanLogWriter.
+   *
+   * @param capacity Number of samples the ring buffer can hold. Rounded up to a power of two.
+   */
+  public SpartanLogWriter(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    mask = size - 1;
+    slots = new Slot[size];
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      slots[i] = new Slot();
+      sequences.set(i, i);
+    }
+
+    thread = new Thread(this::run, "SpartanLogWriter");
+    thread.setDaemon(true);
+  }
+
+  /** Starts the writer thread. */
+  public void start() {
+    running = true;
+    thread.start();
+  }
+
+  /** Stops the writer thread after it writes out everything that is queued. */
+  public void stop() {
+    running = false;
+    LockSupport.unpark(thread);
+  }
+
+  /**
+   * Claims the next free slot and returns its position, or -1 if the buffer is full. Every
+   * successful claim must be followed by {@link #commit(long, long)}.
+   */
+  private long claim(AsyncLogTarget target) {
+    long pos = tail.get();
+    while (true) {
+      int index = (int) (pos & mask);
+      long dif = sequences.get(index) - pos;
+      if (dif == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          Slot slot = slots[index];
+          slot.target = target;
+          slot.timestamp = WPIUtilJNI.now();
+          return pos;
+        }
+      } else if (dif < 0) {
+        droppedSamples.incrementAndGet();
+        return -1;
+      }
+      pos = tail.get();
+    }
+  }
+
+  /** Hands a filled slot to the writer thread and records how long the set() took. */
+  private void commit(long pos, long startNanos) {
+    sequences.lazySet((int) (pos & mask), pos + 1);
+
+    long latency = System.nanoTime() - startNanos;
+    long max = maxSetLatencyNanos.get();
+    while (latency > max && !maxSetLatencyNanos.compareAndSet(max, latency)) {
+      max = maxSetLatencyNanos.get();
+    }
+  }
+
+  boolean submit(AsyncLogTarget target, double value) {
+    long start = System.nanoTime();
+    long pos = claim(target);
+    if (pos < 0) return false;
+    slots[(int) (pos & mask)].doubleValue = value;
+    commit(pos, start);
+    return true;
+  }
+
+  boolean submit(AsyncLogTarget target, boolean value) {
+    long start = System.nanoTime();
+    long pos = claim(target);
+    if (pos < 0) return false;
+    slots[(int) (pos & mask)].booleanValue = value;
+    commit(pos, start);
+    return true;
+  }
+
+  boolean submit(AsyncLogTarget target, Object value) {
+    long start = System.nanoTime();
+    long pos = claim(target);
+    if (pos < 0) return false;
+    slots[(int) (pos & mask)].objectValue = value;
+    commit(pos, start);
+    return true;
+  }
+
+  boolean submit(AsyncLogTarget target, double[] value, int length) {
+    long start = System.nanoTime();
+    long pos = claim(target);
+    if (pos < 0) return false;
+    Slot slot = slots[(int) (pos & mask)];
+    System.arraycopy(value, 0, slot.arrayValue, 0, length);
+    slot.arrayLength = length;
+    commit(pos, start);
+    return true;
+  }
+
+  // Package-private so tests can drain the buffer without starting the writer thread.
+  int drain() {
+    int count = 0;
+    while (count < kBatchSize) {
+      int index = (int) (head & mask);
+      if (sequences.get(index) != head + 1) break;
+
+      Slot slot = slots[index];
+      slot.target.writeAsync(slot);
+      slot.target = null;
+      slot.objectValue = null;
+      sequences.lazySet(index, head + mask + 1);
+      head++;
+      count++;
+    }
+    return count;
+  }
+
+  private void run() {
+    var ntInstance = SpartanLogManager.getNTInstance();
+    DoublePublisher dropped =
+        ntInstance.getDoubleTopic("/Diagnostics/Logging/Dropped Samples").publish();
+    DoublePublisher written =
+        ntInstance.getDoubleTopic("/Diagnostics/Logging/Written Samples").publish();
+    DoublePublisher maxLatency =
+        ntInstance.getDoubleTopic("/Diagnostics/Logging/Max Set Latency").publish();
+    long lastStats = 0;
+
+    while (running) {
+      int count = drain();
+      writtenSamples.addAndGet(count);
+
+      long now = WPIUtilJNI.now();
+      if (now - lastStats >= kStatsPeriodMicros) {
+        dropped.set(getDroppedSamples());
+        written.set(getWrittenSamples());
+        maxLatency.set(getMaxSetLatency() * 1e6);
+        lastStats = now;
+      }
+
+      if (count < kBatchSize) {
+        LockSupport.parkNanos(kIdleParkNanos);
+      }
+    }
+
+    int count;
+    while ((count = drain()) > 0) {
+      writtenSamples.addAndGet(count);
+    }
+  }
+
+  /**
+   * Returns how many samples were dropped because the ring buffer was full.
+   *
+   * @return Number of dropped samples.
+   */
+  public long getDroppedSamples() {
+    return droppedSamples.get();
+  }
+
+  /**
+   * Returns how many samples the writer thread has written out.
+   *
+   * @return Number of written samples.
+   */
+  public long getWrittenSamples() {
+    return writtenSamples.get();
+  }
+
+  /**
+   * Returns the worst-case time spent queueing a sample in set().
+   *
+   * @return Maximum set() latency in seconds.
+   */
+  public double getMaxSetLatency() {
+    return maxSetLatencyNanos.get() * 1e-9;
+  }
+}
@@ -7,7 +7,7 @@ import edu.wpi.first.util.datalog.DataLog;
 import edu.wpi.first.util.datalog.StringLogEntry;
 
 /** Sets up a string value in NetworkTables with the option to be logged */
-public class SpartanStringEntry {
+public class SpartanStringEntry implements SpartanLogWriter.AsyncLogTarget {
 
   private StringTopic topic;
   private StringPublisher pub;
@@ -15,7 +15,9 @@ public class SpartanStringEntry {
   private StringLogEntry log;
   String defaultValue = "";
   boolean logged = false;
-  DataLog logInstance = SpartanLogManager.getCurrentLog();
+  final LogDecimator decimator = new LogDecimator();
+  DataLog logInstance = null;
+  private final String name;
 
   public SpartanStringEntry(String name) {
     this(name, "");
@@ -27,15 +29,55 @@ public class SpartanStringEntry {
 
   public SpartanStringEntry(String name, String value, boolean logged) {
     this.defaultValue = value;
+    this.name = name;
     this.logged = logged;
     topic = SpartanLogManager.getNTInstance().getStringTopic(name);
-    log = new StringLogEntry(logInstance, name);
   }
 
   public void set(String value) {
+    var writer = SpartanLogManager.getAsyncWriter();
+    if (writer != null) {
+      writer.submit(this, value);
+    } else {
+      write(value, 0);
+    }
+  }
+
+  private void write(String value, long timestamp) {
     if (pub == null) pub = topic.publish();
-    pub.set(value);
-    if (SpartanLogManager.isCompetition() && logged) log.append(value);
+    pub.set(value, timestamp);
+    if (logged) {
+      var entry = getLogEntry(value.length());
+      if (entry != null) entry.append(value, timestamp);
+    }
+  }
+
+  /**
+   * Returns this entry in the current log file, or null if the sample is skipped because of the
+   * entry's level.
+   */
+  private StringLogEntry getLogEntry(int payloadBytes) {
+    var current = decimator.sample(payloadBytes);
+    if (current != null && current != logInstance) {
+      logInstance = current;
+      log = new StringLogEntry(current, name);
+    }
+    return current != null ? log : null;
+  }
+
+  /**
+   * Sets the priority of the entry, which decides how often it is logged. Entries are {@link
+   * LogLevel#kDiagnostic} unless set otherwise.
+   *
+   * @param level Priority of the entry.
+   */
+  public void setLevel(LogLevel level) {
+    decimator.level = level;
+  }
+
+  @Override
+  public void writeAsync(SpartanLogWriter.Slot slot) {
+    write((String) slot.objectValue, slot.timestamp);
   }
 
   public String get() {
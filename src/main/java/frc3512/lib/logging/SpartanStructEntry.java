@@ -0,0 +1,116 @@
+package frc3512.lib.logging;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoubleArrayTopic;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+
+/**
+ * Base class for entries that pack a composite value into a single fixed-length double array
+ * topic. The packing buffer is reused between calls, so setting a value does not allocate.
+ */
+public abstract class SpartanStructEntry implements SpartanLogWriter.AsyncLogTarget {
+
+  private DoubleArrayTopic topic;
+  private DoubleArrayPublisher pub;
+  private DoubleArraySubscriber sub;
+  private DoubleArrayLogEntry log;
+  private final double[] asyncBuffer;
+  protected final double[] buffer;
+  double[] defaultValue;
+  boolean logged = false;
+  final LogDecimator decimator = new LogDecimator();
+  DataLog logInstance = null;
+  private final String name;
+
+  /**
+   * Creates a new SpartanStructEntry.
+   *
+   * @param name Name of the topic and log entry.
+   * @param length Number of doubles a packed value takes up.
+   * @param logged Whether to also log the value.
+   */
+  protected SpartanStructEntry(String name, int length, boolean logged) {
+    this.name = name;
+    this.logged = logged;
+    buffer = new double[length];
+    asyncBuffer = new double[length];
+    defaultValue = new double[length];
+    topic = SpartanLogManager.getNTInstance().getDoubleArrayTopic(name);
+  }
+
+  /** Uses the current contents of the packing buffer as the default value for reads. */
+  protected void setDefaultFromBuffer() {
+    System.arraycopy(buffer, 0, defaultValue, 0, buffer.length);
+  }
+
+  /** Publishes the current contents of the packing buffer. */
+  protected void publish() {
+    var writer = SpartanLogManager.getAsyncWriter();
+    if (writer != null && buffer.length <= SpartanLogWriter.kMaxArrayLength) {
+      writer.submit(this, buffer, buffer.length);
+    } else {
+      write(buffer, 0);
+    }
+  }
+
+  private void write(double[] value, long timestamp) {
+    if (pub == null) pub = topic.publish();
+    pub.set(value, timestamp);
+    if (logged) {
+      var entry = getLogEntry(value.length * 8);
+      if (entry != null) entry.append(value, timestamp);
+    }
+  }
+
+  /**
+   * Returns this entry in the current log file, or null if the sample is skipped because of the
+   * entry's level.
+   */
+  private DoubleArrayLogEntry getLogEntry(int payloadBytes) {
+    var current = decimator.sample(payloadBytes);
+    if (current != null && current != logInstance) {
+      logInstance = current;
+      log = new DoubleArrayLogEntry(current, name);
+    }
+    return current != null ? log : null;
+  }
+
+  /**
+   * Sets the priority of the entry, which decides how often it is logged. Entries are {@link
+   * LogLevel#kDiagnostic} unless set otherwise.
+   *
+   * @param level Priority of the entry.
+   */
+  public void setLevel(LogLevel level) {
+    decimator.level = level;
+  }
+
+  @Override
+  public void writeAsync(SpartanLogWriter.Slot slot) {
+    System.arraycopy(slot.arrayValue, 0, asyncBuffer, 0, asyncBuffer.length);
+    write(asyncBuffer, slot.timestamp);
+  }
+
+  /**
+   * Reads the latest packed value. Falls back to the default value if nothing with the expected
+   * length has been published.
+   *
+   * @return The packed value.
+   */
+  protected double[] read() {
+    if (sub == null) sub = topic.subscribe(defaultValue);
+    var currValue = sub.get();
+    return currValue.length == buffer.length ? currValue : defaultValue;
+  }
+
+  /**
+   * Copies the latest packed value into a caller supplied array.
+   *
+   * @param out Array to copy into. Must be at least as long as a packed value.
+   */
+  public void get(double[] out) {
+    System.arraycopy(read(), 0, out, 0, buffer.length);
+  }
+}
@@ -0,0 +1,56 @@
+package frc3512.lib.logging;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+
+/**
+ * Sets up an array of swerve module positions in NetworkTables with the option to be logged. The
+ * positions are packed as [distance 0, degrees 0, distance 1, degrees 1, ...].
+ */
+public class SpartanSwerveModulePositionsEntry extends SpartanStructEntry {
+  private final int numModules;
+
+  public SpartanSwerveModulePositionsEntry(String name, int numModules) {
+    this(name, numModules, false);
+  }
+
+  public SpartanSwerveModulePositionsEntry(String name, int numModules, boolean logged) {
+    super(name, numModules * 2, logged);
+    this.numModules = numModules;
+  }
+
+  public void set(SwerveModulePosition[] positions) {
+    for (int i = 0; i < numModules; i++) {
+      buffer[i * 2] = positions[i].distanceMeters;
+      buffer[i * 2 + 1] = positions[i].angle.getDegrees();
+    }
+    publish();
+  }
+
+  /**
+   * Sets the positions from primitive arrays indexed by module number.
+   *
+   * @param distancesMeters Module drive distances in meters.
+   * @param anglesDegrees Module angles in degrees.
+   */
+  public void set(double[] distancesMeters, double[] anglesDegrees) {
+    for (int i = 0; i < numModules; i++) {
+      buffer[i * 2] = distancesMeters[i];
+      buffer[i * 2 + 1] = anglesDegrees[i];
+    }
+    publish();
+  }
+
+  /**
+   * Reads the latest positions into existing position objects.
+   *
+   * @param out Positions to update, indexed by module number.
+   */
+  public void get(SwerveModulePosition[] out) {
+    var currValue = read();
+    for (int i = 0; i < numModules; i++) {
+      out[i].distanceMeters = currValue[i * 2];
+      out[i].angle = Rotation2d.fromDegrees(currValue[i * 2 + 1]);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package frc3512.lib.logging;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Sets up an array of swerve module states in NetworkTables with the option to be logged. The
+ * states are packed as [speed 0, degrees 0, speed 1, degrees 1, ...].
+ */
+public class SpartanSwerveModuleStatesEntry extends SpartanStructEntry {
+  private final int numModules;
+
+  public SpartanSwerveModuleStatesEntry(String name, int numModules) {
+    this(name, numModules, false);
+  }
+
+  public SpartanSwerveModuleStatesEntry(String name, int numModules, boolean logged) {
+    super(name, numModules * 2, logged);
+    this.numModules = numModules;
+  }
+
+  public void set(SwerveModuleState[] states) {
+    for (int i = 0; i < numModules; i++) {
+      buffer[i * 2] = states[i].speedMetersPerSecond;
+      buffer[i * 2 + 1] = states[i].angle.getDegrees();
+    }
+    publish();
+  }
+
+  /**
+   * Sets the states from primitive arrays indexed by module number.
+   *
+   * @param speeds Module speeds in meters per second.
+   * @param anglesDegrees Module angles in degrees.
+   */
+  public void set(double[] speeds, double[] anglesDegrees) {
+    for (int i = 0; i < numModules; i++) {
+      buffer[i * 2] = speeds[i];
+      buffer[i * 2 + 1] = anglesDegrees[i];
+    }
+    publish();
+  }
+
+  /**
+   * Reads the latest states into existing state objects.
+   *
+   * @param out States to update, indexed by module number.
+   */
+  public void get(SwerveModuleState[] out) {
+    var currValue = read();
+    for (int i = 0; i < numModules; i++) {
+      out[i].speedMetersPerSecond = currValue[i * 2];
+      out[i].angle = Rotation2d.fromDegrees(currValue[i * 2 + 1]);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package frc3512.lib.motion;
+
+import com.revrobotics.CANSparkMax.IdleMode;
+
+/**
+ * Settings applied to a Spark Max by {@link SpartanSparkMax#applyConfig(SparkMaxConfig)}. The
+ * settings are hashed so a configuration that is already in the controller's flash can be
+ * recognized at boot.
+ */
+public class SparkMaxConfig {
+  // Bump whenever the way a config is applied changes.
+  private static final long kFormatVersion = 1;
+
+  public IdleMode idleMode = IdleMode.kCoast;
+  public int smartCurrentLimit = 80;
+  public double voltageCompensation = 0.0;
+  public double positionConversionFactor = 1.0;
+  public double velocityConversionFactor = 1.0;
+  public double kP = 0.0;
+  public double kI = 0.0;
+  public double kD = 0.0;
+  public double kFF = 0.0;
+  public boolean continuousInput = false;
+  public double continuousInputMin = 0.0;
+  public double continuousInputMax = 0.0;
+
+  /**
+   * Returns a 64-bit FNV-1a hash of every setting.
+   *
+   * @param inverted Whether the motor is inverted, which is set when the controller is created.
+   * @return Hash of the config.
+   */
+  public long hash(boolean inverted) {
+    long hash = 0xcbf29ce484222325L;
+    hash = mix(hash, kFormatVersion);
+    hash = mix(hash, inverted ? 1 : 0);
+    hash = mix(hash, idleMode.value);
+    hash = mix(hash, smartCurrentLimit);
+    hash = mix(hash, Double.doubleToLongBits(voltageCompensation));
+    hash = mix(hash, Double.doubleToLongBits(positionConversionFactor));
+    hash = mix(hash, Double.doubleToLongBits(velocityConversionFactor));
+    hash = mix(hash, Double.doubleToLongBits(kP));
+    hash = mix(hash, Double.doubleToLongBits(kI));
+    hash = mix(hash, Double.doubleToLongBits(kD));
+    hash = mix(hash, Double.doubleToLongBits(kFF));
+    hash = mix(hash, continuousInput ? 1 : 0);
+    hash = mix(hash, Double.doubleToLongBits(continuousInputMin));
+    hash = mix(hash, Double.doubleToLongBits(continuousInputMax));
+    return hash;
+  }
+
+  private static long mix(long hash, long value) {
+    for (int i = 0; i < 8; i++) {
+      hash ^= (value >>> (i * 8)) & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+}
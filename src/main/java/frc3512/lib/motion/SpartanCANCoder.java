@@ -1,5 +1,6 @@
 package frc3512.lib.motion;
 
+import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.sensors.AbsoluteSensorRange;
 import com.ctre.phoenix.sensors.CANCoder;
 import com.ctre.phoenix.sensors.CANCoderConfiguration;
@@ -17,6 +18,7 @@ public class SpartanCANCoder {
   private CANCoderSimCollection sim;
 
   boolean inverted;
+  CANCoderUsage usage = CANCoderUsage.kMinimal;
 
   /**
    * Creates a new SpartanCANCoder.
@@ -30,7 +32,7 @@ public class SpartanCANCoder {
     config = new CANCoderConfiguration();
     sim = cancoder.getSimCollection();
     buildConfig();
-    configEncoder();
+    CANCoderUtil.setCANCoderBusUsage(cancoder, usage);
   }
 
   /**
@@ -46,13 +48,65 @@ public class SpartanCANCoder {
     config = new CANCoderConfiguration();
     sim = cancoder.getSimCollection();
     buildConfig();
-    configEncoder();
+    CANCoderUtil.setCANCoderBusUsage(cancoder, usage);
   }
 
-  private void configEncoder() {
-    cancoder.configFactoryDefault();
-    CANCoderUtil.setCANCoderBusUsage(cancoder, CANCoderUsage.kMinimal);
-    cancoder.configAllSettings(config);
+  /**
+   * Writes the settings to the CANCoder. The CANCoder stores every write in flash, so only call
+   * this when the settings changed.
+   *
+   * @param timeoutMs How long to wait for each write to be acknowledged.
+   * @return Whether every write was acknowledged.
+   */
+  public boolean configure(int timeoutMs) {
+    return cancoder.configFactoryDefault(timeoutMs) == ErrorCode.OK
+        && cancoder.configAllSettings(config, timeoutMs) == ErrorCode.OK;
+  }
+
+  /**
+   * Reads the settings back from the CANCoder and compares them.
+   *
+   * @param timeoutMs How long to wait for the read.
+   * @return Whether the CANCoder reported every setting as applied.
+   */
+  public boolean verifyConfig(int timeoutMs) {
+    var actual = new CANCoderConfiguration();
+    return cancoder.getAllConfigs(actual, timeoutMs) == ErrorCode.OK
+        && actual.absoluteSensorRange == config.absoluteSensorRange
+        && actual.sensorDirection == config.sensorDirection
+        && actual.initializationStrategy == config.initializationStrategy
+        && actual.sensorTimeBase == config.sensorTimeBase;
+  }
+
+  /**
+   * Returns the CAN ID of the CANCoder.
+   *
+   * @return The CAN ID.
+   */
+  public int getDeviceId() {
+    return cancoder.getDeviceID();
+  }
+
+  /**
+   * Returns a 64-bit FNV-1a hash of the settings.
+   *
+   * @return Hash of the settings.
+   */
+  public long getConfigHash() {
+    long hash = 0xcbf29ce484222325L;
+    long[] values = {
+      config.absoluteSensorRange.value,
+      config.sensorDirection ? 1 : 0,
+      config.initializationStrategy.value,
+      config.sensorTimeBase.value
+    };
+    for (long value : values) {
+      for (int i = 0; i < 8; i++) {
+        hash ^= (value >>> (i * 8)) & 0xff;
+        hash *= 0x100000001b3L;
+      }
+    }
+    return hash;
   }
 
   private void buildConfig() {
@@ -62,6 +116,20 @@ public class SpartanCANCoder {
     config.sensorTimeBase = SensorTimeBase.PerSecond;
   }
 
+  /**
+   * Changes which status frames the CANCoder sends at a high rate.
+   *
+   * @param usage The status frame feedback to enable.
+   */
+  public void setUsage(CANCoderUsage usage) {
+    this.usage = usage;
+    CANCoderUtil.setCANCoderBusUsage(cancoder, usage);
+  }
+
+  public CANCoderUsage getUsage() {
+    return usage;
+  }
+
   public void addSimulatedPosition(double position) {
     sim.addPosition((int) position);
   }
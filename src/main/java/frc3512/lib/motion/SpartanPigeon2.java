@@ -0,0 +1,153 @@
+package frc3512.lib.motion;
+
+import com.ctre.phoenix.sensors.Pigeon2;
+import edu.wpi.first.wpilibj.Timer;
+import frc3512.lib.util.Pigeon2Util;
+import frc3512.lib.util.Pigeon2Util.Pigeon2Usage;
+
+/**
+ * Wrapper class around the Pigeon 2. {@link #update()} reads the yaw, yaw rate and acceleration
+ * once per cycle with the time they were read, and the getters return those readings without going
+ * back to the device.
+ */
+public class SpartanPigeon2 {
+  // The accelerometer reports in Q2.14 fixed point, so 1 g is 2^14.
+  private static final double kAccelUnitsPerG = 16384.0;
+
+  private final Pigeon2 pigeon;
+  private Pigeon2Usage usage = Pigeon2Usage.kMinimal;
+
+  // Readings from the last update().
+  private final double[] gyroBuffer = new double[3];
+  private final short[] accelBuffer = new short[3];
+  private double yawDegrees = 0.0;
+  private volatile double yawRateDegreesPerSecond = 0.0;
+  private double accelerationX = 0.0;
+  private double accelerationY = 0.0;
+  private double accelerationZ = 0.0;
+  private double timestamp = 0.0;
+
+  // Average age of the latest yaw frame, which is half its period.
+  private volatile double yawLatencySeconds;
+
+  /**
+   * Creates a new SpartanPigeon2.
+   *
+   * @param id CAN ID for the device
+   */
+  public SpartanPigeon2(int id) {
+    pigeon = new Pigeon2(id);
+    pigeon.configFactoryDefault();
+    setUsage(usage);
+  }
+
+  /**
+   * Creates a new SpartanPigeon2.
+   *
+   * @param id CAN ID for the device
+   * @param canivore Name of the Canivore
+   */
+  public SpartanPigeon2(int id, String canivore) {
+    pigeon = new Pigeon2(id, canivore);
+    pigeon.configFactoryDefault();
+    setUsage(usage);
+  }
+
+  /** Reads the yaw, yaw rate and acceleration from the Pigeon 2. Call once per cycle. */
+  public void update() {
+    timestamp = Timer.getFPGATimestamp();
+    yawDegrees = pigeon.getYaw();
+    pigeon.getRawGyro(gyroBuffer);
+    yawRateDegreesPerSecond = gyroBuffer[2];
+    pigeon.getBiasedAccelerometer(accelBuffer);
+    accelerationX = accelBuffer[0] / kAccelUnitsPerG;
+    accelerationY = accelBuffer[1] / kAccelUnitsPerG;
+    accelerationZ = accelBuffer[2] / kAccelUnitsPerG;
+  }
+
+  /**
+   * Returns the yaw from the last update.
+   *
+   * @return Yaw in degrees, CCW positive.
+   */
+  public double getYaw() {
+    return yawDegrees;
+  }
+
+  /**
+   * Returns the yaw from the last update, moved forward by the yaw rate to make up for the age of
+   * the frame it came from.
+   *
+   * @return Yaw in degrees, CCW positive.
+   */
+  public double getCompensatedYaw() {
+    return yawDegrees + yawRateDegreesPerSecond * yawLatencySeconds;
+  }
+
+  /**
+   * Reads the yaw directly from the device, for threads that sample faster than {@link #update()}
+   * is called. The yaw rate from the last update is used for latency compensation.
+   *
+   * @param compensate Whether to make up for the age of the frame the yaw came from.
+   * @return Yaw in degrees, CCW positive.
+   */
+  public double readYaw(boolean compensate) {
+    double yaw = pigeon.getYaw();
+    return compensate ? yaw + yawRateDegreesPerSecond * yawLatencySeconds : yaw;
+  }
+
+  /**
+   * Returns the yaw rate from the last update.
+   *
+   * @return Yaw rate in degrees per second, CCW positive.
+   */
+  public double getYawRate() {
+    return yawRateDegreesPerSecond;
+  }
+
+  public double getAccelerationX() {
+    return accelerationX;
+  }
+
+  public double getAccelerationY() {
+    return accelerationY;
+  }
+
+  public double getAccelerationZ() {
+    return accelerationZ;
+  }
+
+  /**
+   * Returns when the last update read the device.
+   *
+   * @return FPGA timestamp in seconds.
+   */
+  public double getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Sets the current yaw.
+   *
+   * @param yaw New yaw in degrees.
+   */
+  public void setYaw(double yaw) {
+    pigeon.setYaw(yaw);
+    yawDegrees = yaw;
+  }
+
+  /**
+   * Changes which status frames the Pigeon 2 sends at a high rate.
+   *
+   * @param usage The status frame feedback to enable.
+   */
+  public void setUsage(Pigeon2Usage usage) {
+    this.usage = usage;
+    yawLatencySeconds = Pigeon2Util.getYawFramePeriod(usage) / 2000.0;
+    Pigeon2Util.setPigeon2BusUsage(pigeon, usage);
+  }
+
+  public Pigeon2Usage getUsage() {
+    return usage;
+  }
+}
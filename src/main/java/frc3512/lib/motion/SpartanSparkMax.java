@@ -4,6 +4,7 @@ import com.revrobotics.CANSparkMax;
 import com.revrobotics.CANSparkMax.ControlType;
 import com.revrobotics.CANSparkMax.IdleMode;
 import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.REVLibError;
 import com.revrobotics.RelativeEncoder;
 import com.revrobotics.SparkMaxPIDController;
 import frc3512.lib.util.CANSparkMaxUtil;
@@ -11,8 +12,14 @@ import frc3512.lib.util.CANSparkMaxUtil.Usage;
 
 /* Wrapper class around the Spark Max motor controller.
  * Infers that you are using a NEO or NEO500 brushless motor.
+ *
+ * Setpoints and config values are cached, and writes that would not change anything are not sent.
+ * A setpoint is still resent once every refresh interval in case the controller missed or lost it.
  */
 public class SpartanSparkMax {
+  // Setpoints sent by every Spark Max, and setpoints skipped because they were unchanged.
+  private static long totalSentFrames = 0;
+  private static long totalSuppressedFrames = 0;
 
   private CANSparkMax motor;
   private RelativeEncoder encoder;
@@ -21,6 +28,29 @@ public class SpartanSparkMax {
   boolean inverted;
   Usage usage;
 
+  // Last setpoint sent. A null control type means the next setpoint is always sent.
+  private ControlType lastControlType = null;
+  private double lastReference = Double.NaN;
+  private double lastFeedforward = Double.NaN;
+  private long lastSendNanos = 0;
+
+  private double referenceTolerance = 0.0;
+  private double feedforwardTolerance = 0.0;
+  private long refreshNanos = 100_000_000;
+  private long sentFrames = 0;
+  private long suppressedFrames = 0;
+
+  // Last config values written, NaN when unknown.
+  private double p = Double.NaN;
+  private double i = Double.NaN;
+  private double d = Double.NaN;
+  private double ff = Double.NaN;
+  private double positionFactor = Double.NaN;
+  private double velocityFactor = Double.NaN;
+  private double voltageComp = Double.NaN;
+  private int currentLimit = -1;
+  private IdleMode idleMode = null;
+
   /**
    * Creates a SpartanSparkMax.
    *
@@ -34,38 +64,238 @@ public class SpartanSparkMax {
     encoder = motor.getEncoder();
     controller = motor.getPIDController();
 
-    motor.restoreFactoryDefaults();
     CANSparkMaxUtil.setCANSparkMaxBusUsage(motor, usage);
     motor.setInverted(invert);
   }
 
+  /**
+   * Restores the factory defaults and forgets every cached setting. The inversion and status frame
+   * periods given to the constructor are applied again.
+   *
+   * @return Whether the controller acknowledged the restore.
+   */
+  public boolean restoreFactoryDefaults() {
+    boolean ok = motor.restoreFactoryDefaults() == REVLibError.kOk;
+    p = Double.NaN;
+    i = Double.NaN;
+    d = Double.NaN;
+    ff = Double.NaN;
+    positionFactor = Double.NaN;
+    velocityFactor = Double.NaN;
+    voltageComp = Double.NaN;
+    currentLimit = -1;
+    idleMode = null;
+    invalidateSetpoint();
+
+    CANSparkMaxUtil.setCANSparkMaxBusUsage(motor, usage);
+    motor.setInverted(inverted);
+    return ok;
+  }
+
+  /**
+   * Applies every setting of a config. Settings that are already applied are skipped.
+   *
+   * @param config The settings to apply.
+   */
+  public void applyConfig(SparkMaxConfig config) {
+    setIdleMode(config.idleMode);
+    setSmartCurrentLimit(config.smartCurrentLimit);
+    if (config.voltageCompensation > 0.0) {
+      enableVoltageComp(config.voltageCompensation);
+    }
+    setConversionFactors(config.positionConversionFactor, config.velocityConversionFactor);
+    setPID(config.kP, config.kI, config.kD, config.kFF);
+    if (config.continuousInput) {
+      enableContinuousInput(config.continuousInputMin, config.continuousInputMax);
+    }
+  }
+
+  /**
+   * Reads the settings of a config back from the controller and compares them. The smart current
+   * limit can't be read back and isn't checked.
+   *
+   * @param config The settings that should be applied.
+   * @return Whether the controller reported every setting as applied.
+   */
+  public boolean verifyConfig(SparkMaxConfig config) {
+    return motor.getInverted() == inverted
+        && motor.getIdleMode() == config.idleMode
+        && (config.voltageCompensation <= 0.0
+            || matches(
+                motor.getVoltageCompensationNominalVoltage(), config.voltageCompensation))
+        && matches(encoder.getPositionConversionFactor(), config.positionConversionFactor)
+        && matches(encoder.getVelocityConversionFactor(), config.velocityConversionFactor)
+        && matches(controller.getP(), config.kP)
+        && matches(controller.getI(), config.kI)
+        && matches(controller.getD(), config.kD)
+        && matches(controller.getFF(), config.kFF)
+        && (!config.continuousInput
+            || (controller.getPositionPIDWrappingEnabled()
+                && matches(controller.getPositionPIDWrappingMinInput(), config.continuousInputMin)
+                && matches(
+                    controller.getPositionPIDWrappingMaxInput(), config.continuousInputMax)));
+  }
+
+  /** The controller stores settings as 32-bit floats. */
+  private static boolean matches(double actual, double expected) {
+    return Math.abs(actual - expected) <= 1e-6 * Math.max(1.0, Math.abs(expected));
+  }
+
+  /**
+   * Returns whether the motor is inverted.
+   *
+   * @return Whether the motor is inverted.
+   */
+  public boolean isInverted() {
+    return inverted;
+  }
+
+  /**
+   * Returns the CAN ID of the controller.
+   *
+   * @return The CAN ID.
+   */
+  public int getDeviceId() {
+    return motor.getDeviceId();
+  }
+
+  /**
+   * Changes which status frames the Spark Max sends at a high rate.
+   *
+   * @param usage The status frame feedback to enable.
+   */
+  public void setUsage(Usage usage) {
+    this.usage = usage;
+    CANSparkMaxUtil.setCANSparkMaxBusUsage(motor, usage);
+  }
+
+  public Usage getUsage() {
+    return usage;
+  }
+
+  /**
+   * Sets when a setpoint counts as unchanged and is not sent.
+   *
+   * @param referenceTolerance Largest reference change that is not sent.
+   * @param feedforwardTolerance Largest arbitrary feedforward change that is not sent.
+   * @param refreshSeconds Longest time an unchanged setpoint goes without being resent.
+   */
+  public void setWriteSuppression(
+      double referenceTolerance, double feedforwardTolerance, double refreshSeconds) {
+    this.referenceTolerance = referenceTolerance;
+    this.feedforwardTolerance = feedforwardTolerance;
+    this.refreshNanos = (long) (refreshSeconds * 1e9);
+  }
+
+  /**
+   * Returns whether a setpoint needs to be sent and records it as the last one if so.
+   *
+   * @return True if the setpoint changed or the refresh interval has passed.
+   */
+  private boolean shouldSend(ControlType type, double reference, double feedforward) {
+    long now = System.nanoTime();
+    if (type == lastControlType
+        && Math.abs(reference - lastReference) <= referenceTolerance
+        && Math.abs(feedforward - lastFeedforward) <= feedforwardTolerance
+        && now - lastSendNanos < refreshNanos) {
+      suppressedFrames++;
+      totalSuppressedFrames++;
+      return false;
+    }
+    lastControlType = type;
+    lastReference = reference;
+    lastFeedforward = feedforward;
+    lastSendNanos = now;
+    sentFrames++;
+    totalSentFrames++;
+    return true;
+  }
+
+  /** Makes the next setpoint get sent even if it is unchanged. */
+  private void invalidateSetpoint() {
+    lastControlType = null;
+  }
+
+  /**
+   * Returns how many setpoints this controller sent.
+   *
+   * @return Number of setpoints sent.
+   */
+  public long getSentFrames() {
+    return sentFrames;
+  }
+
+  /**
+   * Returns how many setpoints this controller skipped because they were unchanged.
+   *
+   * @return Number of setpoints skipped.
+   */
+  public long getSuppressedFrames() {
+    return suppressedFrames;
+  }
+
+  /**
+   * Returns how many setpoints every Spark Max sent.
+   *
+   * @return Number of setpoints sent.
+   */
+  public static long getTotalSentFrames() {
+    return totalSentFrames;
+  }
+
+  /**
+   * Returns how many setpoints every Spark Max skipped because they were unchanged.
+   *
+   * @return Number of setpoints skipped.
+   */
+  public static long getTotalSuppressedFrames() {
+    return totalSuppressedFrames;
+  }
+
   public void setPosition(double position) {
     encoder.setPosition(position);
   }
 
   public void setVelocityConverstionFactor(double factor) {
-    encoder.setVelocityConversionFactor(factor);
+    if (factor != velocityFactor) {
+      encoder.setVelocityConversionFactor(factor);
+      velocityFactor = factor;
+      invalidateSetpoint();
+    }
   }
 
   public void setPositionConversionFactor(double factor) {
-    encoder.setPositionConversionFactor(factor);
+    if (factor != positionFactor) {
+      encoder.setPositionConversionFactor(factor);
+      positionFactor = factor;
+      invalidateSetpoint();
+    }
   }
 
   public void setConversionFactors(double positionFactor, double velocityFactor) {
-    encoder.setPositionConversionFactor(positionFactor);
-    encoder.setVelocityConversionFactor(velocityFactor);
+    setPositionConversionFactor(positionFactor);
+    setVelocityConverstionFactor(velocityFactor);
   }
 
   public void setIdleMode(IdleMode mode) {
-    motor.setIdleMode(mode);
+    if (mode != idleMode) {
+      motor.setIdleMode(mode);
+      idleMode = mode;
+    }
   }
 
   public void setSmartCurrentLimit(int limit) {
-    motor.setSmartCurrentLimit(limit);
+    if (limit != currentLimit) {
+      motor.setSmartCurrentLimit(limit);
+      currentLimit = limit;
+    }
   }
 
   public void enableVoltageComp(double value) {
-    motor.enableVoltageCompensation(value);
+    if (value != voltageComp) {
+      motor.enableVoltageCompensation(value);
+      voltageComp = value;
+    }
   }
 
   public void enableContinuousInput(double min, double max) {
@@ -75,42 +305,68 @@ public class SpartanSparkMax {
   }
 
   public void setPID(double p, double i, double d, double ff) {
-    controller.setP(p);
-    controller.setI(i);
-    controller.setD(d);
-    controller.setFF(ff);
+    if (p != this.p) {
+      controller.setP(p);
+      this.p = p;
+    }
+    if (i != this.i) {
+      controller.setI(i);
+      this.i = i;
+    }
+    if (d != this.d) {
+      controller.setD(d);
+      this.d = d;
+    }
+    if (ff != this.ff) {
+      controller.setFF(ff);
+      this.ff = ff;
+    }
   }
 
   public void setPID(double p, double i, double d) {
     setPID(p, i, d, 0.0);
   }
 
-  public void burnFlash() {
-    motor.burnFlash();
+  /**
+   * Saves the current settings to flash so they survive a power cycle.
+   *
+   * @return Whether the controller acknowledged the save.
+   */
+  public boolean burnFlash() {
+    return motor.burnFlash() == REVLibError.kOk;
   }
 
   public void set(double percent) {
-    motor.set(percent);
+    if (shouldSend(ControlType.kDutyCycle, percent, 0.0)) {
+      motor.set(percent);
+    }
   }
 
   public void setVoltage(double voltage) {
-    motor.setVoltage(voltage);
+    if (shouldSend(ControlType.kVoltage, voltage, 0.0)) {
+      motor.setVoltage(voltage);
+    }
   }
 
   public void performVelocityControl(double velocity, double feedforward) {
-    controller.setReference(velocity, ControlType.kVelocity, 0, feedforward);
+    if (shouldSend(ControlType.kVelocity, velocity, feedforward)) {
+      controller.setReference(velocity, ControlType.kVelocity, 0, feedforward);
+    }
   }
 
   public void performVelocityControl(double velocity) {
-    controller.setReference(velocity, ControlType.kVelocity);
+    performVelocityControl(velocity, 0.0);
   }
 
   public void performPositionControl(double angle) {
-    controller.setReference(angle, ControlType.kPosition);
+    if (shouldSend(ControlType.kPosition, angle, 0.0)) {
+      controller.setReference(angle, ControlType.kPosition);
+    }
   }
 
   public void stop() {
     motor.stopMotor();
+    invalidateSetpoint();
   }
 
   public double getVelocity() {
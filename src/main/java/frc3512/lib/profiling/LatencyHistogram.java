@@ -0,0 +1,153 @@
+package frc3512.lib.profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory, lock-free latency histogram. Latencies are bucketed on a log-linear scale in
+ * microseconds: exact below 32 us and within about 6% above that, up to roughly 16 seconds.
+ */
+public class LatencyHistogram {
+  private static final int kLinearBuckets = 32;
+  private static final int kSubBuckets = 16;
+  private static final int kSubBucketBits = 4;
+  private static final int kMaxExponent = 24;
+  static final int kNumBuckets =
+      kLinearBuckets + (kMaxExponent - kSubBucketBits - 1) * kSubBuckets + 1;
+
+  private final String name;
+  private final long overrunThresholdNanos;
+  private final AtomicLongArray buckets = new AtomicLongArray(kNumBuckets);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong overruns = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * Creates a new LatencyHistogram.
+   *
+   * @param name Name of the measured section.
+   * @param overrunThresholdSeconds Latencies above this count as an overrun.
+   */
+  public LatencyHistogram(String name, double overrunThresholdSeconds) {
+    this.name = name;
+    this.overrunThresholdNanos = (long) (overrunThresholdSeconds * 1e9);
+  }
+
+  static int bucketIndex(long micros) {
+    if (micros < kLinearBuckets) {
+      return (int) Math.max(micros, 0);
+    }
+    int msb = 63 - Long.numberOfLeadingZeros(micros);
+    if (msb >= kMaxExponent) {
+      return kNumBuckets - 1;
+    }
+    int shift = msb - kSubBucketBits;
+    int sub = (int) (micros >> shift) - kSubBuckets;
+    return kLinearBuckets + (msb - kSubBucketBits - 1) * kSubBuckets + sub;
+  }
+
+  static double bucketMidpointMicros(int index) {
+    if (index < kLinearBuckets) {
+      return index + 0.5;
+    }
+    int exponent = (index - kLinearBuckets) / kSubBuckets + kSubBucketBits + 1;
+    int sub = (index - kLinearBuckets) % kSubBuckets;
+    int shift = exponent - kSubBucketBits;
+    return (((long) (kSubBuckets + sub) << shift) + ((long) (kSubBuckets + sub + 1) << shift))
+        / 2.0;
+  }
+
+  /**
+   * Records a single measured latency.
+   *
+   * @param nanos Latency in nanoseconds.
+   */
+  public void record(long nanos) {
+    buckets.incrementAndGet(bucketIndex(nanos / 1000));
+    count.incrementAndGet();
+    if (nanos > overrunThresholdNanos) {
+      overruns.incrementAndGet();
+    }
+    long max = maxNanos.get();
+    while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+      max = maxNanos.get();
+    }
+  }
+
+  /**
+   * Records the time since a start timestamp.
+   *
+   * @param startNanos Start time from {@link System#nanoTime()}.
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Returns the approximate latency below which the given fraction of samples fall.
+   *
+   * @param percentile Percentile between 0 and 1.
+   * @return Latency in seconds.
+   */
+  public double getPercentile(double percentile) {
+    long total = count.get();
+    if (total == 0) {
+      return 0.0;
+    }
+    long target = (long) Math.ceil(percentile * total);
+    long seen = 0;
+    for (int i = 0; i < kNumBuckets; i++) {
+      seen += buckets.get(i);
+      if (seen >= target) {
+        return Math.min(bucketMidpointMicros(i) * 1e-6, getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Returns the largest recorded latency.
+   *
+   * @return Latency in seconds.
+   */
+  public double getMax() {
+    return maxNanos.get() * 1e-9;
+  }
+
+  /**
+   * Returns the number of recorded samples.
+   *
+   * @return Number of samples.
+   */
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * Returns how many samples exceeded the overrun threshold.
+   *
+   * @return Number of overruns.
+   */
+  public long getOverruns() {
+    return overruns.get();
+  }
+
+  /**
+   * Returns the name of the measured section.
+   *
+   * @return Name of the section.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /** Clears all recorded samples. */
+  public void reset() {
+    for (int i = 0; i < kNumBuckets; i++) {
+      buckets.set(i, 0);
+    }
+    count.set(0);
+    overruns.set(0);
+    maxNanos.set(0);
+  }
+}
@@ -0,0 +1,104 @@
+package frc3512.lib.profiling;
+
+import frc3512.lib.logging.SpartanDoubleArrayEntry;
+import frc3512.lib.logging.SpartanLogManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of latency histograms for the robot loop, subsystems and commands. Results are published
+ * through the SpartanLogManager at a low rate as [p50, p99, max, samples, overruns], with latencies
+ * in milliseconds, and can be dumped to the log as a table.
+ */
+public class LoopProfiler {
+  private static final String kPrefix = "/Diagnostics/Profiler/";
+
+  private static final List<LatencyHistogram> histograms = new ArrayList<>();
+  private static final List<SpartanDoubleArrayEntry> entries = new ArrayList<>();
+  private static final Map<String, LatencyHistogram> byName = new HashMap<>();
+  private static final double[] values = new double[5];
+  private static int publishPeriod = 50;
+  private static int loopCount = 0;
+
+  private LoopProfiler() {}
+
+  /**
+   * Creates and registers a histogram for a section of code. If a histogram is already registered
+   * under the name, that histogram is returned instead, so code that is constructed more than once,
+   * like a rebuilt auton, keeps adding to the same statistics.
+   *
+   * @param name Name of the section, e.g. "Subsystems/Swerve".
+   * @param overrunThresholdSeconds Latencies above this count as an overrun. Ignored if the name is
+   *     already registered.
+   * @return The registered histogram.
+   */
+  public static synchronized LatencyHistogram register(
+      String name, double overrunThresholdSeconds) {
+    var existing = byName.get(name);
+    if (existing != null) {
+      return existing;
+    }
+
+    var histogram = new LatencyHistogram(name, overrunThresholdSeconds);
+    byName.put(name, histogram);
+    histograms.add(histogram);
+    entries.add(new SpartanDoubleArrayEntry(kPrefix + name, new double[5], true));
+    return histogram;
+  }
+
+  /**
+   * Sets how many calls to {@link #periodic()} pass between publishes.
+   *
+   * @param loops Number of loops between publishes.
+   */
+  public static void setPublishPeriod(int loops) {
+    publishPeriod = Math.max(1, loops);
+  }
+
+  /** Publishes the statistics of every histogram once every publish period. Call once per loop. */
+  public static synchronized void periodic() {
+    if (++loopCount < publishPeriod) {
+      return;
+    }
+    loopCount = 0;
+
+    for (int i = 0; i < histograms.size(); i++) {
+      var histogram = histograms.get(i);
+      values[0] = histogram.getPercentile(0.5) * 1000.0;
+      values[1] = histogram.getPercentile(0.99) * 1000.0;
+      values[2] = histogram.getMax() * 1000.0;
+      values[3] = histogram.getCount();
+      values[4] = histogram.getOverruns();
+      entries.get(i).set(values);
+    }
+  }
+
+  /** Logs a table with the statistics of every histogram. */
+  public static synchronized void dump() {
+    var builder = new StringBuilder("Loop profile (ms):\n");
+    builder.append(
+        String.format(
+            "%-40s %8s %8s %8s %10s %9s%n", "Section", "p50", "p99", "max", "samples", "overruns"));
+    for (var histogram : histograms) {
+      builder.append(
+          String.format(
+              "%-40s %8.3f %8.3f %8.3f %10d %9d%n",
+              histogram.getName(),
+              histogram.getPercentile(0.5) * 1000.0,
+              histogram.getPercentile(0.99) * 1000.0,
+              histogram.getMax() * 1000.0,
+              histogram.getCount(),
+              histogram.getOverruns()));
+    }
+    SpartanLogManager.logMessage(builder.toString());
+  }
+
+  /** Clears every histogram. */
+  public static synchronized void reset() {
+    for (var histogram : histograms) {
+      histogram.reset();
+    }
+  }
+}
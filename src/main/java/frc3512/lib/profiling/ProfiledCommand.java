@@ -0,0 +1,29 @@
+package frc3512.lib.profiling;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.WrapperCommand;
+
+/** Wraps a command and records how long each call to its execute() takes. */
+public class ProfiledCommand extends WrapperCommand {
+  private final LatencyHistogram executeTime;
+
+  /**
+   * Creates a new ProfiledCommand.
+   *
+   * @param command Command to wrap.
+   * @param name Name to profile the command under.
+   * @param overrunThresholdSeconds Execute times above this count as an overrun.
+   */
+  public ProfiledCommand(Command command, String name, double overrunThresholdSeconds) {
+    super(command);
+    setName(name);
+    executeTime = LoopProfiler.register("Commands/" + name, overrunThresholdSeconds);
+  }
+
+  @Override
+  public void execute() {
+    long start = System.nanoTime();
+    m_command.execute();
+    executeTime.recordSince(start);
+  }
+}
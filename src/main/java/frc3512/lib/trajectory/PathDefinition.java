@@ -0,0 +1,105 @@
+package frc3512.lib.trajectory;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPoint;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything needed to generate a PathPlanner trajectory. Definitions are hashed so a cached copy
+ * of the generated trajectory can be checked against the definition it was generated from.
+ */
+public class PathDefinition {
+  // Bump whenever the way trajectories are generated or cached changes.
+  private static final long kFormatVersion = 1;
+
+  private final String name;
+  private final double maxVelocity;
+  private final double maxAcceleration;
+  private final boolean reversed;
+  private final List<double[]> points = new ArrayList<>();
+
+  /**
+   * Creates a new PathDefinition.
+   *
+   * @param name Unique name of the path.
+   * @param maxVelocity Max velocity in meters per second.
+   * @param maxAcceleration Max acceleration in meters per second squared.
+   * @param reversed Whether the robot drives the path backwards.
+   */
+  public PathDefinition(String name, double maxVelocity, double maxAcceleration, boolean reversed) {
+    this.name = name;
+    this.maxVelocity = maxVelocity;
+    this.maxAcceleration = maxAcceleration;
+    this.reversed = reversed;
+  }
+
+  /**
+   * Adds a point to the path.
+   *
+   * @param x X position in meters.
+   * @param y Y position in meters.
+   * @param headingDegrees Heading of the path at this point.
+   * @param holonomicRotationDegrees Rotation of the robot at this point.
+   * @return This definition, for chaining.
+   */
+  public PathDefinition addPoint(
+      double x, double y, double headingDegrees, double holonomicRotationDegrees) {
+    points.add(new double[] {x, y, headingDegrees, holonomicRotationDegrees});
+    return this;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Generates the trajectory with PathPlanner.
+   *
+   * @return The generated trajectory.
+   */
+  public PathPlannerTrajectory generate() {
+    List<PathPoint> pathPoints = new ArrayList<>();
+    for (double[] point : points) {
+      pathPoints.add(
+          new PathPoint(
+              new Translation2d(point[0], point[1]),
+              Rotation2d.fromDegrees(point[2]),
+              Rotation2d.fromDegrees(point[3])));
+    }
+    return PathPlanner.generatePath(
+        new PathConstraints(maxVelocity, maxAcceleration), reversed, pathPoints);
+  }
+
+  /**
+   * Returns a 64-bit FNV-1a hash of everything that affects the generated trajectory.
+   *
+   * @return Hash of the definition.
+   */
+  public long hash() {
+    long hash = 0xcbf29ce484222325L;
+    hash = mix(hash, kFormatVersion);
+    hash = mix(hash, Double.doubleToLongBits(maxVelocity));
+    hash = mix(hash, Double.doubleToLongBits(maxAcceleration));
+    hash = mix(hash, reversed ? 1 : 0);
+    hash = mix(hash, points.size());
+    for (double[] point : points) {
+      for (double value : point) {
+        hash = mix(hash, Double.doubleToLongBits(value));
+      }
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, long value) {
+    for (int i = 0; i < 8; i++) {
+      hash ^= (value >>> (i * 8)) & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+}
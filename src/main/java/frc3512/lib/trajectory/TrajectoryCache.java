@@ -0,0 +1,231 @@
+package frc3512.lib.trajectory;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.EventMarker;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.PathPlannerTrajectory.StopEvent;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory.State;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc3512.lib.logging.SpartanLogManager;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary cache of pregenerated trajectories. The cache file is generated at build time, memory
+ * mapped at runtime, and each trajectory is only decoded the first time it is requested. If a path
+ * is missing from the cache, its definition changed since the cache was generated, or its entry
+ * points outside the file, the trajectory is generated on the spot instead.
+ *
+ * <p>File layout (big endian): magic, version, path count, then a directory of [name, definition
+ * hash, data offset, state count] followed by the states of every path. Each state is stored as
+ * {@value #kDoublesPerState} doubles.
+ */
+public class TrajectoryCache {
+  public static final String kDefaultFileName = "trajectories.bin";
+
+  private static final int kMagic = 0x53505443; // "SPTC"
+  private static final int kVersion = 1;
+  private static final int kDoublesPerState = 10;
+
+  private static TrajectoryCache instance;
+
+  private static class CachedPath {
+    final long hash;
+    final int offset;
+    final int stateCount;
+
+    CachedPath(long hash, int offset, int stateCount) {
+      this.hash = hash;
+      this.offset = offset;
+      this.stateCount = stateCount;
+    }
+  }
+
+  private final MappedByteBuffer buffer;
+  private int directoryEnd = 0;
+  private final Map<String, CachedPath> directory = new HashMap<>();
+  private final Map<String, PathPlannerTrajectory> loaded = new HashMap<>();
+
+  /**
+   * Opens a cache file. A missing or unreadable file results in an empty cache.
+   *
+   * @param file Path of the cache file.
+   */
+  public TrajectoryCache(Path file) {
+    MappedByteBuffer mapped = null;
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      readDirectory(mapped);
+    } catch (IOException | RuntimeException e) {
+      SpartanLogManager.logMessage("Trajectory cache unavailable (" + file + "): " + e);
+      mapped = null;
+      directory.clear();
+    }
+    buffer = mapped;
+  }
+
+  /**
+   * Returns the cache stored in the deploy directory, opening it on first use.
+   *
+   * @return The shared cache.
+   */
+  public static synchronized TrajectoryCache getInstance() {
+    if (instance == null) {
+      instance =
+          new TrajectoryCache(
+              Filesystem.getDeployDirectory().toPath().resolve(kDefaultFileName));
+    }
+    return instance;
+  }
+
+  private void readDirectory(ByteBuffer buf) {
+    if (buf.getInt(0) != kMagic || buf.getInt(4) != kVersion) {
+      throw new IllegalStateException("unknown trajectory cache format");
+    }
+    int count = buf.getInt(8);
+    int position = 12;
+    for (int i = 0; i < count; i++) {
+      int nameLength = buf.getShort(position) & 0xffff;
+      byte[] name = new byte[nameLength];
+      for (int j = 0; j < nameLength; j++) {
+        name[j] = buf.get(position + 2 + j);
+      }
+      position += 2 + nameLength;
+      long hash = buf.getLong(position);
+      int offset = buf.getInt(position + 8);
+      int stateCount = buf.getInt(position + 12);
+      position += 16;
+      directory.put(
+          new String(name, StandardCharsets.UTF_8), new CachedPath(hash, offset, stateCount));
+    }
+    directoryEnd = position;
+  }
+
+  /** Whether the states of a path lie between the directory and the end of the file. */
+  private boolean isInBounds(CachedPath cached) {
+    long end = (long) cached.offset + (long) cached.stateCount * kDoublesPerState * 8;
+    return cached.offset >= directoryEnd
+        && cached.stateCount > 0
+        && end <= buffer.capacity();
+  }
+
+  /**
+   * Returns the trajectory for a path, decoding it from the cache or generating it if the cache is
+   * missing or out of date.
+   *
+   * @param definition Definition of the path.
+   * @return The trajectory.
+   */
+  public synchronized PathPlannerTrajectory get(PathDefinition definition) {
+    var trajectory = loaded.get(definition.getName());
+    if (trajectory != null) {
+      return trajectory;
+    }
+
+    var cached = directory.get(definition.getName());
+    if (cached == null || cached.hash != definition.hash()) {
+      SpartanLogManager.logMessage(
+          "Trajectory cache miss for " + definition.getName() + ", generating it");
+      trajectory = definition.generate();
+    } else if (!isInBounds(cached)) {
+      SpartanLogManager.logMessage(
+          "Trajectory cache entry for " + definition.getName() + " is corrupt, generating it");
+      trajectory = definition.generate();
+    } else {
+      trajectory = decode(cached);
+    }
+    loaded.put(definition.getName(), trajectory);
+    return trajectory;
+  }
+
+  private PathPlannerTrajectory decode(CachedPath cached) {
+    List<State> states = new ArrayList<>(cached.stateCount);
+    int position = cached.offset;
+    for (int i = 0; i < cached.stateCount; i++) {
+      var state = new PathPlannerState();
+      state.timeSeconds = buffer.getDouble(position);
+      state.poseMeters =
+          new Pose2d(
+              buffer.getDouble(position + 8),
+              buffer.getDouble(position + 16),
+              new Rotation2d(buffer.getDouble(position + 24)));
+      state.velocityMetersPerSecond = buffer.getDouble(position + 32);
+      state.accelerationMetersPerSecondSq = buffer.getDouble(position + 40);
+      state.curvatureRadPerMeter = buffer.getDouble(position + 48);
+      state.angularVelocityRadPerSec = buffer.getDouble(position + 56);
+      state.holonomicRotation = new Rotation2d(buffer.getDouble(position + 64));
+      state.holonomicAngularVelocityRadPerSec = buffer.getDouble(position + 72);
+      states.add(state);
+      position += kDoublesPerState * 8;
+    }
+    return new PathPlannerTrajectory(
+        states, new ArrayList<EventMarker>(), new StopEvent(), new StopEvent(), false);
+  }
+
+  /**
+   * Generates every path and writes them into a cache file.
+   *
+   * @param file Path of the cache file to write.
+   * @param definitions Definitions of every path to cache.
+   * @throws IOException If the file could not be written.
+   */
+  public static void write(Path file, List<PathDefinition> definitions) throws IOException {
+    List<byte[]> names = new ArrayList<>();
+    List<List<State>> trajectories = new ArrayList<>();
+    int directorySize = 12;
+    for (var definition : definitions) {
+      byte[] name = definition.getName().getBytes(StandardCharsets.UTF_8);
+      names.add(name);
+      trajectories.add(definition.generate().getStates());
+      directorySize += 2 + name.length + 16;
+    }
+
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    try (var out = new DataOutputStream(Files.newOutputStream(file))) {
+      out.writeInt(kMagic);
+      out.writeInt(kVersion);
+      out.writeInt(definitions.size());
+
+      int offset = directorySize;
+      for (int i = 0; i < definitions.size(); i++) {
+        out.writeShort(names.get(i).length);
+        out.write(names.get(i));
+        out.writeLong(definitions.get(i).hash());
+        out.writeInt(offset);
+        out.writeInt(trajectories.get(i).size());
+        offset += trajectories.get(i).size() * kDoublesPerState * 8;
+      }
+
+      for (var states : trajectories) {
+        for (var wpiState : states) {
+          var state = (PathPlannerState) wpiState;
+          out.writeDouble(state.timeSeconds);
+          out.writeDouble(state.poseMeters.getX());
+          out.writeDouble(state.poseMeters.getY());
+          out.writeDouble(state.poseMeters.getRotation().getRadians());
+          out.writeDouble(state.velocityMetersPerSecond);
+          out.writeDouble(state.accelerationMetersPerSecondSq);
+          out.writeDouble(state.curvatureRadPerMeter);
+          out.writeDouble(state.angularVelocityRadPerSec);
+          out.writeDouble(state.holonomicRotation.getRadians());
+          out.writeDouble(state.holonomicAngularVelocityRadPerSec);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package frc3512.lib.trajectory;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+
+/**
+ * A trajectory resampled once at a fixed time step into primitive arrays. Sampling it is a direct
+ * index and a linear interpolation between two neighboring steps, so it takes the same time
+ * anywhere along the path and never allocates, unlike {@link PathPlannerTrajectory#sample(double)},
+ * which searches the states and creates a new state every call.
+ *
+ * <p>Velocities are stored field relative, so a follower can add them to its feedback directly.
+ */
+public class TrajectoryTable {
+  /** A single sample of the table. Reused by the caller between samples. */
+  public static class Sample {
+    public double xMeters;
+    public double yMeters;
+    public double holonomicRotationRadians;
+    public double vxMetersPerSecond;
+    public double vyMetersPerSecond;
+    public double omegaRadiansPerSecond;
+  }
+
+  private final double dtSeconds;
+  private final double totalTimeSeconds;
+  private final int length;
+
+  private final double[] x;
+  private final double[] y;
+  private final double[] heading;
+  private final double[] holonomicRotation;
+  private final double[] velocity;
+  private final double[] vx;
+  private final double[] vy;
+  private final double[] omega;
+
+  /**
+   * Resamples a trajectory. This calls {@link PathPlannerTrajectory#sample(double)} once per step,
+   * so it should be done while the trajectory is loaded, not while it is followed.
+   *
+   * @param trajectory Trajectory to resample.
+   * @param dtSeconds Time step of the table, normally the loop period.
+   */
+  public TrajectoryTable(PathPlannerTrajectory trajectory, double dtSeconds) {
+    this.dtSeconds = dtSeconds;
+    totalTimeSeconds = trajectory.getTotalTimeSeconds();
+    // One more step than fits in the trajectory, so the end state is always in the table.
+    length = Math.max(2, (int) Math.ceil(totalTimeSeconds / dtSeconds) + 1);
+
+    x = new double[length];
+    y = new double[length];
+    heading = new double[length];
+    holonomicRotation = new double[length];
+    velocity = new double[length];
+    vx = new double[length];
+    vy = new double[length];
+    omega = new double[length];
+
+    for (int i = 0; i < length; i++) {
+      var state = (PathPlannerState) trajectory.sample(Math.min(i * dtSeconds, totalTimeSeconds));
+      x[i] = state.poseMeters.getX();
+      y[i] = state.poseMeters.getY();
+      heading[i] = state.poseMeters.getRotation().getRadians();
+      holonomicRotation[i] = state.holonomicRotation.getRadians();
+      velocity[i] = state.velocityMetersPerSecond;
+      vx[i] = velocity[i] * Math.cos(heading[i]);
+      vy[i] = velocity[i] * Math.sin(heading[i]);
+      omega[i] = state.holonomicAngularVelocityRadPerSec;
+    }
+
+    // Unwrap the rotation so interpolating across +-pi doesn't spin the robot the long way around.
+    for (int i = 1; i < length; i++) {
+      double delta = holonomicRotation[i] - holonomicRotation[i - 1];
+      holonomicRotation[i] -= 2.0 * Math.PI * Math.round(delta / (2.0 * Math.PI));
+    }
+  }
+
+  /**
+   * Samples the table at a time along the trajectory. Times outside the trajectory are clamped to
+   * its start or end.
+   *
+   * @param timeSeconds Time since the start of the trajectory.
+   * @param out Sample to write into.
+   */
+  public void sample(double timeSeconds, Sample out) {
+    double steps = Math.max(0.0, Math.min(timeSeconds, totalTimeSeconds)) / dtSeconds;
+    int i = Math.min((int) steps, length - 2);
+    double t = steps - i;
+    int j = i + 1;
+
+    out.xMeters = x[i] + (x[j] - x[i]) * t;
+    out.yMeters = y[i] + (y[j] - y[i]) * t;
+    out.holonomicRotationRadians =
+        holonomicRotation[i] + (holonomicRotation[j] - holonomicRotation[i]) * t;
+    out.vxMetersPerSecond = vx[i] + (vx[j] - vx[i]) * t;
+    out.vyMetersPerSecond = vy[i] + (vy[j] - vy[i]) * t;
+    out.omegaRadiansPerSecond = omega[i] + (omega[j] - omega[i]) * t;
+  }
+
+  /**
+   * Returns the duration of the trajectory.
+   *
+   * @return Total time in seconds.
+   */
+  public double getTotalTimeSeconds() {
+    return totalTimeSeconds;
+  }
+
+  /**
+   * Returns the time step of the table.
+   *
+   * @return Time step in seconds.
+   */
+  public double getDt() {
+    return dtSeconds;
+  }
+
+  /**
+   * Returns the number of steps in the table.
+   *
+   * @return Number of steps.
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Returns the position of a step.
+   *
+   * @param step Step index.
+   * @return X position in meters.
+   */
+  public double getX(int step) {
+    return x[step];
+  }
+
+  /**
+   * Returns the position of a step.
+   *
+   * @param step Step index.
+   * @return Y position in meters.
+   */
+  public double getY(int step) {
+    return y[step];
+  }
+
+  /**
+   * Returns the direction of travel at a step.
+   *
+   * @param step Step index.
+   * @return Heading in radians.
+   */
+  public double getHeading(int step) {
+    return heading[step];
+  }
+
+  /**
+   * Returns the rotation of the robot at a step. Unwrapped, so it may lie outside of +-pi.
+   *
+   * @param step Step index.
+   * @return Holonomic rotation in radians.
+   */
+  public double getHolonomicRotation(int step) {
+    return holonomicRotation[step];
+  }
+
+  /**
+   * Returns the speed along the path at a step.
+   *
+   * @param step Step index.
+   * @return Velocity in meters per second.
+   */
+  public double getVelocity(int step) {
+    return velocity[step];
+  }
+}
@@ -0,0 +1,187 @@
+package frc3512.lib.util;
+
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc3512.lib.logging.SpartanLogManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Registry of autonomous routines that only builds the routine that is selected. Routines are
+ * registered as factories and the dashboard chooser only holds their names.
+ *
+ * <p>A routine is built in two steps. Its preparation, like loading trajectories, runs on a
+ * background thread as soon as it is selected while the robot is disabled. Its command is then
+ * built from the prepared data on the main thread by {@link #periodic()}, because constructing
+ * commands registers them with the command scheduler, which isn't thread safe. {@link
+ * #getSelected()} hands over the ready command when autonomous starts. If the selection changed too
+ * late, the routine is prepared and built on the calling thread instead.
+ *
+ * <p>Preparation runs on the background thread, so it must not construct commands or talk to
+ * hardware.
+ */
+public class AutonRegistry {
+  /** A routine's background preparation and its command factory. */
+  private static class Routine<T> {
+    private final Supplier<T> prepare;
+    private final Function<T, Command> build;
+
+    private Routine(Supplier<T> prepare, Function<T, Command> build) {
+      this.prepare = prepare;
+      this.build = build;
+    }
+
+    private Command build(Object prepared) {
+      @SuppressWarnings("unchecked")
+      T data = (T) prepared;
+      return build.apply(data);
+    }
+  }
+
+  private final SendableChooser<String> chooser = new SendableChooser<>();
+  private final Map<String, Routine<?>> routines = new LinkedHashMap<>();
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            var thread = new Thread(runnable, "AutonBuilder");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+          });
+
+  private String pendingName;
+  private CompletableFuture<Object> pending;
+  private Command built;
+
+  /**
+   * Registers the default routine. It has nothing to prepare, so it is built on the main thread.
+   *
+   * @param name Name shown on the dashboard.
+   * @param factory Builds the routine.
+   */
+  public void setDefaultOption(String name, Supplier<Command> factory) {
+    routines.put(name, new Routine<Void>(() -> null, prepared -> factory.get()));
+    chooser.setDefaultOption(name, name);
+  }
+
+  /**
+   * Registers a routine that has nothing to prepare. It is built on the main thread.
+   *
+   * @param name Name shown on the dashboard.
+   * @param factory Builds the routine.
+   */
+  public void addOption(String name, Supplier<Command> factory) {
+    routines.put(name, new Routine<Void>(() -> null, prepared -> factory.get()));
+    chooser.addOption(name, name);
+  }
+
+  /**
+   * Registers a routine that prepares its data in the background.
+   *
+   * @param <T> Type of the prepared data.
+   * @param name Name shown on the dashboard.
+   * @param prepare Prepares the data of the routine. Runs on the background thread.
+   * @param factory Builds the routine from the prepared data. Runs on the main thread.
+   */
+  public <T> void addOption(String name, Supplier<T> prepare, Function<T, Command> factory) {
+    routines.put(name, new Routine<>(prepare, factory));
+    chooser.addOption(name, name);
+  }
+
+  /**
+   * Pushes the chooser to the dashboard.
+   *
+   * @param key Dashboard key of the chooser.
+   */
+  public void publish(String key) {
+    SmartDashboard.putData(key, chooser);
+  }
+
+  /**
+   * Starts preparing the selected routine in the background if it isn't already prepared or being
+   * prepared, and builds its command once the preparation is done. Call periodically from the main
+   * thread while disabled.
+   */
+  public synchronized void periodic() {
+    var selected = chooser.getSelected();
+    if (selected == null) {
+      return;
+    }
+
+    if (!selected.equals(pendingName)) {
+      if (pending != null) {
+        pending.cancel(false);
+      }
+      Supplier<?> prepare = routines.get(selected).prepare;
+      pendingName = selected;
+      pending = CompletableFuture.supplyAsync(prepare::get, executor);
+      built = null;
+      return;
+    }
+
+    // A failed preparation is reported and retried once autonomous asks for the routine.
+    if (built == null && pending.isDone() && !pending.isCompletedExceptionally()) {
+      built = build(selected, pending);
+    }
+  }
+
+  /**
+   * Returns the selected routine. Uses the prepared command when it matches the selection, and
+   * otherwise prepares and builds the routine on the calling thread. Must be called from the main
+   * thread.
+   *
+   * @return The selected routine, or null if nothing is selected.
+   */
+  public synchronized Command getSelected() {
+    var selected = chooser.getSelected();
+    if (selected == null) {
+      return null;
+    }
+
+    // Each command can only be scheduled from one auton, so the built command is handed over.
+    var future = pending;
+    var command = built;
+    boolean matches = selected.equals(pendingName);
+    pendingName = null;
+    pending = null;
+    built = null;
+
+    if (matches) {
+      if (command != null) {
+        return command;
+      }
+      // Normally done long before the match starts. If it's still running, finishing it is
+      // faster than starting over.
+      command = build(selected, future);
+      if (command != null) {
+        return command;
+      }
+    } else {
+      SpartanLogManager.logMessage("Auton " + selected + " wasn't prepared, building it now");
+      if (future != null) {
+        future.cancel(false);
+      }
+    }
+    var routine = routines.get(selected);
+    return routine.build(routine.prepare.get());
+  }
+
+  /** Builds a routine from its preparation, or returns null if the preparation failed. */
+  private Command build(String name, CompletableFuture<Object> future) {
+    try {
+      return routines.get(name).build(future.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      SpartanLogManager.logMessage("Preparing auton " + name + " failed: " + e.getCause());
+    }
+    return null;
+  }
+}
@@ -12,6 +12,38 @@ public class CANCoderUtil {
     kMinimal
   }
 
+  /**
+   * Returns the status frame periods used for a usage as [SensorData, VbatAndFaults].
+   *
+   * @param usage The status frame feedback to enable.
+   * @return Status frame periods in milliseconds.
+   */
+  public static int[] getStatusFramePeriods(CANCoderUsage usage) {
+    if (usage == CANCoderUsage.kAll) {
+      return new int[] {10, 10};
+    } else if (usage == CANCoderUsage.kSensorDataOnly) {
+      return new int[] {10, 100};
+    } else if (usage == CANCoderUsage.kFaultsOnly) {
+      return new int[] {100, 10};
+    } else {
+      return new int[] {100, 100};
+    }
+  }
+
+  /**
+   * Returns how many status frames per second a CANCoder sends with a usage.
+   *
+   * @param usage The status frame feedback to enable.
+   * @return Predicted status frames per second.
+   */
+  public static double getFramesPerSecond(CANCoderUsage usage) {
+    double framesPerSecond = 0.0;
+    for (int period : getStatusFramePeriods(usage)) {
+      framesPerSecond += 1000.0 / period;
+    }
+    return framesPerSecond;
+  }
+
   /**
    * This function allows reducing a CANCoder's CAN bus utilization by reducing the periodic status
    * frame period of nonessential frames from 10ms to 255ms.
@@ -24,18 +56,8 @@ public class CANCoderUtil {
    *     isconstructed.
    */
   public static void setCANCoderBusUsage(CANCoder cancoder, CANCoderUsage usage) {
-    if (usage == CANCoderUsage.kAll) {
-      cancoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, 10);
-      cancoder.setStatusFramePeriod(CANCoderStatusFrame.VbatAndFaults, 10);
-    } else if (usage == CANCoderUsage.kSensorDataOnly) {
-      cancoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, 10);
-      cancoder.setStatusFramePeriod(CANCoderStatusFrame.VbatAndFaults, 100);
-    } else if (usage == CANCoderUsage.kFaultsOnly) {
-      cancoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, 100);
-      cancoder.setStatusFramePeriod(CANCoderStatusFrame.VbatAndFaults, 10);
-    } else if (usage == CANCoderUsage.kMinimal) {
-      cancoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, 100);
-      cancoder.setStatusFramePeriod(CANCoderStatusFrame.VbatAndFaults, 100);
-    }
+    int[] periods = getStatusFramePeriods(usage);
+    cancoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, periods[0]);
+    cancoder.setStatusFramePeriod(CANCoderStatusFrame.VbatAndFaults, periods[1]);
   }
 }
@@ -0,0 +1,316 @@
+package frc3512.lib.util;
+
+import frc3512.lib.logging.SpartanDoubleEntry;
+import frc3512.lib.logging.SpartanLogManager;
+import frc3512.lib.motion.SpartanCANCoder;
+import frc3512.lib.motion.SpartanPigeon2;
+import frc3512.lib.motion.SpartanSparkMax;
+import frc3512.lib.util.CANCoderUtil.CANCoderUsage;
+import frc3512.lib.util.CANSparkMaxUtil.Usage;
+import frc3512.lib.util.Pigeon2Util.Pigeon2Usage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Switches the status frame periods of every registered CAN device when the robot changes mode, so
+ * each mode only pays for the frames it needs. The predicted bus load of every mode is computed
+ * from the configured periods when a device registers, and a device whose schedule would put any
+ * mode over the budget is rejected. Every mode that was accepted can then always be switched to.
+ */
+public class CANFrameManager {
+  /** Robot modes that can have their own status frame periods. */
+  public enum Mode {
+    kDisabled,
+    kAutonomous,
+    kTeleop,
+    kTest
+  }
+
+  /**
+   * Usage of a device in every robot mode.
+   *
+   * @param <T> Usage type of the device.
+   */
+  public static class Schedule<T> {
+    private final T disabled;
+    private final T autonomous;
+    private final T teleop;
+    private final T test;
+
+    /**
+     * Creates a new Schedule.
+     *
+     * @param disabled Usage while disabled.
+     * @param autonomous Usage in autonomous.
+     * @param teleop Usage in teleop.
+     * @param test Usage in test.
+     */
+    public Schedule(T disabled, T autonomous, T teleop, T test) {
+      this.disabled = disabled;
+      this.autonomous = autonomous;
+      this.teleop = teleop;
+      this.test = test;
+    }
+
+    /**
+     * Returns the usage for a mode.
+     *
+     * @param mode Robot mode.
+     * @return The usage.
+     */
+    public T get(Mode mode) {
+      switch (mode) {
+        case kAutonomous:
+          return autonomous;
+        case kTeleop:
+          return teleop;
+        case kTest:
+          return test;
+        default:
+          return disabled;
+      }
+    }
+  }
+
+  interface Device {
+    void apply(Mode mode);
+
+    double getFramesPerSecond(Mode mode);
+  }
+
+  // An extended CAN frame with 8 data bytes is 128 bits before bit stuffing. 150 bits leaves room
+  // for stuffing, so the bus can carry about 6,600 frames per second at 1 Mbit/s.
+  private static final double kBitsPerFrame = 150.0;
+  private static final double kBusBitsPerSecond = 1e6;
+
+  // The roboRIO sends every Spark Max a setpoint each control period while enabled.
+  private static double controlFramesPerSecond = 50.0;
+
+  private static final List<Device> devices = new ArrayList<>();
+  private static Mode mode = Mode.kDisabled;
+  private static double maxUtilization = 0.8;
+
+  private static final SpartanDoubleEntry predictedFrames =
+      new SpartanDoubleEntry("/Diagnostics/CAN/Predicted Frames Per Second", 0.0, true);
+  private static final SpartanDoubleEntry predictedUtilization =
+      new SpartanDoubleEntry("/Diagnostics/CAN/Predicted Utilization", 0.0, true);
+
+  private CANFrameManager() {}
+
+  /**
+   * Sets the highest predicted bus utilization a mode may have. Call this before registering any
+   * devices.
+   *
+   * @param utilization Fraction of the bus from 0 to 1.
+   * @throws IllegalStateException If the registered devices are already over the new budget.
+   */
+  public static synchronized void setMaxUtilization(double utilization) {
+    double previous = maxUtilization;
+    maxUtilization = utilization;
+    try {
+      checkBudget("setting the budget to " + utilization);
+    } catch (IllegalStateException e) {
+      maxUtilization = previous;
+      throw e;
+    }
+  }
+
+  /**
+   * Sets how often the Spark Maxes are sent setpoints while enabled. Call this before registering
+   * any devices.
+   *
+   * @param periodSeconds Period of the loop that commands the motors.
+   * @throws IllegalStateException If the registered devices would go over the budget.
+   */
+  public static synchronized void setControlPeriod(double periodSeconds) {
+    double previous = controlFramesPerSecond;
+    controlFramesPerSecond = 1.0 / periodSeconds;
+    try {
+      checkBudget("setting the control period to " + periodSeconds + " s");
+    } catch (IllegalStateException e) {
+      controlFramesPerSecond = previous;
+      throw e;
+    }
+  }
+
+  /**
+   * Registers a Spark Max and applies its usage for the current mode.
+   *
+   * @param name Name of the device for error messages.
+   * @param motor The motor.
+   * @param schedule Usage of the motor in every mode.
+   * @throws IllegalStateException If the schedule would put any mode over the budget.
+   */
+  public static synchronized void register(
+      String name, SpartanSparkMax motor, Schedule<Usage> schedule) {
+    register(
+        name,
+        new Device() {
+          @Override
+          public void apply(Mode mode) {
+            motor.setUsage(schedule.get(mode));
+          }
+
+          @Override
+          public double getFramesPerSecond(Mode mode) {
+            return getSparkMaxFramesPerSecond(schedule.get(mode), mode);
+          }
+        });
+  }
+
+  /**
+   * Registers a CANCoder and applies its usage for the current mode.
+   *
+   * @param name Name of the device for error messages.
+   * @param cancoder The CANCoder.
+   * @param schedule Usage of the CANCoder in every mode.
+   * @throws IllegalStateException If the schedule would put any mode over the budget.
+   */
+  public static synchronized void register(
+      String name, SpartanCANCoder cancoder, Schedule<CANCoderUsage> schedule) {
+    register(
+        name,
+        new Device() {
+          @Override
+          public void apply(Mode mode) {
+            cancoder.setUsage(schedule.get(mode));
+          }
+
+          @Override
+          public double getFramesPerSecond(Mode mode) {
+            return CANCoderUtil.getFramesPerSecond(schedule.get(mode));
+          }
+        });
+  }
+
+  /**
+   * Registers a Pigeon 2 and applies its usage for the current mode.
+   *
+   * @param name Name of the device for error messages.
+   * @param pigeon The Pigeon 2.
+   * @param schedule Usage of the Pigeon 2 in every mode.
+   * @throws IllegalStateException If the schedule would put any mode over the budget.
+   */
+  public static synchronized void register(
+      String name, SpartanPigeon2 pigeon, Schedule<Pigeon2Usage> schedule) {
+    register(
+        name,
+        new Device() {
+          @Override
+          public void apply(Mode mode) {
+            pigeon.setUsage(schedule.get(mode));
+          }
+
+          @Override
+          public double getFramesPerSecond(Mode mode) {
+            return Pigeon2Util.getFramesPerSecond(schedule.get(mode));
+          }
+        });
+  }
+
+  /**
+   * Returns how many frames per second a Spark Max puts on the bus in a mode, counting both its
+   * status frames and the setpoints it is sent while enabled.
+   *
+   * @param usage Usage of the Spark Max in the mode.
+   * @param m The mode.
+   * @return Predicted frames per second.
+   */
+  static synchronized double getSparkMaxFramesPerSecond(Usage usage, Mode m) {
+    double control = m == Mode.kDisabled ? 0.0 : controlFramesPerSecond;
+    return CANSparkMaxUtil.getFramesPerSecond(usage, false) + control;
+  }
+
+  static synchronized void register(String name, Device device) {
+    devices.add(device);
+    try {
+      checkBudget("adding " + name);
+    } catch (IllegalStateException e) {
+      devices.remove(devices.size() - 1);
+      throw e;
+    }
+    device.apply(mode);
+    publish();
+  }
+
+  /** Throws if the registered devices are over budget in any mode. */
+  private static void checkBudget(String change) {
+    for (var m : Mode.values()) {
+      double utilization = getPredictedUtilization(m);
+      if (utilization > maxUtilization) {
+        String message =
+            String.format(
+                "CAN frame schedule for %s is over budget after %s: %.0f%% predicted bus"
+                    + " utilization is over the %.0f%% budget",
+                m, change, utilization * 100.0, maxUtilization * 100.0);
+        SpartanLogManager.logMessage(message);
+        throw new IllegalStateException(message);
+      }
+    }
+  }
+
+  /**
+   * Switches every registered device to its usage for a mode. Every registered schedule was
+   * checked against the budget, so the switch is always made.
+   *
+   * @param newMode The mode the robot is entering.
+   */
+  public static synchronized void setMode(Mode newMode) {
+    if (newMode == mode) {
+      return;
+    }
+
+    mode = newMode;
+    for (var device : devices) {
+      device.apply(mode);
+    }
+    publish();
+  }
+
+  /** Forgets every registered device and restores the defaults. Only meant for tests. */
+  static synchronized void reset() {
+    devices.clear();
+    mode = Mode.kDisabled;
+    maxUtilization = 0.8;
+    controlFramesPerSecond = 50.0;
+  }
+
+  /**
+   * Returns the mode whose frame periods are currently applied.
+   *
+   * @return The current mode.
+   */
+  public static synchronized Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * Returns how many frames per second the registered devices are predicted to put on the bus in a
+   * mode.
+   *
+   * @param m The mode.
+   * @return Predicted frames per second.
+   */
+  public static synchronized double getPredictedFramesPerSecond(Mode m) {
+    double framesPerSecond = 0.0;
+    for (var device : devices) {
+      framesPerSecond += device.getFramesPerSecond(m);
+    }
+    return framesPerSecond;
+  }
+
+  /**
+   * Returns the predicted bus utilization in a mode.
+   *
+   * @param m The mode.
+   * @return Fraction of the bus from 0 to 1.
+   */
+  public static synchronized double getPredictedUtilization(Mode m) {
+    return getPredictedFramesPerSecond(m) * kBitsPerFrame / kBusBitsPerSecond;
+  }
+
+  private static void publish() {
+    predictedFrames.set(getPredictedFramesPerSecond(mode));
+    predictedUtilization.set(getPredictedUtilization(mode) * 100.0);
+  }
+}
@@ -9,9 +9,70 @@ public class CANSparkMaxUtil {
     kAll,
     kPositionOnly,
     kVelocityOnly,
-    kMinimal
+    kMinimal,
+    kOdometry,
+    kFaults
   };
 
+  private static final CANSparkMaxLowLevel.PeriodicFrame[] kFrames = {
+    CANSparkMaxLowLevel.PeriodicFrame.kStatus0,
+    CANSparkMaxLowLevel.PeriodicFrame.kStatus1,
+    CANSparkMaxLowLevel.PeriodicFrame.kStatus2,
+    CANSparkMaxLowLevel.PeriodicFrame.kStatus3,
+    CANSparkMaxLowLevel.PeriodicFrame.kStatus4,
+    CANSparkMaxLowLevel.PeriodicFrame.kStatus5,
+    CANSparkMaxLowLevel.PeriodicFrame.kStatus6
+  };
+
+  /**
+   * Returns the status frame periods used for a usage, indexed by status frame number (0-6).
+   * Frames 4-6 carry the alternate encoder and duty cycle sensor data, which nothing uses, so they
+   * are always slowed down.
+   *
+   * @param usage The status frame feedack to enable.
+   * @param enableFollowing Whether to enable motor following.
+   * @return Status frame periods in milliseconds.
+   */
+  public static int[] getStatusFramePeriods(Usage usage, boolean enableFollowing) {
+    int[] periods = {500, 500, 500, 500, 500, 500, 500};
+    if (usage == Usage.kAll) {
+      periods[1] = 20;
+      periods[2] = 20;
+      periods[3] = 50;
+    } else if (usage == Usage.kPositionOnly) {
+      periods[2] = 20;
+    } else if (usage == Usage.kVelocityOnly) {
+      periods[1] = 20;
+    } else if (usage == Usage.kOdometry) {
+      periods[1] = 20;
+      periods[2] = 10;
+    } else if (usage == Usage.kFaults) {
+      periods[0] = 20;
+      periods[1] = 100;
+      periods[2] = 100;
+    }
+
+    if (enableFollowing) {
+      periods[0] = 10;
+    }
+    return periods;
+  }
+
+  /**
+   * Returns how many status frames per second a Spark Max sends with a usage.
+   *
+   * @param usage The status frame feedack to enable.
+   * @param enableFollowing Whether to enable motor following.
+   * @return Predicted status frames per second.
+   */
+  public static double getFramesPerSecond(Usage usage, boolean enableFollowing) {
+    double framesPerSecond = 0.0;
+    for (int period : getStatusFramePeriods(usage, enableFollowing)) {
+      framesPerSecond += 1000.0 / period;
+    }
+    return framesPerSecond;
+  }
+
   /**
    * This function allows reducing a Spark Max's CAN bus utilization by reducing the periodic status
    * frame period of nonessential frames from 20ms to 500ms.
@@ -27,28 +88,9 @@ public class CANSparkMaxUtil {
    */
   public static void setCANSparkMaxBusUsage(
       CANSparkMax motor, Usage usage, boolean enableFollowing) {
-    if (enableFollowing) {
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus0, 10);
-    } else {
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus0, 500);
-    }
-
-    if (usage == Usage.kAll) {
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 20);
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 20);
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus3, 50);
-    } else if (usage == Usage.kPositionOnly) {
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 500);
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 20);
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus3, 500);
-    } else if (usage == Usage.kVelocityOnly) {
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 20);
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 500);
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus3, 500);
-    } else if (usage == Usage.kMinimal) {
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 500);
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 500);
-      motor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus3, 500);
+    int[] periods = getStatusFramePeriods(usage, enableFollowing);
+    for (int i = 0; i < kFrames.length; i++) {
+      motor.setPeriodicFramePeriod(kFrames[i], periods[i]);
     }
   }
 
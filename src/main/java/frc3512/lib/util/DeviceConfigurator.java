@@ -0,0 +1,256 @@
+package frc3512.lib.util;
+
+import edu.wpi.first.wpilibj.Preferences;
+import frc3512.lib.logging.SpartanDoubleEntry;
+import frc3512.lib.logging.SpartanLogManager;
+import frc3512.lib.motion.SparkMaxConfig;
+import frc3512.lib.motion.SpartanCANCoder;
+import frc3512.lib.motion.SpartanSparkMax;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Configures motor controllers and encoders at boot. Devices are independent of each other, so they
+ * are configured concurrently, each with its own timeout and retries.
+ *
+ * <p>A hash of the settings applied to each device is kept in {@link Preferences}, keyed by the
+ * device's type and CAN ID. If the hash hasn't changed since the last boot, the settings should
+ * already be in the device's flash, so they are read back before anything is written. Only a device
+ * whose hash changed or that reports anything different, like a replacement on the same CAN ID, is
+ * reset, configured from scratch and has its flash written.
+ */
+public class DeviceConfigurator {
+  private static final String kHashPrefix = "ConfigHash_";
+
+  /** A device that can be configured by the DeviceConfigurator. */
+  public interface ConfigurableDevice {
+    /**
+     * Resets the device to its factory defaults and applies the settings.
+     *
+     * @return Whether every write was acknowledged.
+     */
+    boolean apply();
+
+    /**
+     * Reads the settings back from the device.
+     *
+     * @return Whether the device reported every setting as applied.
+     */
+    boolean verify();
+
+    /**
+     * Saves the settings so they survive a power cycle.
+     *
+     * @return Whether the save was acknowledged.
+     */
+    boolean persist();
+  }
+
+  private static class Entry {
+    final String name;
+    final String key;
+    final long hash;
+    final ConfigurableDevice device;
+
+    Entry(String name, String key, long hash, ConfigurableDevice device) {
+      this.name = name;
+      this.key = key;
+      this.hash = hash;
+      this.device = device;
+    }
+  }
+
+  private final List<Entry> entries = new ArrayList<>();
+  private final double timeoutSeconds;
+  private final int retries;
+  private final int timeoutMs;
+
+  /**
+   * Creates a new DeviceConfigurator.
+   *
+   * @param timeoutSeconds Longest time to wait for each device, including retries.
+   * @param retries Number of times to retry a device whose settings didn't verify.
+   * @param timeoutMs How long each individual CAN write or read waits for a response.
+   */
+  public DeviceConfigurator(double timeoutSeconds, int retries, int timeoutMs) {
+    this.timeoutSeconds = timeoutSeconds;
+    this.retries = retries;
+    this.timeoutMs = timeoutMs;
+  }
+
+  /**
+   * Adds a device.
+   *
+   * @param name Unique name of the device.
+   * @param key Identifies the physical device, like its type and CAN ID. The hash of its settings
+   *     is stored under it.
+   * @param hash Hash of the settings the device is configured with.
+   * @param device Applies, verifies and saves the settings.
+   */
+  public void add(String name, String key, long hash, ConfigurableDevice device) {
+    entries.add(new Entry(name, key, hash, device));
+  }
+
+  /**
+   * Adds a Spark Max.
+   *
+   * @param name Unique name of the device.
+   * @param motor The Spark Max.
+   * @param config The settings to apply.
+   */
+  public void add(String name, SpartanSparkMax motor, SparkMaxConfig config) {
+    add(
+        name,
+        "SparkMax_" + motor.getDeviceId(),
+        config.hash(motor.isInverted()),
+        new ConfigurableDevice() {
+          @Override
+          public boolean apply() {
+            boolean ok = motor.restoreFactoryDefaults();
+            motor.applyConfig(config);
+            return ok;
+          }
+
+          @Override
+          public boolean verify() {
+            return motor.verifyConfig(config);
+          }
+
+          @Override
+          public boolean persist() {
+            return motor.burnFlash();
+          }
+        });
+  }
+
+  /**
+   * Adds a CANCoder.
+   *
+   * @param name Unique name of the device.
+   * @param encoder The CANCoder.
+   */
+  public void add(String name, SpartanCANCoder encoder) {
+    add(
+        name,
+        "CANCoder_" + encoder.getDeviceId(),
+        encoder.getConfigHash(),
+        new ConfigurableDevice() {
+          @Override
+          public boolean apply() {
+            return encoder.configure(timeoutMs);
+          }
+
+          @Override
+          public boolean verify() {
+            return encoder.verifyConfig(timeoutMs);
+          }
+
+          @Override
+          public boolean persist() {
+            // Every CANCoder write already goes to flash.
+            return true;
+          }
+        });
+  }
+
+  /**
+   * Configures every device and waits until they are done or have timed out.
+   *
+   * @return Whether every device was configured and verified.
+   */
+  public boolean run() {
+    if (entries.isEmpty()) {
+      return true;
+    }
+
+    long start = System.nanoTime();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            entries.size(),
+            runnable -> {
+              var thread = new Thread(runnable, "DeviceConfigurator");
+              thread.setDaemon(true);
+              return thread;
+            });
+    List<Future<Double>> futures = new ArrayList<>();
+    for (var entry : entries) {
+      futures.add(executor.submit(() -> configure(entry)));
+    }
+
+    boolean allOk = true;
+    long deadline = start + (long) (timeoutSeconds * 1e9);
+    for (int i = 0; i < entries.size(); i++) {
+      var entry = entries.get(i);
+      var future = futures.get(i);
+      double millis = -1.0;
+      String failure = "failed to verify";
+      try {
+        millis = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        // Stops the retries and keeps a half-applied config from being saved.
+        future.cancel(true);
+        failure = "timed out";
+      } catch (ExecutionException e) {
+        failure = "failed: " + e.getCause();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failure = "interrupted";
+      }
+
+      new SpartanDoubleEntry("/Diagnostics/Boot/" + entry.name, 0.0, true).set(millis);
+      if (millis < 0.0) {
+        allOk = false;
+        SpartanLogManager.logMessage("Configuring " + entry.name + " " + failure);
+      }
+    }
+    executor.shutdown();
+
+    double totalMillis = (System.nanoTime() - start) * 1e-6;
+    SpartanLogManager.logMessage(
+        String.format("Configured %d devices in %.1f ms", entries.size(), totalMillis));
+    entries.clear();
+    return allOk;
+  }
+
+  /**
+   * Configures a single device.
+   *
+   * @return Time it took in milliseconds, or -1 if the settings never verified.
+   */
+  private double configure(Entry entry) {
+    long start = System.nanoTime();
+    String key = kHashPrefix + entry.key;
+    boolean changed = Preferences.getLong(key, 0) != entry.hash;
+
+    // Nothing has been written yet, so this reads what the device loaded from its flash.
+    if (!changed && entry.device.verify()) {
+      return (System.nanoTime() - start) * 1e-6;
+    }
+
+    boolean verified = false;
+    for (int attempt = 0; attempt <= retries; attempt++) {
+      if (Thread.currentThread().isInterrupted()) {
+        return -1.0;
+      }
+      if (entry.device.apply() && entry.device.verify()) {
+        verified = true;
+        break;
+      }
+    }
+    if (!verified || Thread.currentThread().isInterrupted() || !entry.device.persist()) {
+      return -1.0;
+    }
+
+    Preferences.setLong(key, entry.hash);
+    SpartanLogManager.logMessage(
+        entry.name + (changed ? " settings changed" : " didn't match its settings")
+            + ", saved them to flash");
+    return (System.nanoTime() - start) * 1e-6;
+  }
+}
@@ -0,0 +1,127 @@
+package frc3512.lib.util;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc3512.lib.logging.SpartanDoubleEntry;
+import frc3512.lib.profiling.LatencyHistogram;
+import frc3512.lib.profiling.LoopProfiler;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs groups of tasks at their own rates on top of {@link TimedRobot#addPeriodic}, next to the
+ * robot's main loop. Every tier runs on the main thread, so tasks in different tiers can share
+ * state without locks, but a slow task in any tier delays every other tier.
+ *
+ * <p>Tiers are given phase offsets so they don't become due at the same time as the main loop or
+ * each other. Each tier reports how long it ran and how late it started to the {@link
+ * LoopProfiler}, and counts deadline misses: runs that didn't finish before the tier's next
+ * release.
+ */
+public class MultiRateScheduler {
+  private static final String kPrefix = "/Diagnostics/Tiers/";
+
+  /** A group of tasks that run at the same rate. */
+  public static class Tier {
+    private final String name;
+    private final double periodSeconds;
+    private final long periodNanos;
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final LatencyHistogram runTime;
+    private final LatencyHistogram releaseLatency;
+    private final SpartanDoubleEntry deadlineMissesEntry;
+    private long nextRelease = 0;
+    private long deadlineMisses = 0;
+
+    private Tier(String name, double periodSeconds) {
+      this.name = name;
+      this.periodSeconds = periodSeconds;
+      periodNanos = (long) (periodSeconds * 1e9);
+      runTime = LoopProfiler.register("Tiers/" + name, periodSeconds);
+      releaseLatency = LoopProfiler.register("Tiers/" + name + "/Release Latency", periodSeconds);
+      deadlineMissesEntry = new SpartanDoubleEntry(kPrefix + name + "/Deadline Misses", 0.0, true);
+    }
+
+    /**
+     * Adds a task to the end of the tier.
+     *
+     * @param task Task to run every period.
+     */
+    public void add(Runnable task) {
+      tasks.add(task);
+    }
+
+    /**
+     * Returns the name of the tier.
+     *
+     * @return Name of the tier.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns the period of the tier.
+     *
+     * @return Period in seconds.
+     */
+    public double getPeriod() {
+      return periodSeconds;
+    }
+
+    /**
+     * Returns how many runs finished after the tier's next release.
+     *
+     * @return Number of deadline misses.
+     */
+    public long getDeadlineMisses() {
+      return deadlineMisses;
+    }
+
+    private void run() {
+      long start = System.nanoTime();
+      // TimedRobot releases a tier exactly one period after its last release and runs late
+      // tiers back to back to catch up, so the releases can be tracked from the first one.
+      if (nextRelease == 0) {
+        nextRelease = start;
+      }
+      releaseLatency.record(start - nextRelease);
+
+      for (int i = 0; i < tasks.size(); i++) {
+        tasks.get(i).run();
+      }
+
+      long end = System.nanoTime();
+      runTime.record(end - start);
+      if (end - nextRelease > periodNanos) {
+        deadlineMisses++;
+        deadlineMissesEntry.set(deadlineMisses);
+      }
+      nextRelease += periodNanos;
+    }
+  }
+
+  private final TimedRobot robot;
+
+  /**
+   * Creates a new MultiRateScheduler.
+   *
+   * @param robot Robot whose main loop runs the tiers.
+   */
+  public MultiRateScheduler(TimedRobot robot) {
+    this.robot = robot;
+  }
+
+  /**
+   * Creates a tier and schedules it on the robot's main loop. Must be called from robotInit().
+   *
+   * @param name Name of the tier, e.g. "Control".
+   * @param periodSeconds Period of the tier.
+   * @param offsetSeconds Offset of the tier's releases from the main loop's releases.
+   * @return The tier, to add tasks to.
+   */
+  public Tier addTier(String name, double periodSeconds, double offsetSeconds) {
+    var tier = new Tier(name, periodSeconds);
+    robot.addPeriodic(tier::run, periodSeconds, offsetSeconds);
+    return tier;
+  }
+}
@@ -0,0 +1,148 @@
+package frc3512.lib.util;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import org.ejml.simple.SimpleMatrix;
+
+/**
+ * Allocation-free swerve kinematics. Module states are written into caller supplied
+ * primitive arrays of speeds (meters per second) and angles (degrees) instead of new
+ * SwerveModuleState objects, so it can be used every loop without producing garbage.
+ */
+public class MutableSwerveKinematics {
+  private final double[] moduleX;
+  private final double[] moduleY;
+  private final double[][] forwardKinematics;
+
+  /**
+   * Creates a new MutableSwerveKinematics.
+   *
+   * @param moduleLocations Locations of the modules relative to the center of the robot, in the
+   *     same order the module states are indexed.
+   */
+  public MutableSwerveKinematics(Translation2d... moduleLocations) {
+    moduleX = new double[moduleLocations.length];
+    moduleY = new double[moduleLocations.length];
+    for (int i = 0; i < moduleLocations.length; i++) {
+      moduleX[i] = moduleLocations[i].getX();
+      moduleY[i] = moduleLocations[i].getY();
+    }
+
+    // Precompute the least squares solution used for forward kinematics.
+    var inverseKinematics = new SimpleMatrix(moduleLocations.length * 2, 3);
+    for (int i = 0; i < moduleLocations.length; i++) {
+      inverseKinematics.set(i * 2, 0, 1.0);
+      inverseKinematics.set(i * 2, 2, -moduleY[i]);
+      inverseKinematics.set(i * 2 + 1, 1, 1.0);
+      inverseKinematics.set(i * 2 + 1, 2, moduleX[i]);
+    }
+    var pseudoInverse = inverseKinematics.pseudoInverse();
+    forwardKinematics = new double[3][moduleLocations.length * 2];
+    for (int row = 0; row < 3; row++) {
+      for (int col = 0; col < moduleLocations.length * 2; col++) {
+        forwardKinematics[row][col] = pseudoInverse.get(row, col);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of modules.
+   *
+   * @return Number of modules.
+   */
+  public int getNumModules() {
+    return moduleX.length;
+  }
+
+  /**
+   * Returns the forward location of a module relative to the center of the robot.
+   *
+   * @param module Index of the module.
+   * @return Location in meters.
+   */
+  public double getModuleX(int module) {
+    return moduleX[module];
+  }
+
+  /**
+   * Returns the sideways location of a module relative to the center of the robot.
+   *
+   * @param module Index of the module.
+   * @return Location in meters.
+   */
+  public double getModuleY(int module) {
+    return moduleY[module];
+  }
+
+  /**
+   * Converts robot relative chassis speeds into module states. When the chassis is not moving the
+   * module angles are left untouched so the modules hold their last heading.
+   *
+   * @param vxMetersPerSecond Forward velocity.
+   * @param vyMetersPerSecond Sideways velocity.
+   * @param omegaRadiansPerSecond Angular velocity.
+   * @param speeds Output module speeds in meters per second.
+   * @param anglesDegrees Output module angles in degrees.
+   */
+  public void toModuleStates(
+      double vxMetersPerSecond,
+      double vyMetersPerSecond,
+      double omegaRadiansPerSecond,
+      double[] speeds,
+      double[] anglesDegrees) {
+    if (vxMetersPerSecond == 0.0 && vyMetersPerSecond == 0.0 && omegaRadiansPerSecond == 0.0) {
+      for (int i = 0; i < moduleX.length; i++) {
+        speeds[i] = 0.0;
+      }
+      return;
+    }
+
+    for (int i = 0; i < moduleX.length; i++) {
+      double x = vxMetersPerSecond - omegaRadiansPerSecond * moduleY[i];
+      double y = vyMetersPerSecond + omegaRadiansPerSecond * moduleX[i];
+      speeds[i] = Math.hypot(x, y);
+      anglesDegrees[i] = Math.toDegrees(Math.atan2(y, x));
+    }
+  }
+
+  /**
+   * Converts module states into robot relative chassis speeds.
+   *
+   * @param speeds Module speeds in meters per second.
+   * @param anglesDegrees Module angles in degrees.
+   * @param chassisSpeeds Output array of [vx, vy, omega].
+   */
+  public void toChassisSpeeds(double[] speeds, double[] anglesDegrees, double[] chassisSpeeds) {
+    for (int row = 0; row < 3; row++) {
+      chassisSpeeds[row] = 0.0;
+    }
+    for (int i = 0; i < moduleX.length; i++) {
+      double angle = Math.toRadians(anglesDegrees[i]);
+      double x = speeds[i] * Math.cos(angle);
+      double y = speeds[i] * Math.sin(angle);
+      for (int row = 0; row < 3; row++) {
+        chassisSpeeds[row] +=
+            forwardKinematics[row][i * 2] * x + forwardKinematics[row][i * 2 + 1] * y;
+      }
+    }
+  }
+
+  /**
+   * Scales module speeds down so that none of them exceed the attainable maximum while keeping the
+   * ratio between them.
+   *
+   * @param speeds Module speeds in meters per second, modified in place.
+   * @param attainableMaxSpeedMetersPerSecond Maximum speed a module can reach.
+   */
+  public static void desaturateWheelSpeeds(
+      double[] speeds, double attainableMaxSpeedMetersPerSecond) {
+    double realMaxSpeed = 0.0;
+    for (double speed : speeds) {
+      realMaxSpeed = Math.max(realMaxSpeed, Math.abs(speed));
+    }
+    if (realMaxSpeed > attainableMaxSpeedMetersPerSecond) {
+      for (int i = 0; i < speeds.length; i++) {
+        speeds[i] = speeds[i] / realMaxSpeed * attainableMaxSpeedMetersPerSecond;
+      }
+    }
+  }
+}
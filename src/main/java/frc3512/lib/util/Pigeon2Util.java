@@ -0,0 +1,93 @@
+package frc3512.lib.util;
+
+import com.ctre.phoenix.sensors.Pigeon2;
+import com.ctre.phoenix.sensors.PigeonIMU_StatusFrame;
+
+/** Sets status frames for the CTRE Pigeon 2. */
+public class Pigeon2Util {
+  public enum Pigeon2Usage {
+    kAll,
+    kOdometry,
+    kFaultsOnly,
+    kMinimal
+  }
+
+  private static final PigeonIMU_StatusFrame[] kFrames = {
+    PigeonIMU_StatusFrame.CondStatus_1_General,
+    PigeonIMU_StatusFrame.CondStatus_9_SixDeg_YPR,
+    PigeonIMU_StatusFrame.BiasedStatus_2_Gyro,
+    PigeonIMU_StatusFrame.BiasedStatus_6_Accel,
+    PigeonIMU_StatusFrame.CondStatus_2_GeneralCompass,
+    PigeonIMU_StatusFrame.CondStatus_3_GeneralAccel,
+    PigeonIMU_StatusFrame.CondStatus_6_SensorFusion,
+    PigeonIMU_StatusFrame.CondStatus_10_SixDeg_Quat,
+    PigeonIMU_StatusFrame.CondStatus_11_GyroAccum,
+    PigeonIMU_StatusFrame.RawStatus_4_Mag,
+    PigeonIMU_StatusFrame.BiasedStatus_4_Mag
+  };
+
+  /**
+   * Returns the status frame periods used for a usage as [General, YawPitchRoll, Gyro, Accel,
+   * followed by the compass, fusion, quaternion, accumulated gyro and magnetometer frames]. Nothing
+   * reads the frames after Accel, so they are always slowed down.
+   *
+   * @param usage The status frame feedback to enable.
+   * @return Status frame periods in milliseconds.
+   */
+  public static int[] getStatusFramePeriods(Pigeon2Usage usage) {
+    int[] periods = {100, 100, 100, 100, 255, 255, 255, 255, 255, 255, 255};
+    if (usage == Pigeon2Usage.kAll) {
+      periods[0] = 10;
+      periods[1] = 10;
+      periods[2] = 10;
+      periods[3] = 20;
+    } else if (usage == Pigeon2Usage.kOdometry) {
+      periods[1] = 10;
+      periods[2] = 10;
+    } else if (usage == Pigeon2Usage.kFaultsOnly) {
+      periods[0] = 10;
+    }
+    return periods;
+  }
+
+  /**
+   * Returns how many status frames per second a Pigeon 2 sends with a usage.
+   *
+   * @param usage The status frame feedback to enable.
+   * @return Predicted status frames per second.
+   */
+  public static double getFramesPerSecond(Pigeon2Usage usage) {
+    double framesPerSecond = 0.0;
+    for (int period : getStatusFramePeriods(usage)) {
+      framesPerSecond += 1000.0 / period;
+    }
+    return framesPerSecond;
+  }
+
+  /**
+   * Returns the period of the frame that carries the yaw.
+   *
+   * @param usage The status frame feedback to enable.
+   * @return Period in milliseconds.
+   */
+  public static int getYawFramePeriod(Pigeon2Usage usage) {
+    return getStatusFramePeriods(usage)[1];
+  }
+
+  /**
+   * This function allows reducing a Pigeon 2's CAN bus utilization by reducing the periodic status
+   * frame period of nonessential frames.
+   *
+   * <p>See https://docs.ctre-phoenix.com/en/stable/ch18_CommonAPI.html#pigeon-imu for a
+   * description of the status frames.
+   *
+   * @param pigeon The Pigeon 2 to adjust the status frames on.
+   * @param usage The status frame feedback to enable.
+   */
+  public static void setPigeon2BusUsage(Pigeon2 pigeon, Pigeon2Usage usage) {
+    int[] periods = getStatusFramePeriods(usage);
+    for (int i = 0; i < kFrames.length; i++) {
+      pigeon.setStatusFramePeriod(kFrames[i], periods[i]);
+    }
+  }
+}
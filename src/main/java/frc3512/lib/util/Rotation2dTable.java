@@ -0,0 +1,41 @@
+package frc3512.lib.util;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Preallocated rotations for every angle at a fixed resolution. Rotation2d is immutable, so
+ * handing out module angles as rotations would otherwise allocate one every time an angle changes,
+ * which is every loop while the robot moves.
+ *
+ * <p>The angles are rounded, so only use the table where that doesn't matter, like module states
+ * for control and display. Odometry needs the exact angles.
+ */
+public final class Rotation2dTable {
+  /** Spacing of the rotations in the table. */
+  public static final double kResolutionDegrees = 0.1;
+
+  private static final int kSize = (int) Math.round(360.0 / kResolutionDegrees);
+  private static final Rotation2d[] kTable = new Rotation2d[kSize];
+
+  static {
+    for (int i = 0; i < kSize; i++) {
+      kTable[i] = Rotation2d.fromDegrees(i * kResolutionDegrees - 180.0);
+    }
+  }
+
+  private Rotation2dTable() {}
+
+  /**
+   * Returns the rotation in the table closest to an angle.
+   *
+   * @param degrees Angle in degrees. Any angle is accepted.
+   * @return Rotation wrapped to [-180, 180) degrees.
+   */
+  public static Rotation2d fromDegrees(double degrees) {
+    double wrapped = MathUtil.inputModulus(degrees, -180.0, 180.0);
+    int index = (int) Math.round((wrapped + 180.0) / kResolutionDegrees);
+    // Rounding up from just below 180 degrees lands on -180.
+    return kTable[index % kSize];
+  }
+}
@@ -0,0 +1,190 @@
+package frc3512.lib.util;
+
+/**
+ * Limits how quickly swerve module setpoints change so every module can follow them. Each call
+ * moves the chassis speeds from the previous setpoint towards the requested ones only as far as
+ * every module can follow: no module's velocity may change by more than the acceleration limit
+ * allows, and no moving module may have to turn faster than the steering velocity limit. The
+ * module states are then computed from the limited chassis speeds, so they always agree with each
+ * other. Modules that are stopped turn towards their next heading while the others wait for them.
+ *
+ * <p>How far the acceleration limit allows is solved directly. How far the steering limit allows
+ * is found by bisection with a fixed number of iterations, so the worst case cost of a call is
+ * known up front. Module states are primitive arrays of speeds (meters per second) and angles
+ * (degrees), like {@link MutableSwerveKinematics}, and nothing is allocated after construction.
+ */
+public class SwerveSetpointGenerator {
+  // Modules moving slower than this have no meaningful heading.
+  private static final double kEpsilon = 1e-6;
+
+  private final MutableSwerveKinematics kinematics;
+  private final double[] moduleX;
+  private final double[] moduleY;
+  private final double maxAcceleration;
+  private final double maxSteerVelocity;
+  private final int iterations;
+
+  // The previous setpoint, as it was emitted.
+  private final double[] previousChassisSpeeds = new double[3];
+  private final double[] desiredChassisSpeeds = new double[3];
+  private final double[] previousAngles;
+
+  /**
+   * Creates a new SwerveSetpointGenerator.
+   *
+   * @param kinematics Kinematics of the drivetrain.
+   * @param maxAccelerationMetersPerSecondSq Fastest a module velocity may change.
+   * @param maxSteerVelocityDegreesPerSecond Fastest a module may turn.
+   * @param iterations Number of bisection iterations. Each one halves the error in how far the
+   *     setpoint moves towards the requested one.
+   */
+  public SwerveSetpointGenerator(
+      MutableSwerveKinematics kinematics,
+      double maxAccelerationMetersPerSecondSq,
+      double maxSteerVelocityDegreesPerSecond,
+      int iterations) {
+    this.kinematics = kinematics;
+    moduleX = new double[kinematics.getNumModules()];
+    moduleY = new double[kinematics.getNumModules()];
+    for (int i = 0; i < moduleX.length; i++) {
+      moduleX[i] = kinematics.getModuleX(i);
+      moduleY[i] = kinematics.getModuleY(i);
+    }
+    this.maxAcceleration = maxAccelerationMetersPerSecondSq;
+    this.maxSteerVelocity = maxSteerVelocityDegreesPerSecond;
+    this.iterations = iterations;
+    previousAngles = new double[kinematics.getNumModules()];
+  }
+
+  /**
+   * Sets the previous setpoint, for example after the modules were commanded without the
+   * generator.
+   *
+   * @param speeds Module speeds in meters per second.
+   * @param anglesDegrees Module angles in degrees.
+   */
+  public void reset(double[] speeds, double[] anglesDegrees) {
+    System.arraycopy(anglesDegrees, 0, previousAngles, 0, previousAngles.length);
+    kinematics.toChassisSpeeds(speeds, anglesDegrees, previousChassisSpeeds);
+  }
+
+  /**
+   * Limits a set of desaturated module states.
+   *
+   * @param speeds Requested module speeds in meters per second, replaced with the limited ones.
+   * @param anglesDegrees Requested module angles in degrees, replaced with the limited ones.
+   * @param dtSeconds Time since the previous setpoint.
+   */
+  public void generate(double[] speeds, double[] anglesDegrees, double dtSeconds) {
+    kinematics.toChassisSpeeds(speeds, anglesDegrees, desiredChassisSpeeds);
+    double maxVelocityChange = maxAcceleration * dtSeconds;
+    double maxAngleChange = maxSteerVelocity * dtSeconds;
+
+    // Each module's velocity moves along a straight line as the chassis speeds do, so the
+    // furthest fraction the acceleration limit allows is the same for the whole line.
+    double fraction = 1.0;
+    for (int i = 0; i < moduleX.length; i++) {
+      double change =
+          Math.hypot(
+              moduleVx(i, desiredChassisSpeeds) - moduleVx(i, previousChassisSpeeds),
+              moduleVy(i, desiredChassisSpeeds) - moduleVy(i, previousChassisSpeeds));
+      if (change > maxVelocityChange) {
+        fraction = Math.min(fraction, maxVelocityChange / change);
+      }
+    }
+
+    // Then find the furthest fraction up to that which no moving module has to turn too fast for.
+    if (!isSteerable(fraction, maxAngleChange)) {
+      double low = 0.0;
+      double high = fraction;
+      for (int i = 0; i < iterations; i++) {
+        double mid = (low + high) / 2.0;
+        if (isSteerable(mid, maxAngleChange)) {
+          low = mid;
+        } else {
+          high = mid;
+        }
+      }
+      fraction = low;
+    }
+
+    for (int i = 0; i < moduleX.length; i++) {
+      double x = setpointVx(i, fraction);
+      double y = setpointVy(i, fraction);
+      double speed = Math.hypot(x, y);
+      if (speed < kEpsilon) {
+        // A stopped module turns towards where it has to go next, as fast as it is allowed to.
+        speeds[i] = 0.0;
+        x = moduleVx(i, desiredChassisSpeeds);
+        y = moduleVy(i, desiredChassisSpeeds);
+        if (Math.hypot(x, y) >= kEpsilon) {
+          double error = headingError(i, x, y);
+          anglesDegrees[i] =
+              wrapDegrees(
+                  previousAngles[i] + Math.max(-maxAngleChange, Math.min(maxAngleChange, error)));
+        } else {
+          anglesDegrees[i] = previousAngles[i];
+        }
+        continue;
+      }
+
+      // Point the shorter way, driving backwards if that is closer.
+      double heading = Math.toDegrees(Math.atan2(y, x));
+      if (Math.abs(wrapDegrees(heading - previousAngles[i])) > 90.0) {
+        heading += 180.0;
+        speed = -speed;
+      }
+      speeds[i] = speed;
+      anglesDegrees[i] = wrapDegrees(heading);
+    }
+
+    // The next call starts from exactly what was sent to the modules.
+    reset(speeds, anglesDegrees);
+  }
+
+  private boolean isSteerable(double fraction, double maxAngleChange) {
+    for (int i = 0; i < moduleX.length; i++) {
+      double x = setpointVx(i, fraction);
+      double y = setpointVy(i, fraction);
+      if (Math.hypot(x, y) >= kEpsilon && Math.abs(headingError(i, x, y)) > maxAngleChange) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns how far a module has to turn to drive along a velocity, going the shorter way and
+   * driving backwards if that is closer.
+   */
+  private double headingError(int module, double x, double y) {
+    double error = wrapDegrees(Math.toDegrees(Math.atan2(y, x)) - previousAngles[module]);
+    if (Math.abs(error) > 90.0) {
+      error = wrapDegrees(error + 180.0);
+    }
+    return error;
+  }
+
+  /** Returns a module's velocity a fraction of the way from the previous to the requested one. */
+  private double setpointVx(int module, double fraction) {
+    double previous = moduleVx(module, previousChassisSpeeds);
+    return previous + (moduleVx(module, desiredChassisSpeeds) - previous) * fraction;
+  }
+
+  private double setpointVy(int module, double fraction) {
+    double previous = moduleVy(module, previousChassisSpeeds);
+    return previous + (moduleVy(module, desiredChassisSpeeds) - previous) * fraction;
+  }
+
+  private double moduleVx(int module, double[] chassisSpeeds) {
+    return chassisSpeeds[0] - chassisSpeeds[2] * moduleY[module];
+  }
+
+  private double moduleVy(int module, double[] chassisSpeeds) {
+    return chassisSpeeds[1] + chassisSpeeds[2] * moduleX[module];
+  }
+
+  private static double wrapDegrees(double degrees) {
+    return degrees - 360.0 * Math.floor((degrees + 180.0) / 360.0);
+  }
+}
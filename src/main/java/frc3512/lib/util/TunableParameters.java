@@ -0,0 +1,113 @@
+package frc3512.lib.util;
+
+import edu.wpi.first.networktables.DoubleEntry;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import frc3512.lib.logging.SpartanLogManager;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A group of numbers that can be changed from NetworkTables while the robot runs. The values are
+ * read through an immutable snapshot. When a value changes, the NetworkTables listener builds a
+ * new snapshot and swaps it in, so readers never see a half-updated group and never take a lock.
+ *
+ * <p>Code on the main loop should call {@link #periodic()} once per loop and keep the snapshot
+ * passed to its listeners in a plain field, so hot paths only load a field. When disabled, no
+ * NetworkTables entries are created and the snapshot of the defaults is never replaced.
+ *
+ * @param <T> Snapshot type. It must be immutable, with only final fields.
+ */
+public class TunableParameters<T> {
+  /** Builds a snapshot from the values in the order the names were given. */
+  public interface SnapshotFactory<T> {
+    T create(double[] values);
+  }
+
+  private final SnapshotFactory<T> factory;
+  private final List<Consumer<T>> listeners = new ArrayList<>();
+
+  // Guarded by this. Copied for every snapshot so a snapshot never changes after it is built.
+  private final double[] values;
+  private final List<DoubleEntry> entries = new ArrayList<>();
+
+  private volatile T snapshot;
+  private T lastNotified;
+
+  /**
+   * Creates a new TunableParameters.
+   *
+   * @param table NetworkTables path the values are published under.
+   * @param names Name of each value.
+   * @param defaults Starting value of each value.
+   * @param factory Builds a snapshot from the values.
+   * @param enabled Whether the values can be changed. When false, the defaults are used forever.
+   */
+  public TunableParameters(
+      String table,
+      String[] names,
+      double[] defaults,
+      SnapshotFactory<T> factory,
+      boolean enabled) {
+    this.factory = factory;
+    values = defaults.clone();
+    snapshot = factory.create(values.clone());
+    lastNotified = snapshot;
+    if (!enabled) {
+      return;
+    }
+
+    var nt = SpartanLogManager.getNTInstance();
+    for (int i = 0; i < names.length; i++) {
+      var entry = nt.getDoubleTopic(table + "/" + names[i]).getEntry(defaults[i]);
+      entry.set(defaults[i]);
+      entries.add(entry);
+
+      int index = i;
+      nt.addListener(
+          entry,
+          EnumSet.of(NetworkTableEvent.Kind.kValueAll),
+          event -> set(index, event.valueData.value.getDouble()));
+    }
+  }
+
+  private synchronized void set(int index, double value) {
+    if (values[index] == value) {
+      return;
+    }
+    values[index] = value;
+    snapshot = factory.create(values.clone());
+  }
+
+  /**
+   * Returns the current snapshot.
+   *
+   * @return The current snapshot.
+   */
+  public T get() {
+    return snapshot;
+  }
+
+  /**
+   * Adds a listener that is called from {@link #periodic()} with the new snapshot whenever a value
+   * changed.
+   *
+   * @param listener Called with the new snapshot.
+   */
+  public void addListener(Consumer<T> listener) {
+    listeners.add(listener);
+  }
+
+  /** Passes the snapshot to the listeners if it changed since the last call. */
+  public void periodic() {
+    T current = snapshot;
+    if (current == lastNotified) {
+      return;
+    }
+    lastNotified = current;
+    for (var listener : listeners) {
+      listener.accept(current);
+    }
+  }
+}
@@ -8,6 +8,10 @@ import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.geometry.Translation3d;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.util.Units;
+import frc3512.lib.util.CANCoderUtil.CANCoderUsage;
+import frc3512.lib.util.CANFrameManager.Schedule;
+import frc3512.lib.util.CANSparkMaxUtil.Usage;
+import frc3512.lib.util.Pigeon2Util.Pigeon2Usage;
 import frc3512.lib.util.SwerveModuleConstants;
 
 /** Constants for the robot project */
@@ -18,6 +22,37 @@ public final class Constants {
     // Enable or disable competition mode
     public static final boolean competitionMode = false;
 
+    // Split the log into files of at most this size and age, and delete the oldest logs to stay
+    // in the budget. Below the minimum free space, only critical entries are logged
+    public static final boolean rotateLogs = true;
+    public static final long logFileBytes = 64L * 1024 * 1024;
+    public static final double logFileSeconds = 15.0 * 60.0;
+    public static final long logBudgetBytes = 1024L * 1024 * 1024;
+    public static final long logMinFreeBytes = 100L * 1024 * 1024;
+
+    // Log every nth sample of each level in competition. Everything is logged at full rate in
+    // practice, and critical entries are always logged at full rate
+    public static final int competitionControlDecimation = 2;
+    public static final int competitionDiagnosticDecimation = 10;
+
+    // Write telemetry from a background thread instead of the main loop
+    public static final boolean asyncLogging = true;
+    public static final int asyncLoggingCapacity = 1024;
+
+    // Run the drive, odometry and path following math while disabled so the JIT compiles it
+    // before the robot is enabled. Never commands the motors.
+    public static final boolean jitWarmup = false;
+    public static final int jitWarmupIterations = 20000;
+    public static final double jitWarmupBudgetSeconds = 0.005;
+
+    // Run module control and telemetry in their own tiers next to the 20 ms command loop. The
+    // offsets keep the tiers from becoming due at the same time as the command loop or each other
+    public static final boolean multiRateLoops = false;
+    public static final double controlPeriod = 0.005;
+    public static final double controlOffset = 0.0025;
+    public static final double telemetryPeriod = 0.1;
+    public static final double telemetryOffset = 0.01;
+
     // Joystick axis deadband for the swerve drive
     public static final double swerveDeadband = 0.1;
 
@@ -25,6 +60,54 @@ public final class Constants {
     public static final double voltageComp = 12.0;
   }
 
+  /** Constants for the CAN status frame schedule */
+  public static final class CAN {
+    // Highest predicted bus utilization a robot mode may use
+    public static final double maxBusUtilization = 0.8;
+
+    // Spark Max setpoints closer than these to the last one sent are skipped, but every setpoint
+    // is resent at least once per refresh period
+    public static final double setpointRefreshSeconds = 0.1;
+    public static final double driveVelocityTolerance = 0.001; // meters per second
+    public static final double driveFeedforwardTolerance = 0.005; // volts
+    public static final double anglePositionTolerance = 0.05; // degrees
+
+    // Devices are configured concurrently at boot. Each device gets this long in total, and its
+    // settings are retried this many times if they don't read back correctly
+    public static final double configTimeoutSeconds = 5.0;
+    public static final int configRetries = 2;
+    public static final int configTimeoutMs = 100; // per CAN write or read
+
+    // Status frames each device sends in each mode: disabled, auton, teleop, test
+    public static final Schedule<Usage> driveMotorFrames =
+        new Schedule<>(Usage.kMinimal, Usage.kOdometry, Usage.kAll, Usage.kFaults);
+    public static final Schedule<Usage> angleMotorFrames =
+        new Schedule<>(Usage.kMinimal, Usage.kOdometry, Usage.kPositionOnly, Usage.kFaults);
+    public static final Schedule<Pigeon2Usage> pigeonFrames =
+        new Schedule<>(
+            Pigeon2Usage.kMinimal,
+            Pigeon2Usage.kOdometry,
+            Pigeon2Usage.kOdometry,
+            Pigeon2Usage.kFaultsOnly);
+    public static final Schedule<CANCoderUsage> cancoderFrames =
+        new Schedule<>(
+            CANCoderUsage.kMinimal,
+            CANCoderUsage.kMinimal,
+            CANCoderUsage.kMinimal,
+            CANCoderUsage.kFaultsOnly);
+  }
+
+  /** Constants for autonomous path following */
+  public static final class Auton {
+    // Proportional gains of the holonomic path following controller
+    public static final double translationKP = 1.0;
+    public static final double rotationKP = 1.0;
+
+    // Follow paths from tables resampled at the loop period instead of sampling the
+    // PathPlannerTrajectory every loop
+    public static final boolean useTrajectoryTable = true;
+  }
+
   /** Constants revolving around joysticks */
   public static final class Joysticks {
     // Xbox Controller port
@@ -35,6 +118,12 @@ public final class Constants {
     /* Gyro Constants */
     public static final int pigeonID = 6;
     public static final boolean invertGyro = false; // Always ensure Gyro is CCW+ CW-
+    // Move the yaw forward by the yaw rate times the average age of the yaw frame
+    public static final boolean gyroLatencyCompensation = true;
+
+    /* Odometry Constants */
+    public static final boolean useOdometryThread = true;
+    public static final double odometryFrequency = 250.0; // Hz
 
     /* Drivetrain Constants */
     public static final double trackWidth = Units.inchesToMeters(21.73);
@@ -48,12 +137,16 @@ public final class Constants {
     public static final double driveGearRatio = (6.75 / 1.0); // 6.75:1
     public static final double angleGearRatio = (12.8 / 1.0); // 12.8:1
 
+    public static final Translation2d[] moduleLocations =
+        new Translation2d[] {
+          new Translation2d(-wheelBase / 2.0, trackWidth / 2.0),
+          new Translation2d(-wheelBase / 2.0, -trackWidth / 2.0),
+          new Translation2d(wheelBase / 2.0, trackWidth / 2.0),
+          new Translation2d(wheelBase / 2.0, -trackWidth / 2.0)
+        };
+
     public static final SwerveDriveKinematics swerveKinematics =
-        new SwerveDriveKinematics(
-            new Translation2d(-wheelBase / 2.0, trackWidth / 2.0),
-            new Translation2d(-wheelBase / 2.0, -trackWidth / 2.0),
-            new Translation2d(wheelBase / 2.0, trackWidth / 2.0),
-            new Translation2d(wheelBase / 2.0, -trackWidth / 2.0));
+        new SwerveDriveKinematics(moduleLocations);
 
     /* Swerve Current Limiting */
     public static final int angleContinuousCurrentLimit = 20;
@@ -86,6 +179,12 @@ public final class Constants {
     public static final double maxSpeed = 4.5; // meters per second
     public static final double maxAngularVelocity = 11.5;
 
+    /* Setpoint Generator Values */
+    public static final boolean useSetpointGenerator = false;
+    public static final double maxModuleAcceleration = 12.0; // meters per second squared
+    public static final double maxSteerVelocity = 900.0; // degrees per second
+    public static final int setpointGeneratorIterations = 8;
+
     /* Neutral Modes */
     public static final IdleMode angleNeutralMode = IdleMode.kBrake;
     public static final IdleMode driveNeutralMode = IdleMode.kBrake;
@@ -140,9 +239,28 @@ public final class Constants {
   }
 
   public static final class Vision {
+    // Fuse AprilTag pose estimates from the camera into the swerve pose estimator
+    public static final boolean enabled = true;
+
     // Vision Camera Name
     public static String visionCameraName = "mmal_service_16.1";
 
+    // How often the vision thread checks for a new camera result (in Hz)
+    public static final double updateFrequency = 100.0;
+
+    // Measurements the vision thread can queue before the main loop drains them
+    public static final int queueCapacity = 16;
+
+    // Pose estimates with a higher ambiguity than this are thrown out
+    public static final double maxAmbiguity = 0.2;
+
+    // Simulated camera
+    public static final double simDiagonalFovDegrees = 70.0;
+    public static final int simResolutionWidth = 960;
+    public static final int simResolutionHeight = 720;
+    public static final double simMaxRangeMeters = 20.0;
+    public static final double simMinTargetArea = 10.0;
+
     // Target Height (in Meters)
     public static final double targetHeightMeters = 2.606;
 
@@ -0,0 +1,219 @@
+package frc3512.robot;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc3512.lib.logging.SpartanLogManager;
+import frc3512.lib.profiling.LoopProfiler;
+import frc3512.lib.trajectory.TrajectoryCache;
+import frc3512.lib.trajectory.TrajectoryTable;
+import frc3512.robot.auton.AutonPaths;
+import frc3512.robot.commands.driving.FollowTrajectoryTable;
+import frc3512.robot.commands.driving.TeleopSwerve;
+import frc3512.robot.subsystems.GyroIO;
+import frc3512.robot.subsystems.ModuleIO;
+import frc3512.robot.subsystems.Swerve;
+import frc3512.robot.subsystems.SwerveInputs;
+
+/**
+ * Runs the robot's drive, module, odometry and path following code while the robot is disabled so
+ * the JIT has compiled it before the first enabled loop. It drives a private {@link Swerve} on
+ * no-op hardware through the same methods and commands the robot uses, so the motors are never
+ * commanded and the real pose estimate is never touched.
+ */
+public class JitWarmup {
+  private static final int kNumModules = 4;
+  private static final double kDt = TimedRobot.kDefaultPeriod;
+
+  /**
+   * Module that isn't connected to anything. Its readings follow its commands, so the warm-up sees
+   * moving modules and takes the same branches as a moving robot.
+   */
+  private static class NoopModuleIO implements ModuleIO {
+    private double position = 0.0;
+    private double velocity = 0.0;
+    private double angle = 0.0;
+
+    @Override
+    public void updateInputs(SwerveInputs inputs, int index) {
+      position += velocity * kDt;
+      inputs.drivePositionMeters[index] = position;
+      inputs.driveVelocityMetersPerSecond[index] = velocity;
+      inputs.anglePositionDegrees[index] = angle;
+      inputs.cancoderDegrees[index] = angle;
+    }
+
+    @Override
+    public double getDrivePositionMeters() {
+      return position;
+    }
+
+    @Override
+    public double getAnglePositionDegrees() {
+      return angle;
+    }
+
+    @Override
+    public void setDrivePercent(double percentOutput) {
+      velocity = percentOutput * Constants.Swerve.maxSpeed;
+    }
+
+    @Override
+    public void setDriveVelocity(double velocityMetersPerSecond, double feedforwardVolts) {
+      velocity = velocityMetersPerSecond;
+    }
+
+    @Override
+    public void setAnglePosition(double angleDegrees) {
+      angle = angleDegrees;
+    }
+
+    @Override
+    public void stop() {
+      velocity = 0.0;
+    }
+  }
+
+  /** Gyro that isn't connected to anything. The warm-up sets its yaw and time every step. */
+  private static class NoopGyroIO implements GyroIO {
+    private double yawDegrees = 0.0;
+    private double timestamp = 0.0;
+
+    @Override
+    public void updateInputs(SwerveInputs inputs) {
+      inputs.gyroYawDegrees = yawDegrees;
+      inputs.gyroTimestamp = timestamp;
+    }
+
+    @Override
+    public double getYawDegrees() {
+      return yawDegrees;
+    }
+
+    @Override
+    public void setYaw(double yawDegrees) {
+      this.yawDegrees = yawDegrees;
+    }
+  }
+
+  private final int totalIterations;
+  private final double budgetSeconds;
+  private int iterations = 0;
+
+  private final NoopGyroIO gyro = new NoopGyroIO();
+  private final Swerve swerve;
+  private final TeleopSwerve teleop;
+  private final FollowTrajectoryTable follower;
+  private final PPHolonomicDriveController controller =
+      new PPHolonomicDriveController(
+          new PIDController(Constants.Auton.translationKP, 0, 0),
+          new PIDController(Constants.Auton.translationKP, 0, 0),
+          new PIDController(Constants.Auton.rotationKP, 0, 0));
+  private final PathPlannerTrajectory trajectory;
+
+  // Driver inputs read by the teleop command.
+  private double translation = 0.0;
+  private double strafe = 0.0;
+  private double rotation = 0.0;
+  private boolean robotCentric = false;
+
+  // Keeps the results alive so the JIT can't optimize the warm-up away.
+  private double sink = 0.0;
+
+  /**
+   * Creates a new JitWarmup. Must be called from the main thread, since it constructs commands.
+   *
+   * @param totalIterations Number of simulated loops to run before the warm-up is done.
+   * @param budgetSeconds Maximum time spent per call to {@link #periodic()}.
+   */
+  public JitWarmup(int totalIterations, double budgetSeconds) {
+    this.totalIterations = totalIterations;
+    this.budgetSeconds = budgetSeconds;
+
+    var modules = new ModuleIO[kNumModules];
+    for (int i = 0; i < kNumModules; i++) {
+      modules[i] = new NoopModuleIO();
+    }
+    swerve = new Swerve(gyro, modules, Swerve.Mode.kDetached);
+    teleop =
+        new TeleopSwerve(
+            swerve, () -> translation, () -> strafe, () -> rotation, () -> robotCentric);
+
+    trajectory = TrajectoryCache.getInstance().get(AutonPaths.testAuto1);
+    follower = new FollowTrajectoryTable(swerve, new TrajectoryTable(trajectory, kDt));
+    swerve.resetOdometry(trajectory.getInitialHolonomicPose());
+  }
+
+  /**
+   * Returns whether the warm-up has run all of its iterations.
+   *
+   * @return Whether the warm-up is done.
+   */
+  public boolean isDone() {
+    return iterations >= totalIterations;
+  }
+
+  /** Runs simulated loops until the time budget is used up. Call from disabledPeriodic(). */
+  public void periodic() {
+    if (isDone()) {
+      return;
+    }
+
+    long deadline = System.nanoTime() + (long) (budgetSeconds * 1e9);
+    while (iterations < totalIterations && System.nanoTime() < deadline) {
+      step(iterations++);
+    }
+
+    if (isDone()) {
+      // The warm-up drivetrain shares the robot drivetrain's profiler sections.
+      LoopProfiler.reset();
+      SpartanLogManager.logMessage(
+          "JIT warm-up finished after " + iterations + " iterations (" + sink + ")");
+    }
+  }
+
+  private void step(int i) {
+    // Sweep through inputs so every branch gets taken: field and robot relative, stopped and
+    // moving, and module flips.
+    double t = (i % 500) * kDt;
+    translation = Math.sin(t);
+    strafe = Math.cos(t * 0.7);
+    rotation = (i % 7 == 0) ? 0.0 : Math.sin(t * 1.3);
+    if (i % 11 == 0) {
+      translation = 0.0;
+      strafe = 0.0;
+      rotation = 0.0;
+    }
+    robotCentric = i % 2 == 0;
+    gyro.yawDegrees = t * 36.0;
+    gyro.timestamp = i * kDt;
+
+    // Swerve.periodic(): sensor snapshot, odometry and tunables
+    swerve.periodic();
+
+    // TeleopSwerve.execute() -> Swerve.drive() -> SwerveModule.setDesiredState()
+    teleop.execute();
+
+    if (Constants.Auton.useTrajectoryTable) {
+      // FollowTrajectoryTable.execute() -> Swerve.setChassisSpeeds()
+      if (i % 100 == 0) {
+        follower.initialize();
+      }
+      follower.execute();
+    } else {
+      // PPSwerveControllerCommand.execute() -> Swerve.setModuleStates(). The command itself also
+      // publishes its target to the dashboard, so only its controller runs here.
+      var state = (PathPlannerState) trajectory.sample(t % trajectory.getTotalTimeSeconds());
+      ChassisSpeeds targetSpeeds = controller.calculate(swerve.getPose(), state);
+      SwerveModuleState[] targetStates =
+          Constants.Swerve.swerveKinematics.toSwerveModuleStates(targetSpeeds);
+      swerve.setModuleStates(targetStates);
+    }
+
+    sink += swerve.getPose().getX() + swerve.getStates()[0].speedMetersPerSecond;
+  }
+}
@@ -5,14 +5,73 @@ import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.livewindow.LiveWindow;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc3512.lib.logging.LogLevel;
+import frc3512.lib.logging.SpartanDoubleEntry;
 import frc3512.lib.logging.SpartanLogManager;
+import frc3512.lib.motion.SpartanSparkMax;
+import frc3512.lib.profiling.LatencyHistogram;
+import frc3512.lib.profiling.LoopProfiler;
+import frc3512.lib.util.CANFrameManager;
+import frc3512.lib.util.MultiRateScheduler;
 
 public class Robot extends TimedRobot {
   private Command m_autonomousCommand;
   private RobotContainer m_robotContainer;
 
+  private final LatencyHistogram m_schedulerTime =
+      LoopProfiler.register("CommandScheduler", kDefaultPeriod);
+  private final LatencyHistogram m_loopTime = LoopProfiler.register("Robot Loop", kDefaultPeriod);
+  // Loops normally start one period apart, so only count an overrun once a loop starts late by
+  // more than half a period.
+  private final LatencyHistogram m_loopInterval =
+      LoopProfiler.register("Robot Loop Interval", kDefaultPeriod * 1.5);
+  private long m_loopStart = 0;
+
+  // Latency of the first loops after enabling, to compare runs with and without JIT warm-up.
+  private static final int kFirstEnabledLoops = 50;
+  private JitWarmup m_warmup;
+  private boolean m_wasEnabled = false;
+  private int m_enabledLoops = 0;
+  private double m_firstEnabledLoop = 0.0;
+  private double m_firstEnabledLoopsMax = 0.0;
+  private final SpartanDoubleEntry m_firstEnabledLoopEntry =
+      new SpartanDoubleEntry("/Diagnostics/Warmup/First Enabled Loop", 0.0, true);
+  private final SpartanDoubleEntry m_firstEnabledLoopsMaxEntry =
+      new SpartanDoubleEntry("/Diagnostics/Warmup/First Enabled Loops Max", 0.0, true);
+
+  // Spark Max setpoints sent and skipped because they were unchanged.
+  private final SpartanDoubleEntry m_sentFramesEntry =
+      new SpartanDoubleEntry("/Diagnostics/CAN/Sent Setpoints", 0.0, true);
+  private final SpartanDoubleEntry m_suppressedFramesEntry =
+      new SpartanDoubleEntry("/Diagnostics/CAN/Suppressed Setpoints", 0.0, true);
+  private boolean m_hasTelemetryTier = false;
+
   @Override
   public void robotInit() {
+    // Enable logging before anything is logged, so every entry goes to the same log.
+    SpartanLogManager.setCompetitionMode(Constants.General.competitionMode);
+    SpartanLogManager.setDecimation(
+        LogLevel.kControl, 1, Constants.General.competitionControlDecimation);
+    SpartanLogManager.setDecimation(
+        LogLevel.kDiagnostic, 1, Constants.General.competitionDiagnosticDecimation);
+    if (Constants.General.rotateLogs) {
+      SpartanLogManager.startLogging(
+          Constants.General.logFileBytes,
+          Constants.General.logFileSeconds,
+          Constants.General.logBudgetBytes,
+          Constants.General.logMinFreeBytes);
+    } else {
+      SpartanLogManager.startLogging();
+    }
+    if (Constants.General.asyncLogging) {
+      SpartanLogManager.enableAsyncLogging(Constants.General.asyncLoggingCapacity);
+    }
+
+    // Devices register with the CAN frame manager as they are constructed.
+    CANFrameManager.setMaxUtilization(Constants.CAN.maxBusUtilization);
+    CANFrameManager.setControlPeriod(
+        Constants.General.multiRateLoops ? Constants.General.controlPeriod : getPeriod());
+
     // Instantiate our RobotContainer.  This will perform all our button bindings, and put our
     // autonomous chooser on the dashboard.
     m_robotContainer = new RobotContainer();
@@ -21,28 +80,105 @@ public class Robot extends TimedRobot {
     DriverStation.silenceJoystickConnectionWarning(true);
     LiveWindow.disableAllTelemetry();
 
-    // Enable logging
-    SpartanLogManager.setCompetitionMode(Constants.General.competitionMode);
-    SpartanLogManager.startLogging();
+    if (Constants.General.multiRateLoops) {
+      var scheduler = new MultiRateScheduler(this);
+      var control =
+          scheduler.addTier(
+              "Control", Constants.General.controlPeriod, Constants.General.controlOffset);
+      var telemetry =
+          scheduler.addTier(
+              "Telemetry", Constants.General.telemetryPeriod, Constants.General.telemetryOffset);
+      m_robotContainer.configureTiers(control, telemetry);
+      telemetry.add(this::publishTelemetry);
+      m_hasTelemetryTier = true;
+    }
+
+    if (Constants.General.jitWarmup) {
+      m_warmup =
+          new JitWarmup(
+              Constants.General.jitWarmupIterations, Constants.General.jitWarmupBudgetSeconds);
+    }
   }
 
   @Override
   public void robotPeriodic() {
+    // Time from the start of one loop to the start of the next.
+    long loopStart = System.nanoTime();
+    if (m_loopStart != 0) {
+      m_loopInterval.record(loopStart - m_loopStart);
+    }
+    m_loopStart = loopStart;
+
     // Runs the Scheduler.  This is responsible for polling buttons, adding newly-scheduled
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods.  This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
     CommandScheduler.getInstance().run();
+    long schedulerNanos = System.nanoTime() - loopStart;
+    m_schedulerTime.record(schedulerNanos);
+    recordFirstEnabledLoops(schedulerNanos);
+
+    if (!m_hasTelemetryTier) {
+      publishTelemetry();
+    }
+    // Time spent working in this loop, which has to fit in the period.
+    m_loopTime.recordSince(loopStart);
+    LoopProfiler.periodic();
+  }
+
+  private void publishTelemetry() {
+    m_sentFramesEntry.set(SpartanSparkMax.getTotalSentFrames());
+    m_suppressedFramesEntry.set(SpartanSparkMax.getTotalSuppressedFrames());
+    SpartanLogManager.publishStats();
+  }
+
+  /** Reports how long the first loops after enabling took. */
+  private void recordFirstEnabledLoops(long nanos) {
+    boolean enabled = DriverStation.isEnabled();
+    if (enabled && !m_wasEnabled) {
+      m_enabledLoops = 0;
+      m_firstEnabledLoopsMax = 0.0;
+    }
+    m_wasEnabled = enabled;
+    if (!enabled || m_enabledLoops >= kFirstEnabledLoops) {
+      return;
+    }
+
+    double millis = nanos * 1e-6;
+    if (m_enabledLoops == 0) {
+      m_firstEnabledLoop = millis;
+      m_firstEnabledLoopEntry.set(millis);
+    }
+    m_firstEnabledLoopsMax = Math.max(m_firstEnabledLoopsMax, millis);
+    if (++m_enabledLoops == kFirstEnabledLoops) {
+      m_firstEnabledLoopsMaxEntry.set(m_firstEnabledLoopsMax);
+      SpartanLogManager.logMessage(
+          String.format(
+              "First enabled loop: %.3f ms, worst of first %d: %.3f ms (JIT warm-up %s)",
+              m_firstEnabledLoop,
+              kFirstEnabledLoops,
+              m_firstEnabledLoopsMax,
+              m_warmup != null ? "on" : "off"));
+    }
   }
 
   @Override
-  public void disabledInit() {}
+  public void disabledInit() {
+    CANFrameManager.setMode(CANFrameManager.Mode.kDisabled);
+    LoopProfiler.dump();
+  }
 
   @Override
-  public void disabledPeriodic() {}
+  public void disabledPeriodic() {
+    m_robotContainer.prepareAutonomousCommand();
+    if (m_warmup != null) {
+      m_warmup.periodic();
+    }
+  }
 
   @Override
   public void autonomousInit() {
+    CANFrameManager.setMode(CANFrameManager.Mode.kAutonomous);
     m_autonomousCommand = m_robotContainer.getAutonomousCommand();
 
     // schedule the autonomous command (example)
@@ -56,6 +192,7 @@ public class Robot extends TimedRobot {
 
   @Override
   public void teleopInit() {
+    CANFrameManager.setMode(CANFrameManager.Mode.kTeleop);
 
     // This makes sure that the autonomous stops running when
     // teleop starts running. If you want the autonomous to
@@ -71,6 +208,7 @@ public class Robot extends TimedRobot {
 
   @Override
   public void testInit() {
+    CANFrameManager.setMode(CANFrameManager.Mode.kTest);
     // Cancels all running commands at the start of test mode.
     CommandScheduler.getInstance().cancelAll();
   }
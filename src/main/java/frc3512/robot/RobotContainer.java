@@ -1,15 +1,18 @@
 package frc3512.robot;
 
 import edu.wpi.first.wpilibj.Joystick;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.XboxController;
-import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.button.JoystickButton;
+import frc3512.lib.profiling.ProfiledCommand;
+import frc3512.lib.util.AutonRegistry;
+import frc3512.lib.util.MultiRateScheduler;
 import frc3512.robot.auton.TestAuto;
 import frc3512.robot.commands.driving.TeleopSwerve;
 import frc3512.robot.subsystems.Swerve;
+import frc3512.robot.subsystems.Vision;
 
 /**
  * This class is where the bulk of the robot should be declared. Since Command-based is a
@@ -19,10 +22,11 @@ import frc3512.robot.subsystems.Swerve;
  */
 public class RobotContainer {
   // Auton Chooser
-  private final SendableChooser<Command> m_autonChooser = new SendableChooser<Command>();
+  private final AutonRegistry m_autonRegistry = new AutonRegistry();
 
   // Robot subsystems
   private Swerve m_swerve = new Swerve();
+  private Vision m_vision;
 
   // Xbox controllers
   private final Joystick driver = new Joystick(Constants.Joysticks.xboxControllerPort);
@@ -40,11 +44,31 @@ public class RobotContainer {
 
   /** The container for the robot. Contains subsystems, OI devices, and commands. */
   public RobotContainer() {
+    configureVision();
     configureButtonBindings();
     configureAxisActions();
     registerAutons();
   }
 
+  /** Feeds the vision pose estimates into the swerve pose estimator. */
+  private void configureVision() {
+    if (!Constants.Vision.enabled) {
+      return;
+    }
+    m_vision = new Vision(m_swerve::getSimulatedPose);
+    m_swerve.setVisionQueue(m_vision.getQueue());
+  }
+
+  /**
+   * Moves the drivetrain's module control and telemetry into their own tiers.
+   *
+   * @param control Tier for module control
+   * @param telemetry Tier for telemetry
+   */
+  public void configureTiers(MultiRateScheduler.Tier control, MultiRateScheduler.Tier telemetry) {
+    m_swerve.useTiers(control, telemetry);
+  }
+
   /** Used for defining button actions. */
   private void configureButtonBindings() {
 
@@ -55,22 +79,31 @@ public class RobotContainer {
   /** Used for joystick/xbox axis actions. */
   private void configureAxisActions() {
     m_swerve.setDefaultCommand(
-        new TeleopSwerve(
-            m_swerve,
-            () -> -driver.getRawAxis(translationAxis),
-            () -> -driver.getRawAxis(strafeAxis),
-            () -> -driver.getRawAxis(rotationAxis),
-            () -> robotCentric.getAsBoolean()));
+        new ProfiledCommand(
+            new TeleopSwerve(
+                m_swerve,
+                () -> -driver.getRawAxis(translationAxis),
+                () -> -driver.getRawAxis(strafeAxis),
+                () -> -driver.getRawAxis(rotationAxis),
+                () -> robotCentric.getAsBoolean()),
+            "TeleopSwerve",
+            TimedRobot.kDefaultPeriod));
   }
 
   /** Register the autonomous modes to the chooser for the drivers to select. */
   public void registerAutons() {
-    // Register autons.
-    m_autonChooser.setDefaultOption("No-op", new InstantCommand());
-    m_autonChooser.addOption("TestAuton", new TestAuto(m_swerve));
+    // Register autons. Only the selected auton gets built.
+    m_autonRegistry.setDefaultOption("No-op", InstantCommand::new);
+    m_autonRegistry.addOption(
+        "TestAuton", TestAuto::preparePaths, paths -> new TestAuto(m_swerve, paths));
 
     // Push the chooser to the dashboard.
-    SmartDashboard.putData("Auton Chooser", m_autonChooser);
+    m_autonRegistry.publish("Auton Chooser");
+  }
+
+  /** Prepares the selected auton in the background and builds it. Call while disabled. */
+  public void prepareAutonomousCommand() {
+    m_autonRegistry.periodic();
   }
 
   /**
@@ -79,7 +112,7 @@ public class RobotContainer {
    * @return the command to run in autonomous
    */
   public Command getAutonomousCommand() {
-    // Get the selected auton from the chooser.
-    return m_autonChooser.getSelected();
+    // Get the selected auton from the registry.
+    return m_autonRegistry.getSelected();
   }
 }
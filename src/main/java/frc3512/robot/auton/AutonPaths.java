@@ -0,0 +1,29 @@
+package frc3512.robot.auton;
+
+import frc3512.lib.trajectory.PathDefinition;
+import java.util.List;
+
+/** Every path used by the autons. Each path is pregenerated into the trajectory cache. */
+public final class AutonPaths {
+  private AutonPaths() {}
+
+  public static final PathDefinition testAuto1 =
+      new PathDefinition("TestAuto 1", 1.0, 4.0, false)
+          .addPoint(1.72, 1.94, 0.0, 0.0)
+          .addPoint(3.42, 3.42, 90.0, -90.0);
+
+  public static final PathDefinition testAuto2 =
+      new PathDefinition("TestAuto 2", 1.0, 4.0, true)
+          .addPoint(1.72, 1.94, 0.0, 0.0)
+          .addPoint(4.55, 1.47, -90.0, 88.78)
+          .addPoint(6.02, 3.46, -1.71, 0.0);
+
+  /**
+   * Returns every registered path.
+   *
+   * @return All path definitions.
+   */
+  public static List<PathDefinition> all() {
+    return List.of(testAuto1, testAuto2);
+  }
+}
@@ -1,74 +1,103 @@
 package frc3512.robot.auton;
 
-import com.pathplanner.lib.PathConstraints;
-import com.pathplanner.lib.PathPlanner;
 import com.pathplanner.lib.PathPlannerTrajectory;
-import com.pathplanner.lib.PathPoint;
 import com.pathplanner.lib.commands.PPSwerveControllerCommand;
 import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import frc3512.lib.profiling.ProfiledCommand;
+import frc3512.lib.trajectory.TrajectoryCache;
+import frc3512.lib.trajectory.TrajectoryTable;
 import frc3512.robot.Constants;
+import frc3512.robot.commands.driving.FollowTrajectoryTable;
 import frc3512.robot.subsystems.Swerve;
 
 public class TestAuto extends SequentialCommandGroup {
-  public TestAuto(Swerve swerve) {
-    PathConstraints constraints = new PathConstraints(1.0, 4.0);
-    PathPlannerTrajectory trajectory1 =
-        PathPlanner.generatePath(
-            constraints,
-            new PathPoint(
-                new Translation2d(1.72, 1.94),
-                Rotation2d.fromDegrees(0.0),
-                Rotation2d.fromDegrees(0.0)),
-            new PathPoint(
-                new Translation2d(3.42, 3.42),
-                Rotation2d.fromDegrees(90.0),
-                Rotation2d.fromDegrees(-90.0)));
-    PathPlannerTrajectory trajectory2 =
-        PathPlanner.generatePath(
-            constraints,
-            true,
-            new PathPoint(
-                new Translation2d(1.72, 1.94),
-                Rotation2d.fromDegrees(0.0),
-                Rotation2d.fromDegrees(0.0)),
-            new PathPoint(
-                new Translation2d(4.55, 1.47),
-                Rotation2d.fromDegrees(-90.0),
-                Rotation2d.fromDegrees(88.78)),
-            new PathPoint(
-                new Translation2d(6.02, 3.46),
-                Rotation2d.fromDegrees(-1.71),
-                Rotation2d.fromDegrees(0.0)));
+  /**
+   * The trajectories of the auton and their tables. Loading them doesn't touch the command
+   * scheduler, so unlike the commands themselves they can be prepared on a background thread.
+   */
+  public static class Paths {
+    private final PathPlannerTrajectory[] trajectories;
+    private final TrajectoryTable[] tables;
+
+    private Paths(PathPlannerTrajectory[] trajectories) {
+      this.trajectories = trajectories;
+      tables = new TrajectoryTable[trajectories.length];
+      if (Constants.Auton.useTrajectoryTable) {
+        for (int i = 0; i < trajectories.length; i++) {
+          tables[i] = new TrajectoryTable(trajectories[i], TimedRobot.kDefaultPeriod);
+        }
+      }
+    }
+  }
 
-    PPSwerveControllerCommand swerveControllerCommand =
-        new PPSwerveControllerCommand(
-            trajectory1,
-            swerve::getPose,
-            Constants.Swerve.swerveKinematics,
-            new PIDController(1.0, 0, 0),
-            new PIDController(1.0, 0, 0),
-            new PIDController(1.0, 0, 0),
-            swerve::setModuleStates,
-            swerve);
+  public TestAuto(Swerve swerve) {
+    this(swerve, preparePaths());
+  }
 
-    PPSwerveControllerCommand swerveControllerCommand2 =
-        new PPSwerveControllerCommand(
-            trajectory2,
-            swerve::getPose,
-            Constants.Swerve.swerveKinematics,
-            new PIDController(1.0, 0, 0),
-            new PIDController(1.0, 0, 0),
-            new PIDController(1.0, 0, 0),
-            swerve::setModuleStates,
-            swerve);
+  /**
+   * Builds the auton from paths prepared ahead of time. Must be called from the main thread.
+   *
+   * @param swerve The drivetrain
+   * @param paths Paths from {@link #preparePaths()}
+   */
+  public TestAuto(Swerve swerve, Paths paths) {
+    PathPlannerTrajectory trajectory1 = paths.trajectories[0];
 
     addCommands(
         new InstantCommand(() -> swerve.resetOdometry(trajectory1.getInitialHolonomicPose())),
-        swerveControllerCommand,
-        swerveControllerCommand2);
+        new ProfiledCommand(
+            followPath(swerve, paths, 0), "TestAuto/Path 1", TimedRobot.kDefaultPeriod),
+        new ProfiledCommand(
+            followPath(swerve, paths, 1), "TestAuto/Path 2", TimedRobot.kDefaultPeriod));
+  }
+
+  /**
+   * Loads the trajectories of the auton and resamples them into tables. Safe to call from any
+   * thread.
+   *
+   * @return The prepared paths.
+   */
+  public static Paths preparePaths() {
+    return new Paths(generateTrajectories());
+  }
+
+  /**
+   * Returns a command that follows one of the paths.
+   *
+   * @param swerve The drivetrain
+   * @param paths Prepared paths
+   * @param index Index of the path to follow
+   * @return The path following command.
+   */
+  private static Command followPath(Swerve swerve, Paths paths, int index) {
+    if (Constants.Auton.useTrajectoryTable) {
+      return new FollowTrajectoryTable(swerve, paths.tables[index]);
+    }
+    PathPlannerTrajectory trajectory = paths.trajectories[index];
+    return new PPSwerveControllerCommand(
+        trajectory,
+        swerve::getPose,
+        Constants.Swerve.swerveKinematics,
+        new PIDController(Constants.Auton.translationKP, 0, 0),
+        new PIDController(Constants.Auton.translationKP, 0, 0),
+        new PIDController(Constants.Auton.rotationKP, 0, 0),
+        swerve::setModuleStates,
+        swerve);
+  }
+
+  /**
+   * Returns the trajectories followed by this auton, from the trajectory cache when possible.
+   *
+   * @return The trajectories, in the order they are followed.
+   */
+  public static PathPlannerTrajectory[] generateTrajectories() {
+    var cache = TrajectoryCache.getInstance();
+    return new PathPlannerTrajectory[] {
+      cache.get(AutonPaths.testAuto1), cache.get(AutonPaths.testAuto2)
+    };
   }
 }
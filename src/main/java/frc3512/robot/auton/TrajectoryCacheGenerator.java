@@ -0,0 +1,19 @@
+package frc3512.robot.auton;
+
+import frc3512.lib.trajectory.TrajectoryCache;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/** Build step that pregenerates every auton path into the trajectory cache. */
+public final class TrajectoryCacheGenerator {
+  private TrajectoryCacheGenerator() {}
+
+  public static void main(String... args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: TrajectoryCacheGenerator <output file>");
+    }
+    var output = Path.of(args[0]);
+    TrajectoryCache.write(output, AutonPaths.all());
+    System.out.println("Wrote " + AutonPaths.all().size() + " trajectories to " + output);
+  }
+}
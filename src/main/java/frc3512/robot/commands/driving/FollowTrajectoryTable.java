@@ -0,0 +1,142 @@
+package frc3512.robot.commands.driving;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc3512.lib.trajectory.TrajectoryTable;
+import frc3512.robot.Constants;
+import frc3512.robot.subsystems.Swerve;
+
+/**
+ * Follows a {@link TrajectoryTable} with the same feedforward plus proportional feedback as
+ * PPSwerveControllerCommand, without allocating anything while it runs.
+ */
+public class FollowTrajectoryTable extends CommandBase {
+  /** Receives the tracking error of every loop, like PPSwerveControllerCommand's callbacks. */
+  @FunctionalInterface
+  public interface ErrorCallback {
+    /**
+     * Called with the tracking error of one loop.
+     *
+     * @param translationErrorMeters Distance from the sampled pose
+     * @param rotationErrorDegrees Heading error
+     */
+    void accept(double translationErrorMeters, double rotationErrorDegrees);
+  }
+
+  private static ErrorCallback errorCallback = null;
+
+  private final Swerve swerve;
+  private final TrajectoryTable table;
+  private final Timer timer = new Timer();
+  private final TrajectoryTable.Sample sample = new TrajectoryTable.Sample();
+  private final double[] speeds = new double[3];
+
+  /**
+   * Creates a new FollowTrajectoryTable.
+   *
+   * @param swerve The drivetrain
+   * @param table Trajectory to follow
+   */
+  public FollowTrajectoryTable(Swerve swerve, TrajectoryTable table) {
+    this.swerve = swerve;
+    this.table = table;
+    addRequirements(swerve);
+  }
+
+  /**
+   * Sets the callback that receives the tracking error of every path follower.
+   *
+   * @param callback The callback, or null to stop reporting errors
+   */
+  public static void setErrorCallback(ErrorCallback callback) {
+    errorCallback = callback;
+  }
+
+  /**
+   * Computes the robot relative chassis speeds that move the robot from its pose onto a sample.
+   *
+   * @param sample Sample of the trajectory
+   * @param pose Current pose of the robot
+   * @param out Output of [vx, vy, omega] in meters and radians per second
+   */
+  public static void calculate(TrajectoryTable.Sample sample, Pose2d pose, double[] out) {
+    calculate(sample, pose, Constants.Auton.translationKP, Constants.Auton.rotationKP, out);
+  }
+
+  /**
+   * Computes the robot relative chassis speeds that move the robot from its pose onto a sample.
+   *
+   * @param sample Sample of the trajectory
+   * @param pose Current pose of the robot
+   * @param translationKP Proportional gain of the translation error
+   * @param rotationKP Proportional gain of the heading error
+   * @param out Output of [vx, vy, omega] in meters and radians per second
+   */
+  public static void calculate(
+      TrajectoryTable.Sample sample,
+      Pose2d pose,
+      double translationKP,
+      double rotationKP,
+      double[] out) {
+    double theta = pose.getRotation().getRadians();
+    double vx = sample.vxMetersPerSecond + translationKP * (sample.xMeters - pose.getX());
+    double vy = sample.vyMetersPerSecond + translationKP * (sample.yMeters - pose.getY());
+    double rotationError = MathUtil.angleModulus(sample.holonomicRotationRadians - theta);
+    double omega = sample.omegaRadiansPerSecond + rotationKP * rotationError;
+
+    // Same as ChassisSpeeds.fromFieldRelativeSpeeds() with the robot's pose.
+    double cos = Math.cos(theta);
+    double sin = Math.sin(theta);
+    out[0] = vx * cos + vy * sin;
+    out[1] = -vx * sin + vy * cos;
+    out[2] = omega;
+  }
+
+  @Override
+  public void initialize() {
+    timer.reset();
+    timer.start();
+  }
+
+  @Override
+  public void execute() {
+    table.sample(timer.get(), sample);
+    Pose2d pose = swerve.getPose();
+    calculate(sample, pose, speeds);
+    swerve.setChassisSpeeds(speeds[0], speeds[1], speeds[2]);
+
+    if (errorCallback != null) {
+      errorCallback.accept(
+          Math.hypot(sample.xMeters - pose.getX(), sample.yMeters - pose.getY()),
+          Math.toDegrees(
+              MathUtil.angleModulus(
+                  sample.holonomicRotationRadians - pose.getRotation().getRadians())));
+    }
+  }
+
+  @Override
+  public void end(boolean interrupted) {
+    timer.stop();
+    if (interrupted || endsAtRest(table)) {
+      swerve.setChassisSpeeds(0.0, 0.0, 0.0);
+    }
+  }
+
+  /**
+   * Returns whether the robot should be stopped after following a trajectory. Otherwise it keeps
+   * moving into the next path.
+   *
+   * @param table The trajectory
+   * @return Whether the trajectory ends at rest.
+   */
+  public static boolean endsAtRest(TrajectoryTable table) {
+    return Math.abs(table.getVelocity(table.getLength() - 1)) < 0.1;
+  }
+
+  @Override
+  public boolean isFinished() {
+    return timer.hasElapsed(table.getTotalTimeSeconds());
+  }
+}
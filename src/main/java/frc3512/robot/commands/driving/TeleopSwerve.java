@@ -2,7 +2,6 @@ package frc3512.robot.commands.driving;
 
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.filter.SlewRateLimiter;
-import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc3512.robot.Constants;
 import frc3512.robot.subsystems.Swerve;
@@ -50,7 +49,8 @@ public class TeleopSwerve extends CommandBase {
 
     /* Drive */
     s_Swerve.drive(
-        new Translation2d(translationVal, strafeVal).times(Constants.Swerve.maxSpeed),
+        translationVal * Constants.Swerve.maxSpeed,
+        strafeVal * Constants.Swerve.maxSpeed,
         rotationVal * Constants.Swerve.maxAngularVelocity,
         !robotCentricSup.getAsBoolean(),
         true);
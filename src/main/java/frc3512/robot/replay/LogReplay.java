@@ -0,0 +1,189 @@
+package frc3512.robot.replay;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import frc3512.robot.subsystems.Swerve;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays a recorded .wpilog through the Swerve subsystem's pose estimator and module logic without
+ * any hardware, as fast as the log can be read, and writes the recomputed pose next to the recorded
+ * one. Lets estimator and filtering changes be compared on match data.
+ *
+ * <p>Each record of the module positions entry is one frame. The readings from the last yaw and
+ * module state records before it are fed to Swerve through {@link ReplayGyroIO} and {@link
+ * ReplayModuleIO}, and then periodic() runs. The log is memory mapped by DataLogReader, so it is
+ * never loaded onto the heap. When the recorded pose jumps, the robot's odometry was reset, so the
+ * replay resets to the recorded pose as well.
+ *
+ * <p>Logs recorded with the odometry thread were estimated from faster samples than the log holds,
+ * so small differences are expected for those.
+ */
+public final class LogReplay {
+  private static final int kNumModules = 4;
+  private static final String kYawEntry = "/Diagnostics/Swerve/Gyro/Yaw";
+  private static final String kStatesEntry = "/Diagnostics/Swerve/States";
+  private static final String kPositionsEntry = "/Diagnostics/Swerve/Positions";
+  private static final String kPoseEntry = "/Diagnostics/Swerve/Odometry";
+
+  // A recorded pose moving further than this in one loop means odometry was reset.
+  private static final double kResetThresholdMeters = 0.5;
+
+  private final ReplayGyroIO gyro = new ReplayGyroIO();
+  private final ReplayModuleIO[] modules = new ReplayModuleIO[kNumModules];
+  private final Swerve swerve;
+
+  private final double[] velocities = new double[kNumModules];
+  private double yawDegrees = 0.0;
+  private Pose2d recordedPose = null;
+  private Pose2d lastRecordedPose = null;
+
+  private int frames = 0;
+  private int resets = 0;
+  private double sumSquaredError = 0.0;
+  private double maxError = 0.0;
+
+  private LogReplay() {
+    for (int i = 0; i < kNumModules; i++) {
+      modules[i] = new ReplayModuleIO();
+    }
+    swerve = new Swerve(gyro, modules, Swerve.Mode.kStepped);
+  }
+
+  public static void main(String... args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("Usage: LogReplay <input.wpilog> <output.csv>");
+    }
+    if (!HAL.initialize(500, 0)) {
+      throw new IllegalStateException("Failed to initialize the HAL");
+    }
+
+    long start = System.nanoTime();
+    var replay = new LogReplay();
+    replay.run(new DataLogReader(args[0]), Path.of(args[1]));
+    double seconds = (System.nanoTime() - start) * 1e-9;
+
+    System.out.printf(
+        "Replayed %d frames in %.2f s (%d odometry resets). Pose difference: rms %.4f m, max %.4f"
+            + " m%n",
+        replay.frames,
+        seconds,
+        replay.resets,
+        Math.sqrt(replay.sumSquaredError / Math.max(1, replay.frames)),
+        replay.maxError);
+
+    // Threads started by WPILib keep the JVM alive.
+    System.exit(0);
+  }
+
+  private void run(DataLogReader reader, Path output) throws IOException {
+    if (!reader.isValid()) {
+      throw new IOException("Not a valid .wpilog file");
+    }
+
+    int yawId = -1;
+    int statesId = -1;
+    int positionsId = -1;
+    int poseId = -1;
+
+    if (output.getParent() != null) {
+      Files.createDirectories(output.getParent());
+    }
+    try (var writer = new PrintWriter(Files.newBufferedWriter(output))) {
+      writer.println(
+          "timestamp,recorded x,recorded y,recorded degrees,replayed x,replayed y,replayed degrees,"
+              + "translation error,heading error");
+
+      for (DataLogRecord record : reader) {
+        if (record.isStart()) {
+          var data = record.getStartData();
+          switch (data.name) {
+            case kYawEntry:
+              yawId = data.entry;
+              break;
+            case kStatesEntry:
+              statesId = data.entry;
+              break;
+            case kPositionsEntry:
+              positionsId = data.entry;
+              break;
+            case kPoseEntry:
+              poseId = data.entry;
+              break;
+            default:
+              break;
+          }
+          continue;
+        } else if (record.isControl()) {
+          continue;
+        }
+
+        int entry = record.getEntry();
+        if (entry == yawId) {
+          yawDegrees = record.getDouble();
+        } else if (entry == statesId) {
+          double[] states = record.getDoubleArray();
+          for (int i = 0; i < kNumModules && i * 2 < states.length; i++) {
+            velocities[i] = states[i * 2];
+          }
+        } else if (entry == poseId) {
+          double[] pose = record.getDoubleArray();
+          if (pose.length == 3) {
+            recordedPose = new Pose2d(pose[0], pose[1], Rotation2d.fromDegrees(pose[2]));
+          }
+        } else if (entry == positionsId) {
+          double[] positions = record.getDoubleArray();
+          if (positions.length == kNumModules * 2) {
+            replayFrame(record.getTimestamp() * 1e-6, positions, writer);
+          }
+        }
+      }
+    }
+  }
+
+  private void replayFrame(double timestamp, double[] positions, PrintWriter writer) {
+    gyro.setFrame(timestamp, yawDegrees);
+    for (int i = 0; i < kNumModules; i++) {
+      modules[i].setFrame(timestamp, positions[i * 2], velocities[i], positions[i * 2 + 1]);
+    }
+
+    if (recordedPose != null
+        && (lastRecordedPose == null
+            || recordedPose.getTranslation().getDistance(lastRecordedPose.getTranslation())
+                > kResetThresholdMeters)) {
+      swerve.resetOdometry(recordedPose);
+      resets++;
+    }
+    lastRecordedPose = recordedPose;
+
+    swerve.periodic();
+    if (recordedPose == null) {
+      return;
+    }
+
+    Pose2d replayed = swerve.getPose();
+    double error = replayed.getTranslation().getDistance(recordedPose.getTranslation());
+    double headingError = replayed.getRotation().minus(recordedPose.getRotation()).getDegrees();
+    sumSquaredError += error * error;
+    maxError = Math.max(maxError, error);
+    frames++;
+
+    writer.printf(
+        "%.6f,%.6f,%.6f,%.4f,%.6f,%.6f,%.4f,%.6f,%.4f%n",
+        timestamp,
+        recordedPose.getX(),
+        recordedPose.getY(),
+        recordedPose.getRotation().getDegrees(),
+        replayed.getX(),
+        replayed.getY(),
+        replayed.getRotation().getDegrees(),
+        error,
+        headingError);
+  }
+}
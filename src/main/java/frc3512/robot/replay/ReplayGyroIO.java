@@ -0,0 +1,37 @@
+package frc3512.robot.replay;
+
+import frc3512.robot.subsystems.GyroIO;
+import frc3512.robot.subsystems.SwerveInputs;
+
+/** Gyro that plays back recorded readings. */
+public class ReplayGyroIO implements GyroIO {
+  private double yawDegrees = 0.0;
+  private double timestamp = 0.0;
+
+  /**
+   * Sets the reading returned until the next frame.
+   *
+   * @param timestamp Time of the reading in seconds
+   * @param yawDegrees Recorded yaw
+   */
+  public void setFrame(double timestamp, double yawDegrees) {
+    this.timestamp = timestamp;
+    this.yawDegrees = yawDegrees;
+  }
+
+  @Override
+  public void updateInputs(SwerveInputs inputs) {
+    inputs.gyroYawDegrees = yawDegrees;
+    inputs.gyroTimestamp = timestamp;
+  }
+
+  @Override
+  public double getYawDegrees() {
+    return yawDegrees;
+  }
+
+  @Override
+  public void setYaw(double yawDegrees) {
+    // The recorded readings already include any resets.
+  }
+}
@@ -0,0 +1,62 @@
+package frc3512.robot.replay;
+
+import frc3512.robot.subsystems.ModuleIO;
+import frc3512.robot.subsystems.SwerveInputs;
+
+/** Swerve module that plays back recorded readings and ignores every output. */
+public class ReplayModuleIO implements ModuleIO {
+  private double timestamp = 0.0;
+  private double drivePositionMeters = 0.0;
+  private double driveVelocityMetersPerSecond = 0.0;
+  private double anglePositionDegrees = 0.0;
+
+  /**
+   * Sets the readings returned until the next frame.
+   *
+   * @param timestamp Time of the readings in seconds
+   * @param drivePositionMeters Recorded drive distance
+   * @param driveVelocityMetersPerSecond Recorded drive velocity
+   * @param anglePositionDegrees Recorded module angle
+   */
+  public void setFrame(
+      double timestamp,
+      double drivePositionMeters,
+      double driveVelocityMetersPerSecond,
+      double anglePositionDegrees) {
+    this.timestamp = timestamp;
+    this.drivePositionMeters = drivePositionMeters;
+    this.driveVelocityMetersPerSecond = driveVelocityMetersPerSecond;
+    this.anglePositionDegrees = anglePositionDegrees;
+  }
+
+  @Override
+  public void updateInputs(SwerveInputs inputs, int index) {
+    inputs.drivePositionMeters[index] = drivePositionMeters;
+    inputs.driveVelocityMetersPerSecond[index] = driveVelocityMetersPerSecond;
+    inputs.anglePositionDegrees[index] = anglePositionDegrees;
+    inputs.cancoderDegrees[index] = anglePositionDegrees;
+    inputs.moduleTimestamps[index] = timestamp;
+  }
+
+  @Override
+  public double getDrivePositionMeters() {
+    return drivePositionMeters;
+  }
+
+  @Override
+  public double getAnglePositionDegrees() {
+    return anglePositionDegrees;
+  }
+
+  @Override
+  public void setDrivePercent(double percentOutput) {}
+
+  @Override
+  public void setDriveVelocity(double velocityMetersPerSecond, double feedforwardVolts) {}
+
+  @Override
+  public void setAnglePosition(double angleDegrees) {}
+
+  @Override
+  public void stop() {}
+}
@@ -0,0 +1,136 @@
+package frc3512.robot.sim;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc3512.lib.trajectory.TrajectoryTable;
+import frc3512.robot.Constants;
+import frc3512.robot.commands.driving.FollowTrajectoryTable;
+import frc3512.robot.subsystems.GyroIOSim;
+import frc3512.robot.subsystems.ModuleIO;
+import frc3512.robot.subsystems.ModuleIOSim;
+import frc3512.robot.subsystems.Swerve;
+import java.util.List;
+
+/**
+ * Simulation of the drivetrain following a list of trajectories for gain sweeps. It drives a
+ * detached {@link Swerve} with simulated hardware through the same follower math as TestAuto, but
+ * without the command scheduler, so every instance only uses its own state and many can run in
+ * parallel. The loop runs in the scheduler's order: the drivetrain's periodic(), its
+ * simulationPeriodic(), then the path follower.
+ */
+public class AutonSimulation {
+  private static final double kDt = TimedRobot.kDefaultPeriod;
+
+  // Subsystems register with the command scheduler when they are constructed, and the scheduler
+  // isn't thread safe, so the sweep threads take turns constructing their drivetrains.
+  private static final Object kConstructionLock = new Object();
+
+  private final GainSet gains;
+  private final List<PathPlannerTrajectory> trajectories;
+  private final Swerve swerve;
+
+  private final TrajectoryTable.Sample sample = new TrajectoryTable.Sample();
+  private final double[] speeds = new double[3];
+
+  /**
+   * Creates a new AutonSimulation.
+   *
+   * @param gains Gains to run with
+   * @param trajectories Trajectories to follow, in order
+   */
+  public AutonSimulation(GainSet gains, List<PathPlannerTrajectory> trajectories) {
+    this.gains = gains;
+    this.trajectories = trajectories;
+
+    var modules = new ModuleIO[4];
+    for (int i = 0; i < modules.length; i++) {
+      modules[i] = new ModuleIOSim(gains.driveKP, gains.angleKP);
+    }
+    synchronized (kConstructionLock) {
+      swerve = new Swerve(new GyroIOSim(), modules, Swerve.Mode.kDetached);
+    }
+  }
+
+  /**
+   * Follows every trajectory to the end.
+   *
+   * @return Tracking error and loop cost of the run.
+   */
+  public SimResult run() {
+    var stats = new TrackingStats();
+    swerve.resetOdometry(trajectories.get(0).getInitialHolonomicPose());
+
+    for (var trajectory : trajectories) {
+      if (Constants.Auton.useTrajectoryTable) {
+        followTable(new TrajectoryTable(trajectory, kDt), stats);
+      } else {
+        followTrajectory(trajectory, stats);
+      }
+    }
+    return stats.toResult(gains);
+  }
+
+  /** Same as FollowTrajectoryTable. */
+  private void followTable(TrajectoryTable table, TrackingStats stats) {
+    // The command ends on the first loop at or past the end of the trajectory.
+    for (int i = 0; ; i++) {
+      double t = i * kDt;
+      long start = System.nanoTime();
+      Pose2d pose = step();
+      table.sample(t, sample);
+      FollowTrajectoryTable.calculate(sample, pose, gains.translationKP, gains.rotationKP, speeds);
+      swerve.setChassisSpeeds(speeds[0], speeds[1], speeds[2]);
+      stats.addLoopTime(System.nanoTime() - start);
+
+      stats.addError(
+          Math.hypot(sample.xMeters - pose.getX(), sample.yMeters - pose.getY()),
+          Math.toDegrees(
+              MathUtil.angleModulus(
+                  sample.holonomicRotationRadians - pose.getRotation().getRadians())));
+      if (t >= table.getTotalTimeSeconds()) {
+        break;
+      }
+    }
+    if (FollowTrajectoryTable.endsAtRest(table)) {
+      swerve.setChassisSpeeds(0.0, 0.0, 0.0);
+    }
+  }
+
+  /** Same as PPSwerveControllerCommand. */
+  private void followTrajectory(PathPlannerTrajectory trajectory, TrackingStats stats) {
+    var controller =
+        new PPHolonomicDriveController(
+            new PIDController(gains.translationKP, 0, 0),
+            new PIDController(gains.translationKP, 0, 0),
+            new PIDController(gains.rotationKP, 0, 0));
+
+    for (int i = 0; ; i++) {
+      double t = i * kDt;
+      long start = System.nanoTime();
+      Pose2d pose = step();
+      var desired = (PathPlannerState) trajectory.sample(t);
+      var chassisSpeeds = controller.calculate(pose, desired);
+      swerve.setModuleStates(Constants.Swerve.swerveKinematics.toSwerveModuleStates(chassisSpeeds));
+      stats.addLoopTime(System.nanoTime() - start);
+
+      stats.addError(
+          pose.getTranslation().getDistance(desired.poseMeters.getTranslation()),
+          pose.getRotation().minus(desired.holonomicRotation).getDegrees());
+      if (t >= trajectory.getTotalTimeSeconds()) {
+        break;
+      }
+    }
+  }
+
+  /** Runs the drivetrain's part of one robot loop and returns the estimated pose. */
+  private Pose2d step() {
+    swerve.periodic();
+    swerve.simulationPeriodic();
+    return swerve.getPose();
+  }
+}
@@ -0,0 +1,46 @@
+package frc3512.robot.sim;
+
+import frc3512.robot.Constants;
+
+/** The controller gains tuned by the simulated gain sweeps. */
+public class GainSet {
+  public final double translationKP;
+  public final double rotationKP;
+  public final double driveKP;
+  public final double angleKP;
+
+  /**
+   * Creates a new GainSet.
+   *
+   * @param translationKP Path following translation gain
+   * @param rotationKP Path following rotation gain
+   * @param driveKP Module drive velocity gain
+   * @param angleKP Module steering position gain
+   */
+  public GainSet(double translationKP, double rotationKP, double driveKP, double angleKP) {
+    this.translationKP = translationKP;
+    this.rotationKP = rotationKP;
+    this.driveKP = driveKP;
+    this.angleKP = angleKP;
+  }
+
+  /**
+   * Returns the gains the robot currently uses.
+   *
+   * @return The gains from Constants.
+   */
+  public static GainSet fromConstants() {
+    return new GainSet(
+        Constants.Auton.translationKP,
+        Constants.Auton.rotationKP,
+        Constants.Swerve.driveKP,
+        Constants.Swerve.angleKP);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "translationKP=%.4f rotationKP=%.4f driveKP=%.4f angleKP=%.4f",
+        translationKP, rotationKP, driveKP, angleKP);
+  }
+}
@@ -0,0 +1,120 @@
+package frc3512.robot.sim;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs an {@link AutonSimulation} for every gain set in a sweep across all cores with fork/join and
+ * ranks the results.
+ */
+public class GainSweep {
+  private final List<PathPlannerTrajectory> trajectories;
+
+  /**
+   * Creates a new GainSweep.
+   *
+   * @param trajectories Trajectories every run follows
+   */
+  public GainSweep(List<PathPlannerTrajectory> trajectories) {
+    this.trajectories = trajectories;
+  }
+
+  /**
+   * Builds every combination of the given gains.
+   *
+   * @param translationKPs Path following translation gains
+   * @param rotationKPs Path following rotation gains
+   * @param driveKPs Module drive velocity gains
+   * @param angleKPs Module steering position gains
+   * @return The gain sets.
+   */
+  public static List<GainSet> grid(
+      double[] translationKPs, double[] rotationKPs, double[] driveKPs, double[] angleKPs) {
+    List<GainSet> gains = new ArrayList<>();
+    for (double translationKP : translationKPs) {
+      for (double rotationKP : rotationKPs) {
+        for (double driveKP : driveKPs) {
+          for (double angleKP : angleKPs) {
+            gains.add(new GainSet(translationKP, rotationKP, driveKP, angleKP));
+          }
+        }
+      }
+    }
+    return gains;
+  }
+
+  /**
+   * Draws random gain sets around a center point. Each gain is scaled by a log-uniform factor
+   * between 1/spread and spread.
+   *
+   * @param center Gains to sample around
+   * @param spread Largest scale factor
+   * @param count Number of gain sets
+   * @param seed Random seed, so sweeps can be repeated
+   * @return The gain sets.
+   */
+  public static List<GainSet> monteCarlo(GainSet center, double spread, int count, long seed) {
+    var random = new Random(seed);
+    double logSpread = Math.log(spread);
+    List<GainSet> gains = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      gains.add(
+          new GainSet(
+              center.translationKP * Math.exp((random.nextDouble() * 2 - 1) * logSpread),
+              center.rotationKP * Math.exp((random.nextDouble() * 2 - 1) * logSpread),
+              center.driveKP * Math.exp((random.nextDouble() * 2 - 1) * logSpread),
+              center.angleKP * Math.exp((random.nextDouble() * 2 - 1) * logSpread)));
+    }
+    return gains;
+  }
+
+  /**
+   * Simulates every gain set and returns the results, best first.
+   *
+   * @param gains Gain sets to simulate
+   * @return Results sorted by score.
+   */
+  public List<SimResult> run(List<GainSet> gains) {
+    if (gains.isEmpty()) {
+      return new ArrayList<>();
+    }
+    List<SimResult> results =
+        ForkJoinPool.commonPool().invoke(new SweepTask(gains, 0, gains.size()));
+    results.sort(Comparator.comparingDouble(SimResult::getScore));
+    return results;
+  }
+
+  private class SweepTask extends RecursiveTask<List<SimResult>> {
+    private final List<GainSet> gains;
+    private final int start;
+    private final int end;
+
+    SweepTask(List<GainSet> gains, int start, int end) {
+      this.gains = gains;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected List<SimResult> compute() {
+      if (end - start == 1) {
+        List<SimResult> results = new ArrayList<>();
+        results.add(new AutonSimulation(gains.get(start), trajectories).run());
+        return results;
+      }
+
+      int mid = (start + end) >>> 1;
+      var left = new SweepTask(gains, start, mid);
+      var right = new SweepTask(gains, mid, end);
+      left.fork();
+      List<SimResult> results = right.compute();
+      results.addAll(left.join());
+      return results;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package frc3512.robot.sim;
+
+/** Path tracking error and loop cost of one simulated auton run. */
+public class SimResult {
+  // Converts heading error into an equivalent translation error so both can be ranked together.
+  // Roughly the distance from the center of the robot to a module.
+  private static final double kHeadingWeightMeters = 0.3;
+
+  public final GainSet gains;
+  public final int loops;
+  public final double rmsTranslationError;
+  public final double maxTranslationError;
+  public final double finalTranslationError;
+  public final double rmsHeadingErrorDegrees;
+  public final double maxHeadingErrorDegrees;
+  public final double meanLoopMicros;
+  public final double maxLoopMicros;
+
+  /**
+   * Creates a new SimResult.
+   *
+   * @param gains Gains the run used
+   * @param loops Number of simulated loops
+   * @param rmsTranslationError RMS distance from the path in meters
+   * @param maxTranslationError Largest distance from the path in meters
+   * @param finalTranslationError Distance from the end of the path in meters
+   * @param rmsHeadingErrorDegrees RMS heading error
+   * @param maxHeadingErrorDegrees Largest heading error
+   * @param meanLoopMicros Mean CPU time of a control loop
+   * @param maxLoopMicros Largest CPU time of a control loop
+   */
+  public SimResult(
+      GainSet gains,
+      int loops,
+      double rmsTranslationError,
+      double maxTranslationError,
+      double finalTranslationError,
+      double rmsHeadingErrorDegrees,
+      double maxHeadingErrorDegrees,
+      double meanLoopMicros,
+      double maxLoopMicros) {
+    this.gains = gains;
+    this.loops = loops;
+    this.rmsTranslationError = rmsTranslationError;
+    this.maxTranslationError = maxTranslationError;
+    this.finalTranslationError = finalTranslationError;
+    this.rmsHeadingErrorDegrees = rmsHeadingErrorDegrees;
+    this.maxHeadingErrorDegrees = maxHeadingErrorDegrees;
+    this.meanLoopMicros = meanLoopMicros;
+    this.maxLoopMicros = maxLoopMicros;
+  }
+
+  /**
+   * Returns the score runs are ranked by. Lower is better.
+   *
+   * @return RMS translation error plus the weighted RMS heading error, in meters.
+   */
+  public double getScore() {
+    return rmsTranslationError + Math.toRadians(rmsHeadingErrorDegrees) * kHeadingWeightMeters;
+  }
+
+  /** Header of the table written by {@link #toRow()}. */
+  public static String header() {
+    return String.format(
+        "%10s %8s %8s %8s %8s %10s %10s %10s %10s %10s %10s",
+        "score",
+        "transKP",
+        "rotKP",
+        "driveKP",
+        "angleKP",
+        "rms (m)",
+        "max (m)",
+        "final (m)",
+        "rms (deg)",
+        "max (deg)",
+        "loop (us)");
+  }
+
+  /** Formats the result as a row of the results table. */
+  public String toRow() {
+    return String.format(
+        "%10.4f %8.4f %8.4f %8.4f %8.4f %10.4f %10.4f %10.4f %10.3f %10.3f %10.2f",
+        getScore(),
+        gains.translationKP,
+        gains.rotationKP,
+        gains.driveKP,
+        gains.angleKP,
+        rmsTranslationError,
+        maxTranslationError,
+        finalTranslationError,
+        rmsHeadingErrorDegrees,
+        maxHeadingErrorDegrees,
+        meanLoopMicros);
+  }
+}
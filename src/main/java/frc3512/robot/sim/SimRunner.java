@@ -0,0 +1,166 @@
+package frc3512.robot.sim;
+
+import com.pathplanner.lib.commands.PPSwerveControllerCommand;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc3512.lib.profiling.LatencyHistogram;
+import frc3512.robot.auton.TestAuto;
+import frc3512.robot.commands.driving.FollowTrajectoryTable;
+import frc3512.robot.subsystems.Swerve;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headless simulation runner. Steps the robot loop as fast as the CPU allows instead of in real
+ * time.
+ *
+ * <ul>
+ *   <li>{@code auton [max seconds]} runs TestAuto through the command scheduler with the simulated
+ *       drivetrain and reports path tracking error and loop cost.
+ *   <li>{@code grid <output>} sweeps a grid of gains and writes the ranked results to a file.
+ *   <li>{@code random <count> <spread> <seed> <output>} sweeps random gains around the current
+ *       ones.
+ * </ul>
+ */
+public final class SimRunner {
+  private SimRunner() {}
+
+  public static void main(String... args) throws IOException {
+    if (args.length == 0) {
+      throw new IllegalArgumentException(
+          "Usage: SimRunner auton [max seconds] | grid <output> | random <count> <spread> <seed>"
+              + " <output>");
+    }
+
+    if (!HAL.initialize(500, 0)) {
+      throw new IllegalStateException("Failed to initialize the HAL");
+    }
+    DriverStationSim.setAutonomous(true);
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.notifyNewData();
+
+    switch (args[0]) {
+      case "auton":
+        runAuton(args.length > 1 ? Double.parseDouble(args[1]) : 15.0);
+        break;
+      case "grid":
+        runSweep(
+            GainSweep.grid(
+                new double[] {0.5, 1.0, 2.0, 4.0},
+                new double[] {0.5, 1.0, 2.0, 4.0},
+                new double[] {0.05, 0.1, 0.2},
+                new double[] {0.005, 0.01, 0.02}),
+            Path.of(args[1]));
+        break;
+      case "random":
+        runSweep(
+            GainSweep.monteCarlo(
+                GainSet.fromConstants(),
+                Double.parseDouble(args[2]),
+                Integer.parseInt(args[1]),
+                Long.parseLong(args[3])),
+            Path.of(args[4]));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown mode " + args[0]);
+    }
+
+    // Threads started by WPILib keep the JVM alive.
+    System.exit(0);
+  }
+
+  /** Runs TestAuto through the real robot code, stepping simulated time one loop at a time. */
+  private static void runAuton(double maxSeconds) {
+    SimHooks.pauseTiming();
+
+    var stats = new TrackingStats();
+    var loopTime = new LatencyHistogram("Sim Loop", TimedRobot.kDefaultPeriod);
+    PPSwerveControllerCommand.setLoggingCallbacks(
+        trajectory -> {},
+        pose -> {},
+        speeds -> {},
+        (translationError, rotationError) ->
+            stats.addError(translationError.getNorm(), rotationError.getDegrees()));
+    FollowTrajectoryTable.setErrorCallback(stats::addError);
+
+    var swerve = new Swerve(Swerve.Mode.kStepped);
+    var auton = new TestAuto(swerve);
+    var scheduler = CommandScheduler.getInstance();
+    scheduler.schedule(auton);
+
+    long wallStart = System.nanoTime();
+    int loops = 0;
+    int maxLoops = (int) Math.ceil(maxSeconds / TimedRobot.kDefaultPeriod);
+    while (scheduler.isScheduled(auton) && loops < maxLoops) {
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+      DriverStationSim.notifyNewData();
+
+      long start = System.nanoTime();
+      scheduler.run();
+      long elapsed = System.nanoTime() - start;
+      stats.addLoopTime(elapsed);
+      loopTime.record(elapsed);
+      loops++;
+    }
+    double wallSeconds = (System.nanoTime() - wallStart) * 1e-9;
+    double simSeconds = loops * TimedRobot.kDefaultPeriod;
+
+    var result = stats.toResult(GainSet.fromConstants());
+    System.out.println(result.gains);
+    System.out.printf(
+        "%s after %d loops (%.2f s simulated in %.2f s, %.0fx real time)%n",
+        scheduler.isScheduled(auton) ? "Timed out" : "Finished",
+        loops,
+        simSeconds,
+        wallSeconds,
+        simSeconds / wallSeconds);
+    System.out.printf(
+        "Tracking error: rms %.4f m, max %.4f m, final %.4f m, heading rms %.3f deg, max %.3f"
+            + " deg%n",
+        result.rmsTranslationError,
+        result.maxTranslationError,
+        result.finalTranslationError,
+        result.rmsHeadingErrorDegrees,
+        result.maxHeadingErrorDegrees);
+    System.out.printf(
+        "Loop CPU: mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us%n",
+        result.meanLoopMicros,
+        loopTime.getPercentile(0.5) * 1e6,
+        loopTime.getPercentile(0.99) * 1e6,
+        result.maxLoopMicros);
+  }
+
+  /** Simulates every gain set in parallel and writes the ranked results. */
+  private static void runSweep(List<GainSet> gains, Path output) throws IOException {
+    var trajectories = Arrays.asList(TestAuto.generateTrajectories());
+
+    long start = System.nanoTime();
+    var results = new GainSweep(trajectories).run(gains);
+    double seconds = (System.nanoTime() - start) * 1e-9;
+
+    if (output.getParent() != null) {
+      Files.createDirectories(output.getParent());
+    }
+    try (var writer = new PrintWriter(Files.newBufferedWriter(output))) {
+      writer.println(SimResult.header());
+      for (var result : results) {
+        writer.println(result.toRow());
+      }
+    }
+
+    System.out.printf(
+        "Simulated %d gain sets in %.2f s on %d threads, results written to %s%n",
+        results.size(), seconds, Runtime.getRuntime().availableProcessors(), output);
+    System.out.println(SimResult.header());
+    for (int i = 0; i < Math.min(10, results.size()); i++) {
+      System.out.println(results.get(i).toRow());
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package frc3512.robot.sim;
+
+/** Accumulates the path tracking error and loop cost of a simulated run. */
+class TrackingStats {
+  private int loops = 0;
+  private double sumSquaredTranslation = 0.0;
+  private double maxTranslation = 0.0;
+  private double lastTranslation = 0.0;
+  private double sumSquaredHeading = 0.0;
+  private double maxHeading = 0.0;
+  private int timedLoops = 0;
+  private long totalLoopNanos = 0;
+  private long maxLoopNanos = 0;
+
+  /**
+   * Records the tracking error of one loop.
+   *
+   * @param translationErrorMeters Distance from the desired pose
+   * @param headingErrorDegrees Heading error
+   */
+  void addError(double translationErrorMeters, double headingErrorDegrees) {
+    double heading = Math.abs(headingErrorDegrees);
+    sumSquaredTranslation += translationErrorMeters * translationErrorMeters;
+    maxTranslation = Math.max(maxTranslation, translationErrorMeters);
+    lastTranslation = translationErrorMeters;
+    sumSquaredHeading += heading * heading;
+    maxHeading = Math.max(maxHeading, heading);
+    loops++;
+  }
+
+  /**
+   * Records how long one control loop took.
+   *
+   * @param nanos CPU time of the loop
+   */
+  void addLoopTime(long nanos) {
+    timedLoops++;
+    totalLoopNanos += nanos;
+    maxLoopNanos = Math.max(maxLoopNanos, nanos);
+  }
+
+  /**
+   * Summarizes the run.
+   *
+   * @param gains Gains the run used
+   * @return The summary
+   * @throws IllegalStateException If no tracking error was recorded, since the path followers
+   *     weren't reporting it
+   */
+  SimResult toResult(GainSet gains) {
+    if (loops == 0) {
+      throw new IllegalStateException("No tracking error was recorded");
+    }
+    return new SimResult(
+        gains,
+        loops,
+        Math.sqrt(sumSquaredTranslation / loops),
+        maxTranslation,
+        lastTranslation,
+        Math.sqrt(sumSquaredHeading / loops),
+        maxHeading,
+        totalLoopNanos * 1e-3 / Math.max(1, timedLoops),
+        maxLoopNanos * 1e-3);
+  }
+}
@@ -0,0 +1,29 @@
+package frc3512.robot.subsystems;
+
+/** Hardware layer of the drivetrain gyro. */
+public interface GyroIO {
+  /**
+   * Reads the gyro once into the snapshot.
+   *
+   * @param inputs Snapshot to write into
+   */
+  void updateInputs(SwerveInputs inputs);
+
+  /** Direct yaw read for the odometry thread, in degrees, CCW positive. */
+  double getYawDegrees();
+
+  /**
+   * Sets the current yaw.
+   *
+   * @param yawDegrees New yaw in degrees
+   */
+  void setYaw(double yawDegrees);
+
+  /**
+   * Advances the simulation. Does nothing on real hardware.
+   *
+   * @param omegaRadiansPerSecond Angular velocity of the robot
+   * @param dtSeconds Time since the last call
+   */
+  default void simulationPeriodic(double omegaRadiansPerSecond, double dtSeconds) {}
+}
@@ -0,0 +1,44 @@
+package frc3512.robot.subsystems;
+
+import frc3512.lib.motion.SpartanPigeon2;
+import frc3512.lib.util.CANFrameManager;
+import frc3512.robot.Constants;
+
+/** Drivetrain gyro on a CTRE Pigeon 2. */
+public class GyroIOPigeon2 implements GyroIO {
+  private final SpartanPigeon2 gyro;
+
+  /**
+   * Creates a new GyroIOPigeon2.
+   *
+   * @param id CAN ID of the Pigeon 2
+   */
+  public GyroIOPigeon2(int id) {
+    gyro = new SpartanPigeon2(id);
+    CANFrameManager.register("Pigeon 2", gyro, Constants.CAN.pigeonFrames);
+  }
+
+  @Override
+  public void updateInputs(SwerveInputs inputs) {
+    gyro.update();
+    double yaw =
+        Constants.Swerve.gyroLatencyCompensation ? gyro.getCompensatedYaw() : gyro.getYaw();
+    double rate = gyro.getYawRate();
+    inputs.gyroYawDegrees = (Constants.Swerve.invertGyro) ? 360 - yaw : yaw;
+    inputs.gyroYawRateDegreesPerSecond = (Constants.Swerve.invertGyro) ? -rate : rate;
+    inputs.gyroAccelerationXG = gyro.getAccelerationX();
+    inputs.gyroAccelerationYG = gyro.getAccelerationY();
+    inputs.gyroTimestamp = gyro.getTimestamp();
+  }
+
+  @Override
+  public double getYawDegrees() {
+    double yaw = gyro.readYaw(Constants.Swerve.gyroLatencyCompensation);
+    return (Constants.Swerve.invertGyro) ? 360 - yaw : yaw;
+  }
+
+  @Override
+  public void setYaw(double yawDegrees) {
+    gyro.setYaw(yawDegrees);
+  }
+}
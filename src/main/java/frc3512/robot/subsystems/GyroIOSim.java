@@ -0,0 +1,33 @@
+package frc3512.robot.subsystems;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/** Simulated gyro that integrates the angular velocity of the drivetrain. */
+public class GyroIOSim implements GyroIO {
+  // Also read by the odometry thread.
+  private volatile double yawDegrees = 0.0;
+  private double yawRateDegreesPerSecond = 0.0;
+
+  @Override
+  public void updateInputs(SwerveInputs inputs) {
+    inputs.gyroYawDegrees = yawDegrees;
+    inputs.gyroTimestamp = Timer.getFPGATimestamp();
+    inputs.gyroYawRateDegreesPerSecond = yawRateDegreesPerSecond;
+  }
+
+  @Override
+  public double getYawDegrees() {
+    return yawDegrees;
+  }
+
+  @Override
+  public void setYaw(double yawDegrees) {
+    this.yawDegrees = yawDegrees;
+  }
+
+  @Override
+  public void simulationPeriodic(double omegaRadiansPerSecond, double dtSeconds) {
+    yawRateDegreesPerSecond = Math.toDegrees(omegaRadiansPerSecond);
+    yawDegrees += yawRateDegreesPerSecond * dtSeconds;
+  }
+}
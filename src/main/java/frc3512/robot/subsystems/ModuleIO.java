@@ -0,0 +1,74 @@
+package frc3512.robot.subsystems;
+
+/**
+ * Hardware layer of a swerve module. {@link SwerveModule} does all of the control logic and only
+ * talks to the motors and sensors through this interface, so the hardware can be swapped for a
+ * simulation.
+ */
+public interface ModuleIO {
+  /**
+   * Reads every sensor on the module once into the snapshot.
+   *
+   * @param inputs Snapshot to write into
+   * @param index Module number to write at
+   */
+  void updateInputs(SwerveInputs inputs, int index);
+
+  /** Direct drive position read for the odometry thread, in meters. */
+  double getDrivePositionMeters();
+
+  /** Direct angle read for the odometry thread, in degrees. */
+  double getAnglePositionDegrees();
+
+  /**
+   * Drives the wheel open loop.
+   *
+   * @param percentOutput Output from -1 to 1
+   */
+  void setDrivePercent(double percentOutput);
+
+  /**
+   * Drives the wheel closed loop.
+   *
+   * @param velocityMetersPerSecond Desired wheel speed
+   * @param feedforwardVolts Feedforward added to the velocity controller's output
+   */
+  void setDriveVelocity(double velocityMetersPerSecond, double feedforwardVolts);
+
+  /**
+   * Turns the module to an angle.
+   *
+   * @param angleDegrees Desired module angle
+   */
+  void setAnglePosition(double angleDegrees);
+
+  /** Stops both motors. */
+  void stop();
+
+  /**
+   * Changes the gains of the drive velocity loop. Gains that didn't change aren't resent.
+   *
+   * @param kP Proportional gain
+   * @param kI Integral gain
+   * @param kD Derivative gain
+   * @param kFF Velocity feedforward gain
+   */
+  default void setDrivePID(double kP, double kI, double kD, double kFF) {}
+
+  /**
+   * Changes the gains of the steering position loop. Gains that didn't change aren't resent.
+   *
+   * @param kP Proportional gain
+   * @param kI Integral gain
+   * @param kD Derivative gain
+   * @param kFF Feedforward gain
+   */
+  default void setAnglePID(double kP, double kI, double kD, double kFF) {}
+
+  /**
+   * Advances the simulation. Does nothing on real hardware.
+   *
+   * @param dtSeconds Time since the last call
+   */
+  default void simulationPeriodic(double dtSeconds) {}
+}
@@ -0,0 +1,153 @@
+package frc3512.robot.subsystems;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc3512.robot.Constants;
+
+/**
+ * Simulated swerve module. The drive and steer motors are NEOs modeled with DCMotorSim, and the
+ * Spark Max controllers are emulated with the same gains as the real ones: the PID output is a duty
+ * cycle that gets scaled by the voltage compensation, and the feedforward is added in volts.
+ */
+public class ModuleIOSim implements ModuleIO {
+  // Moments of inertia of the wheel and of the module's steering, in kg m^2.
+  private static final double kDriveMoi = 0.025;
+  private static final double kSteerMoi = 0.004;
+
+  private final DCMotorSim driveSim =
+      new DCMotorSim(DCMotor.getNEO(1), Constants.Swerve.driveGearRatio, kDriveMoi);
+  private final DCMotorSim steerSim =
+      new DCMotorSim(DCMotor.getNEO(1), Constants.Swerve.angleGearRatio, kSteerMoi);
+
+  private final PIDController driveController;
+  private final PIDController steerController;
+
+  private boolean closedLoopDrive = false;
+  private double drivePercent = 0.0;
+  private double driveSetpoint = 0.0;
+  private double driveFeedforwardVolts = 0.0;
+  private boolean steerEnabled = false;
+  private double steerSetpoint = 0.0;
+
+  // Published after every step for the odometry thread, which must not read the motor models
+  // while the main thread updates them.
+  private volatile double drivePositionMeters = 0.0;
+  private volatile double anglePositionDegrees = 0.0;
+
+  /** Creates a new simulated swerve module with the gains of the real modules. */
+  public ModuleIOSim() {
+    this(Constants.Swerve.driveKP, Constants.Swerve.angleKP);
+  }
+
+  /**
+   * Creates a new simulated swerve module with different proportional gains, for tuning.
+   *
+   * @param driveKP Proportional gain of the drive velocity loop
+   * @param angleKP Proportional gain of the steering position loop
+   */
+  public ModuleIOSim(double driveKP, double angleKP) {
+    driveController =
+        new PIDController(driveKP, Constants.Swerve.driveKI, Constants.Swerve.driveKD);
+    steerController =
+        new PIDController(angleKP, Constants.Swerve.angleKI, Constants.Swerve.angleKD);
+    steerController.enableContinuousInput(0.0, 360.0);
+  }
+
+  @Override
+  public void simulationPeriodic(double dtSeconds) {
+    double voltage = Constants.General.voltageComp;
+
+    double driveVolts;
+    if (closedLoopDrive) {
+      double duty =
+          driveController.calculate(getDriveVelocityMetersPerSecond(), driveSetpoint)
+              + Constants.Swerve.driveKFF * driveSetpoint;
+      driveVolts = MathUtil.clamp(duty, -1.0, 1.0) * voltage + driveFeedforwardVolts;
+    } else {
+      driveVolts = drivePercent * voltage;
+    }
+
+    double steerVolts = 0.0;
+    if (steerEnabled) {
+      double duty = steerController.calculate(getAnglePositionDegrees(), steerSetpoint);
+      steerVolts = MathUtil.clamp(duty, -1.0, 1.0) * voltage;
+    }
+
+    // Motor controllers don't output anything while the robot is disabled.
+    if (DriverStation.isDisabled()) {
+      driveVolts = 0.0;
+      steerVolts = 0.0;
+    }
+    driveSim.setInputVoltage(MathUtil.clamp(driveVolts, -voltage, voltage));
+    steerSim.setInputVoltage(steerVolts);
+    driveSim.update(dtSeconds);
+    steerSim.update(dtSeconds);
+    drivePositionMeters = driveSim.getAngularPositionRad() * Constants.Swerve.wheelDiameter / 2.0;
+    anglePositionDegrees = Units.radiansToDegrees(steerSim.getAngularPositionRad());
+  }
+
+  private double getDriveVelocityMetersPerSecond() {
+    return driveSim.getAngularVelocityRadPerSec() * Constants.Swerve.wheelDiameter / 2.0;
+  }
+
+  @Override
+  public void updateInputs(SwerveInputs inputs, int index) {
+    inputs.drivePositionMeters[index] = getDrivePositionMeters();
+    inputs.driveVelocityMetersPerSecond[index] = getDriveVelocityMetersPerSecond();
+    inputs.anglePositionDegrees[index] = getAnglePositionDegrees();
+    inputs.cancoderDegrees[index] = inputs.anglePositionDegrees[index];
+    inputs.moduleTimestamps[index] = Timer.getFPGATimestamp();
+  }
+
+  @Override
+  public double getDrivePositionMeters() {
+    return drivePositionMeters;
+  }
+
+  @Override
+  public double getAnglePositionDegrees() {
+    return anglePositionDegrees;
+  }
+
+  @Override
+  public void setDrivePercent(double percentOutput) {
+    closedLoopDrive = false;
+    drivePercent = percentOutput;
+  }
+
+  @Override
+  public void setDriveVelocity(double velocityMetersPerSecond, double feedforwardVolts) {
+    closedLoopDrive = true;
+    driveSetpoint = velocityMetersPerSecond;
+    driveFeedforwardVolts = feedforwardVolts;
+  }
+
+  @Override
+  public void setAnglePosition(double angleDegrees) {
+    steerEnabled = true;
+    steerSetpoint = angleDegrees;
+  }
+
+  // The simulated loops have no velocity feedforward gain, so kFF is ignored.
+  @Override
+  public void setDrivePID(double kP, double kI, double kD, double kFF) {
+    driveController.setPID(kP, kI, kD);
+  }
+
+  @Override
+  public void setAnglePID(double kP, double kI, double kD, double kFF) {
+    steerController.setPID(kP, kI, kD);
+  }
+
+  @Override
+  public void stop() {
+    closedLoopDrive = false;
+    drivePercent = 0.0;
+    steerEnabled = false;
+  }
+}
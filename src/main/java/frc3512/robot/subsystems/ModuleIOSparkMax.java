@@ -0,0 +1,184 @@
+package frc3512.robot.subsystems;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Timer;
+import frc3512.lib.motion.SparkMaxConfig;
+import frc3512.lib.motion.SpartanCANCoder;
+import frc3512.lib.motion.SpartanSparkMax;
+import frc3512.lib.util.CANFrameManager;
+import frc3512.lib.util.CANSparkMaxUtil.Usage;
+import frc3512.lib.util.DeviceConfigurator;
+import frc3512.lib.util.SwerveModuleConstants;
+import frc3512.robot.Constants;
+
+/** Swerve module hardware with NEO motors on Spark Maxes and a CTRE CANCoder. */
+public class ModuleIOSparkMax implements ModuleIO {
+  private final Rotation2d angleOffset;
+
+  private final SpartanSparkMax angleMotor;
+  private final SpartanSparkMax driveMotor;
+  private final SpartanCANCoder angleEncoder;
+
+  /**
+   * Creates and configures the hardware for a swerve module.
+   *
+   * @param moduleNumber - Number of the module (0-3)
+   * @param moduleConstants - Constants for the appropriate module
+   */
+  public ModuleIOSparkMax(int moduleNumber, SwerveModuleConstants moduleConstants) {
+    this(moduleNumber, moduleConstants, createConfigurator(), true);
+  }
+
+  /**
+   * Creates the hardware for a swerve module and adds it to a configurator, so the devices of
+   * every module can be configured at the same time. Call {@link #resetAbsolute()} once the
+   * configurator has run.
+   *
+   * @param moduleNumber - Number of the module (0-3)
+   * @param moduleConstants - Constants for the appropriate module
+   * @param configurator - Configurator the module's devices are added to
+   */
+  public ModuleIOSparkMax(
+      int moduleNumber, SwerveModuleConstants moduleConstants, DeviceConfigurator configurator) {
+    this(moduleNumber, moduleConstants, configurator, false);
+  }
+
+  private ModuleIOSparkMax(
+      int moduleNumber,
+      SwerveModuleConstants moduleConstants,
+      DeviceConfigurator configurator,
+      boolean configureNow) {
+    angleOffset = moduleConstants.angleOffset;
+
+    angleEncoder = new SpartanCANCoder(moduleConstants.cancoderID, Constants.Swerve.canCoderInvert);
+    configurator.add("Mod " + moduleNumber + " CANCoder", angleEncoder);
+    CANFrameManager.register(
+        "Mod " + moduleNumber + " CANCoder", angleEncoder, Constants.CAN.cancoderFrames);
+
+    angleMotor =
+        new SpartanSparkMax(
+            moduleConstants.angleMotorID, Constants.Swerve.angleInvert, Usage.kPositionOnly);
+    angleMotor.setWriteSuppression(
+        Constants.CAN.anglePositionTolerance, 0.0, Constants.CAN.setpointRefreshSeconds);
+    configurator.add("Mod " + moduleNumber + " Angle Motor", angleMotor, createAngleConfig());
+    CANFrameManager.register(
+        "Mod " + moduleNumber + " Angle Motor", angleMotor, Constants.CAN.angleMotorFrames);
+
+    driveMotor =
+        new SpartanSparkMax(moduleConstants.driveMotorID, Constants.Swerve.driveInvert, Usage.kAll);
+    driveMotor.setWriteSuppression(
+        Constants.CAN.driveVelocityTolerance,
+        Constants.CAN.driveFeedforwardTolerance,
+        Constants.CAN.setpointRefreshSeconds);
+    configurator.add("Mod " + moduleNumber + " Drive Motor", driveMotor, createDriveConfig());
+    CANFrameManager.register(
+        "Mod " + moduleNumber + " Drive Motor", driveMotor, Constants.CAN.driveMotorFrames);
+
+    if (configureNow) {
+      configurator.run();
+      resetAbsolute();
+    }
+  }
+
+  /**
+   * Creates a configurator with the timeouts in the constants.
+   *
+   * @return A new configurator.
+   */
+  public static DeviceConfigurator createConfigurator() {
+    return new DeviceConfigurator(
+        Constants.CAN.configTimeoutSeconds,
+        Constants.CAN.configRetries,
+        Constants.CAN.configTimeoutMs);
+  }
+
+  private static SparkMaxConfig createAngleConfig() {
+    var config = new SparkMaxConfig();
+    config.smartCurrentLimit = Constants.Swerve.angleContinuousCurrentLimit;
+    config.idleMode = Constants.Swerve.angleNeutralMode;
+    config.positionConversionFactor = Constants.Swerve.angleConversionFactor;
+    config.kP = Constants.Swerve.angleKP;
+    config.kI = Constants.Swerve.angleKI;
+    config.kD = Constants.Swerve.angleKD;
+    config.kFF = Constants.Swerve.angleKFF;
+    config.continuousInput = true;
+    config.continuousInputMin = 0.0;
+    config.continuousInputMax = 360.0;
+    config.voltageCompensation = Constants.General.voltageComp;
+    return config;
+  }
+
+  private static SparkMaxConfig createDriveConfig() {
+    var config = new SparkMaxConfig();
+    config.smartCurrentLimit = Constants.Swerve.driveContinuousCurrentLimit;
+    config.idleMode = Constants.Swerve.driveNeutralMode;
+    config.positionConversionFactor = Constants.Swerve.driveConversionPositionFactor;
+    config.velocityConversionFactor = Constants.Swerve.driveConversionVelocityFactor;
+    config.kP = Constants.Swerve.driveKP;
+    config.kI = Constants.Swerve.driveKI;
+    config.kD = Constants.Swerve.driveKD;
+    config.kFF = Constants.Swerve.driveKFF;
+    config.voltageCompensation = Constants.General.voltageComp;
+    return config;
+  }
+
+  /**
+   * Seeds the angle motor's encoder from the CANCoder and zeroes the drive encoder. Needs the
+   * devices to be configured first.
+   */
+  public void resetAbsolute() {
+    double absolutePosition = angleEncoder.getAbsolutePosition() - angleOffset.getDegrees();
+    angleMotor.setPosition(absolutePosition);
+    driveMotor.setPosition(0.0);
+  }
+
+  @Override
+  public void updateInputs(SwerveInputs inputs, int index) {
+    inputs.drivePositionMeters[index] = driveMotor.getPosition();
+    inputs.driveVelocityMetersPerSecond[index] = driveMotor.getVelocity();
+    inputs.anglePositionDegrees[index] = angleMotor.getPosition();
+    inputs.cancoderDegrees[index] = angleEncoder.getAbsolutePosition();
+    inputs.moduleTimestamps[index] = Timer.getFPGATimestamp();
+  }
+
+  @Override
+  public double getDrivePositionMeters() {
+    return driveMotor.getPosition();
+  }
+
+  @Override
+  public double getAnglePositionDegrees() {
+    return angleMotor.getPosition();
+  }
+
+  @Override
+  public void setDrivePercent(double percentOutput) {
+    driveMotor.set(percentOutput);
+  }
+
+  @Override
+  public void setDriveVelocity(double velocityMetersPerSecond, double feedforwardVolts) {
+    driveMotor.performVelocityControl(velocityMetersPerSecond, feedforwardVolts);
+  }
+
+  @Override
+  public void setAnglePosition(double angleDegrees) {
+    angleMotor.performPositionControl(angleDegrees);
+  }
+
+  @Override
+  public void setDrivePID(double kP, double kI, double kD, double kFF) {
+    driveMotor.setPID(kP, kI, kD, kFF);
+  }
+
+  @Override
+  public void setAnglePID(double kP, double kI, double kD, double kFF) {
+    angleMotor.setPID(kP, kI, kD, kFF);
+  }
+
+  @Override
+  public void stop() {
+    driveMotor.stop();
+    angleMotor.stop();
+  }
+}
@@ -0,0 +1,222 @@
+package frc3512.robot.subsystems;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Samples the gyro yaw and swerve module positions on a dedicated thread at a higher rate than the
+ * main robot loop. Samples are timestamped and queued until the main loop drains them into the pose
+ * estimator.
+ *
+ * <p>The sensors only report new readings once per status frame, which is slower than the thread
+ * samples. A sample that reads exactly the same values as the previous one is a repeat of the same
+ * frames, so it is skipped instead of costing the estimator another update.
+ */
+public class OdometryThread {
+  /** Receives a single odometry sample drained from the queue. */
+  public interface SampleConsumer {
+    void accept(
+        double timestamp, double yawDegrees, double[] distancesMeters, double[] anglesDegrees);
+  }
+
+  private final Notifier notifier;
+  private final DoubleSupplier yawSupplier;
+  private final SwerveModule[] modules;
+  private final double periodSeconds;
+  private final ReentrantLock queueLock = new ReentrantLock();
+
+  // Ring buffer of queued samples, guarded by queueLock.
+  private final int capacity;
+  private final double[] timestamps;
+  private final double[] yaws;
+  private final double[][] distances;
+  private final double[][] angles;
+  private int head = 0;
+  private int size = 0;
+  private long droppedSamples = 0;
+
+  // Jitter statistics, guarded by queueLock.
+  private double lastTimestamp = 0.0;
+  private double maxJitter = 0.0;
+  private double totalJitter = 0.0;
+  private long jitterSamples = 0;
+
+  // Only touched by the sampling thread.
+  private final double[] sampleDistances;
+  private final double[] sampleAngles;
+  private double sampleYaw = Double.NaN;
+
+  // Only touched by the draining thread.
+  private final double[] drainTimestamps;
+  private final double[] drainYaws;
+  private final double[][] drainDistances;
+  private final double[][] drainAngles;
+
+  /**
+   * Creates a new OdometryThread. The thread does not sample until {@link #start()} is called.
+   *
+   * @param yawSupplier Supplies the current gyro yaw in degrees
+   * @param modules Swerve modules to sample, indexed by module number
+   * @param frequency Sampling frequency in Hz
+   */
+  public OdometryThread(DoubleSupplier yawSupplier, SwerveModule[] modules, double frequency) {
+    this.yawSupplier = yawSupplier;
+    this.modules = modules;
+    this.periodSeconds = 1.0 / frequency;
+
+    // Hold a few main loop periods worth of samples in case a loop overruns.
+    capacity = (int) Math.ceil(frequency * 0.1);
+    timestamps = new double[capacity];
+    yaws = new double[capacity];
+    distances = new double[capacity][modules.length];
+    angles = new double[capacity][modules.length];
+    sampleDistances = new double[modules.length];
+    sampleAngles = new double[modules.length];
+    drainTimestamps = new double[capacity];
+    drainYaws = new double[capacity];
+    drainDistances = new double[capacity][modules.length];
+    drainAngles = new double[capacity][modules.length];
+
+    notifier = new Notifier(this::sample);
+    notifier.setName("OdometryThread");
+  }
+
+  /** Starts sampling at the configured frequency. */
+  public void start() {
+    notifier.startPeriodic(periodSeconds);
+  }
+
+  /** Stops sampling. Samples already queued are kept. */
+  public void stop() {
+    notifier.stop();
+  }
+
+  private void sample() {
+    double timestamp = Timer.getFPGATimestamp();
+    double yaw = yawSupplier.getAsDouble();
+    boolean changed = yaw != sampleYaw;
+    sampleYaw = yaw;
+    for (int i = 0; i < modules.length; i++) {
+      double distance = modules[i].getDistanceMeters();
+      double angle = modules[i].getAngleDegrees();
+      changed |= distance != sampleDistances[i] || angle != sampleAngles[i];
+      sampleDistances[i] = distance;
+      sampleAngles[i] = angle;
+    }
+
+    queueLock.lock();
+    try {
+      if (lastTimestamp != 0.0) {
+        double jitter = Math.abs((timestamp - lastTimestamp) - periodSeconds);
+        maxJitter = Math.max(maxJitter, jitter);
+        totalJitter += jitter;
+        jitterSamples++;
+      }
+      lastTimestamp = timestamp;
+      if (!changed) {
+        return;
+      }
+
+      if (size == capacity) {
+        // Overwrite the oldest sample if the main loop has fallen behind.
+        head = (head + 1) % capacity;
+        size--;
+        droppedSamples++;
+      }
+      int index = (head + size) % capacity;
+      timestamps[index] = timestamp;
+      yaws[index] = yaw;
+      System.arraycopy(sampleDistances, 0, distances[index], 0, modules.length);
+      System.arraycopy(sampleAngles, 0, angles[index], 0, modules.length);
+      size++;
+    } finally {
+      queueLock.unlock();
+    }
+  }
+
+  /**
+   * Removes all queued samples and passes them to the consumer, oldest first. The sampling thread
+   * is only blocked while the samples are copied out of the queue.
+   *
+   * @param consumer Consumer for each drained sample
+   * @return Number of samples drained
+   */
+  public int drain(SampleConsumer consumer) {
+    int count;
+    queueLock.lock();
+    try {
+      count = size;
+      for (int i = 0; i < count; i++) {
+        int index = (head + i) % capacity;
+        drainTimestamps[i] = timestamps[index];
+        drainYaws[i] = yaws[index];
+        System.arraycopy(distances[index], 0, drainDistances[i], 0, modules.length);
+        System.arraycopy(angles[index], 0, drainAngles[i], 0, modules.length);
+      }
+      head = (head + count) % capacity;
+      size = 0;
+    } finally {
+      queueLock.unlock();
+    }
+
+    for (int i = 0; i < count; i++) {
+      consumer.accept(drainTimestamps[i], drainYaws[i], drainDistances[i], drainAngles[i]);
+    }
+    return count;
+  }
+
+  /** Discards all queued samples. */
+  public void clear() {
+    queueLock.lock();
+    try {
+      head = 0;
+      size = 0;
+    } finally {
+      queueLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the largest deviation from the sampling period seen so far.
+   *
+   * @return Maximum jitter in seconds
+   */
+  public double getMaxJitter() {
+    queueLock.lock();
+    try {
+      return maxJitter;
+    } finally {
+      queueLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the average deviation from the sampling period.
+   *
+   * @return Average jitter in seconds
+   */
+  public double getAverageJitter() {
+    queueLock.lock();
+    try {
+      return jitterSamples == 0 ? 0.0 : totalJitter / jitterSamples;
+    } finally {
+      queueLock.unlock();
+    }
+  }
+
+  /**
+   * Returns how many samples were overwritten before the main loop drained them.
+   *
+   * @return Number of dropped samples
+   */
+  public long getDroppedSamples() {
+    queueLock.lock();
+    try {
+      return droppedSamples;
+    } finally {
+      queueLock.unlock();
+    }
+  }
+}
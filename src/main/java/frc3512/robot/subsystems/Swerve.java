@@ -1,97 +1,488 @@
 package frc3512.robot.subsystems;
 
-import com.ctre.phoenix.sensors.Pigeon2;
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc3512.lib.logging.LogLevel;
+import frc3512.lib.logging.SpartanChassisSpeedsEntry;
 import frc3512.lib.logging.SpartanDoubleEntry;
 import frc3512.lib.logging.SpartanPose2dEntry;
+import frc3512.lib.logging.SpartanSwerveModulePositionsEntry;
+import frc3512.lib.logging.SpartanSwerveModuleStatesEntry;
+import frc3512.lib.profiling.LatencyHistogram;
+import frc3512.lib.profiling.LoopProfiler;
+import frc3512.lib.util.MultiRateScheduler;
+import frc3512.lib.util.MutableSwerveKinematics;
+import frc3512.lib.util.SwerveSetpointGenerator;
+import frc3512.lib.util.TunableParameters;
 import frc3512.robot.Constants;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Swerve extends SubsystemBase {
-  private final Pigeon2 gyro;
+  /** What a Swerve instance is used for. */
+  public enum Mode {
+    /** The robot's drivetrain, on the robot or in the desktop simulation. */
+    kRobot,
+    /**
+     * A drivetrain stepped by a headless runner like SimRunner or LogReplay. It doesn't start the
+     * odometry thread, which samples on its own clock, so runs are deterministic.
+     */
+    kStepped,
+    /**
+     * A private copy for JIT warm-up or gain sweeps. It isn't registered with the command
+     * scheduler, publishes no telemetry, doesn't start the odometry thread and can't be tuned, so
+     * it never interferes with the robot's drivetrain. Its owner calls periodic() and
+     * simulationPeriodic() itself.
+     */
+    kDetached
+  }
+
+  private final GyroIO gyro;
+  private final Mode mode;
 
   private SwerveDrivePoseEstimator swervePoseEstimator;
   private SwerveModule[] mSwerveMods;
+  private final SwerveInputs inputs = new SwerveInputs(4);
+
+  // Preallocated buffers for the drive path so that driving does not allocate every loop.
+  private final MutableSwerveKinematics kinematics =
+      new MutableSwerveKinematics(Constants.Swerve.moduleLocations);
+  private final double[] desiredSpeeds = new double[4];
+  private final double[] desiredAngles = new double[4];
+  private final SwerveModuleState[] states = new SwerveModuleState[4];
+  private final SwerveModulePosition[] positions = new SwerveModulePosition[4];
+  private final double[] measuredSpeeds = new double[3];
+
+  // Limits module acceleration and steering velocity of driver requests, null when disabled.
+  private final SwerveSetpointGenerator setpointGenerator;
+
+  // Latest drive request. With a control tier it is reapplied at the tier's rate, otherwise it is
+  // applied as soon as it is made.
+  private double requestX;
+  private double requestY;
+  private double requestRotation;
+  private boolean requestFieldRelative;
+  private boolean requestOpenLoop;
+  private boolean requestIsModuleStates;
+  private boolean hasRequest = false;
+  private boolean hasControlTier = false;
+  private boolean hasTelemetryTier = false;
+  private double controlPeriod = TimedRobot.kDefaultPeriod;
+
+  // Guards the pose estimator, which is also fed from the odometry thread's samples.
+  private final ReentrantLock odometryLock = new ReentrantLock();
+  private final OdometryThread odometryThread;
+  private final SwerveModulePosition[] odometryPositions = new SwerveModulePosition[4];
+  private final OdometryThread.SampleConsumer odometryConsumer = this::addOdometrySample;
+
+  // Where the simulated robot really is, kept apart from the pose estimator so that simulated
+  // sensors like the vision camera don't see the field from the estimate they correct.
+  private final SwerveDriveOdometry simulatedOdometry;
+  private final SwerveModulePosition[] simulatedPositions = new SwerveModulePosition[4];
+
+  // Pose measurements from the vision thread, drained into the pose estimator every loop.
+  private VisionMeasurementQueue visionQueue;
+  private final VisionMeasurementQueue.MeasurementConsumer visionConsumer =
+      this::addVisionMeasurement;
+  private final LatencyHistogram visionLatency =
+      LoopProfiler.register("Vision/Capture To Fusion", TimedRobot.kDefaultPeriod * 2);
+  private double visionFusionTimestamp;
+
+  // Gains tuned from NetworkTables. The applied snapshot is kept in a plain field.
+  private final TunableParameters<SwerveTunables> tunables;
+  private SwerveTunables appliedTunables = SwerveTunables.kDefaults;
+
+  private final LatencyHistogram periodicTime =
+      LoopProfiler.register("Subsystems/Swerve", TimedRobot.kDefaultPeriod);
 
   private Field2d field;
   private final SpartanDoubleEntry gyroYaw;
   private final SpartanPose2dEntry odometryPose;
+  private final SpartanSwerveModuleStatesEntry moduleStates;
+  private final SpartanSwerveModuleStatesEntry desiredModuleStates;
+  private final SpartanSwerveModulePositionsEntry modulePositions;
+  private final SpartanChassisSpeedsEntry chassisSpeeds;
+  private final SpartanDoubleEntry odometryJitter;
+  private final SpartanDoubleEntry odometryAverageJitter;
+  private final SpartanDoubleEntry odometryDropped;
 
-  /** Subsystem class for the swerve drive. */
+  /**
+   * Subsystem class for the swerve drive. Uses the real hardware on the robot and the physics
+   * simulation everywhere else.
+   */
   public Swerve() {
-    gyro = new Pigeon2(Constants.Swerve.pigeonID);
-    gyro.configFactoryDefault();
+    this(Mode.kRobot);
+  }
+
+  /**
+   * Subsystem class for the swerve drive. Uses the real hardware on the robot and the physics
+   * simulation everywhere else.
+   *
+   * @param mode What the instance is used for
+   */
+  public Swerve(Mode mode) {
+    this(createGyroIO(), createModuleIOs(), mode);
+  }
+
+  private static GyroIO createGyroIO() {
+    if (RobotBase.isReal()) {
+      return new GyroIOPigeon2(Constants.Swerve.pigeonID);
+    }
+    return new GyroIOSim();
+  }
+
+  private static ModuleIO[] createModuleIOs() {
+    if (RobotBase.isReal()) {
+      // Configure the devices of every module at the same time.
+      var configurator = ModuleIOSparkMax.createConfigurator();
+      var modules =
+          new ModuleIOSparkMax[] {
+            new ModuleIOSparkMax(0, Constants.Swerve.Mod0.constants, configurator),
+            new ModuleIOSparkMax(1, Constants.Swerve.Mod1.constants, configurator),
+            new ModuleIOSparkMax(2, Constants.Swerve.Mod2.constants, configurator),
+            new ModuleIOSparkMax(3, Constants.Swerve.Mod3.constants, configurator)
+          };
+      configurator.run();
+      for (var module : modules) {
+        module.resetAbsolute();
+      }
+      return modules;
+    }
+    return new ModuleIO[] {
+      new ModuleIOSim(), new ModuleIOSim(), new ModuleIOSim(), new ModuleIOSim()
+    };
+  }
+
+  /**
+   * Subsystem class for the swerve drive.
+   *
+   * @param gyroIO Hardware of the gyro
+   * @param moduleIOs Hardware of the modules, indexed by module number
+   */
+  public Swerve(GyroIO gyroIO, ModuleIO[] moduleIOs) {
+    this(gyroIO, moduleIOs, Mode.kRobot);
+  }
+
+  /**
+   * Subsystem class for the swerve drive.
+   *
+   * @param gyroIO Hardware of the gyro
+   * @param moduleIOs Hardware of the modules, indexed by module number
+   * @param mode What the instance is used for
+   */
+  public Swerve(GyroIO gyroIO, ModuleIO[] moduleIOs, Mode mode) {
+    gyro = gyroIO;
+    this.mode = mode;
+    if (mode == Mode.kDetached) {
+      CommandScheduler.getInstance().unregisterSubsystem(this);
+    }
     zeroGyro();
 
-    mSwerveMods =
-        new SwerveModule[] {
-          new SwerveModule(0, Constants.Swerve.Mod0.constants),
-          new SwerveModule(1, Constants.Swerve.Mod1.constants),
-          new SwerveModule(2, Constants.Swerve.Mod2.constants),
-          new SwerveModule(3, Constants.Swerve.Mod3.constants)
-        };
+    mSwerveMods = new SwerveModule[moduleIOs.length];
+    for (int i = 0; i < moduleIOs.length; i++) {
+      mSwerveMods[i] = new SwerveModule(i, moduleIOs[i], inputs);
+    }
+    updateInputs();
+    tunables = SwerveTunables.createStore(mode == Mode.kRobot);
+    tunables.addListener(this::applyTunables);
+
+    for (int i = 0; i < mSwerveMods.length; i++) {
+      states[i] = new SwerveModuleState();
+      positions[i] = new SwerveModulePosition();
+      desiredAngles[i] = inputs.anglePositionDegrees[i];
+    }
+    if (Constants.Swerve.useSetpointGenerator) {
+      setpointGenerator =
+          new SwerveSetpointGenerator(
+              kinematics,
+              Constants.Swerve.maxModuleAcceleration,
+              Constants.Swerve.maxSteerVelocity,
+              Constants.Swerve.setpointGeneratorIterations);
+      setpointGenerator.reset(desiredSpeeds, desiredAngles);
+    } else {
+      setpointGenerator = null;
+    }
 
     swervePoseEstimator =
         new SwerveDrivePoseEstimator(
             Constants.Swerve.swerveKinematics, getYaw(), getPositions(), new Pose2d());
+    for (int i = 0; i < simulatedPositions.length; i++) {
+      simulatedPositions[i] = new SwerveModulePosition();
+    }
+    simulatedOdometry =
+        new SwerveDriveOdometry(
+            Constants.Swerve.swerveKinematics, getYaw(), getSimulatedPositions(), new Pose2d());
     field = new Field2d();
-    SmartDashboard.putData("Field", field);
+    if (mode == Mode.kRobot) {
+      SmartDashboard.putData("Field", field);
+    }
     gyroYaw = new SpartanDoubleEntry("/Diagnostics/Swerve/Gyro/Yaw", 0.0, true);
     odometryPose = new SpartanPose2dEntry("/Diagnostics/Swerve/Odometry", new Pose2d(), true);
+    moduleStates = new SpartanSwerveModuleStatesEntry("/Diagnostics/Swerve/States", 4, true);
+    desiredModuleStates =
+        new SpartanSwerveModuleStatesEntry("/Diagnostics/Swerve/Desired States", 4, true);
+    modulePositions =
+        new SpartanSwerveModulePositionsEntry("/Diagnostics/Swerve/Positions", 4, true);
+    chassisSpeeds = new SpartanChassisSpeedsEntry("/Diagnostics/Swerve/Chassis Speeds", true);
+    // Needed to reconstruct a match, so logged at full rate and kept when disk space is low.
+    odometryPose.setLevel(LogLevel.kCritical);
+    chassisSpeeds.setLevel(LogLevel.kCritical);
+    desiredModuleStates.setLevel(LogLevel.kControl);
+    // LogReplay reads these as one frame per loop, so none of them may be decimated.
+    gyroYaw.setLevel(LogLevel.kCritical);
+    moduleStates.setLevel(LogLevel.kCritical);
+    modulePositions.setLevel(LogLevel.kCritical);
+
+    if (Constants.Swerve.useOdometryThread && mode == Mode.kRobot) {
+      for (int i = 0; i < odometryPositions.length; i++) {
+        odometryPositions[i] = new SwerveModulePosition();
+      }
+      odometryJitter =
+          new SpartanDoubleEntry("/Diagnostics/Swerve/Odometry Thread/Max Jitter", 0.0, true);
+      odometryAverageJitter =
+          new SpartanDoubleEntry("/Diagnostics/Swerve/Odometry Thread/Average Jitter", 0.0, true);
+      odometryDropped =
+          new SpartanDoubleEntry("/Diagnostics/Swerve/Odometry Thread/Dropped", 0.0, true);
+      odometryThread =
+          new OdometryThread(gyro::getYawDegrees, mSwerveMods, Constants.Swerve.odometryFrequency);
+      odometryThread.start();
+    } else {
+      odometryJitter = null;
+      odometryAverageJitter = null;
+      odometryDropped = null;
+      odometryThread = null;
+    }
   }
 
   public void drive(
       Translation2d translation, double rotation, boolean fieldRelative, boolean isOpenLoop) {
-    SwerveModuleState[] swerveModuleStates =
-        Constants.Swerve.swerveKinematics.toSwerveModuleStates(
-            fieldRelative
-                ? ChassisSpeeds.fromFieldRelativeSpeeds(
-                    translation.getX(), translation.getY(), rotation, getYaw())
-                : new ChassisSpeeds(translation.getX(), translation.getY(), rotation));
-    SwerveDriveKinematics.desaturateWheelSpeeds(swerveModuleStates, Constants.Swerve.maxSpeed);
+    drive(translation.getX(), translation.getY(), rotation, fieldRelative, isOpenLoop);
+  }
+
+  /**
+   * Allocation-free drive method.
+   *
+   * @param xSpeed Forward velocity in meters per second
+   * @param ySpeed Sideways velocity in meters per second
+   * @param rotation Angular velocity in radians per second
+   * @param fieldRelative Whether the velocities are relative to the field
+   * @param isOpenLoop Whether to drive the wheels open loop
+   */
+  public void drive(
+      double xSpeed, double ySpeed, double rotation, boolean fieldRelative, boolean isOpenLoop) {
+    requestX = xSpeed;
+    requestY = ySpeed;
+    requestRotation = rotation;
+    requestFieldRelative = fieldRelative;
+    requestOpenLoop = isOpenLoop;
+    requestIsModuleStates = false;
+    hasRequest = true;
+    if (!hasControlTier) {
+      applyRequest();
+    }
+  }
+
+  /** Commands the modules with the latest drive request. */
+  private void applyRequest() {
+    if (!requestIsModuleStates) {
+      toModuleStates(
+          kinematics,
+          requestX,
+          requestY,
+          requestRotation,
+          requestFieldRelative,
+          inputs.gyroYawDegrees,
+          desiredSpeeds,
+          desiredAngles);
+      if (setpointGenerator != null) {
+        setpointGenerator.generate(desiredSpeeds, desiredAngles, controlPeriod);
+      }
+    }
 
     for (SwerveModule mod : mSwerveMods) {
-      mod.setDesiredState(swerveModuleStates[mod.moduleNumber], isOpenLoop);
+      mod.setDesiredState(
+          desiredSpeeds[mod.moduleNumber], desiredAngles[mod.moduleNumber], requestOpenLoop);
+    }
+  }
+
+  /**
+   * Converts a drive request into desaturated module speeds and angles. This is all of the math in
+   * {@link #drive(double, double, double, boolean, boolean)} without commanding the modules.
+   *
+   * @param kinematics Kinematics of the drivetrain
+   * @param xSpeed Forward velocity in meters per second
+   * @param ySpeed Sideways velocity in meters per second
+   * @param rotation Angular velocity in radians per second
+   * @param fieldRelative Whether the velocities are relative to the field
+   * @param yawDegrees Current gyro yaw
+   * @param speeds Output module speeds in meters per second
+   * @param anglesDegrees Output module angles in degrees
+   */
+  public static void toModuleStates(
+      MutableSwerveKinematics kinematics,
+      double xSpeed,
+      double ySpeed,
+      double rotation,
+      boolean fieldRelative,
+      double yawDegrees,
+      double[] speeds,
+      double[] anglesDegrees) {
+    double vx = xSpeed;
+    double vy = ySpeed;
+    if (fieldRelative) {
+      // Same as ChassisSpeeds.fromFieldRelativeSpeeds().
+      double yaw = Math.toRadians(yawDegrees);
+      double cos = Math.cos(yaw);
+      double sin = Math.sin(yaw);
+      vx = xSpeed * cos + ySpeed * sin;
+      vy = -xSpeed * sin + ySpeed * cos;
     }
+
+    kinematics.toModuleStates(vx, vy, rotation, speeds, anglesDegrees);
+    MutableSwerveKinematics.desaturateWheelSpeeds(speeds, Constants.Swerve.maxSpeed);
   }
 
   public void setModuleStates(SwerveModuleState[] desiredStates) {
-    SwerveDriveKinematics.desaturateWheelSpeeds(desiredStates, Constants.Swerve.maxSpeed);
+    for (int i = 0; i < desiredSpeeds.length; i++) {
+      desiredSpeeds[i] = desiredStates[i].speedMetersPerSecond;
+      desiredAngles[i] = desiredStates[i].angle.getDegrees();
+    }
+    applyPathFollowingStates();
+  }
 
-    for (SwerveModule mod : mSwerveMods) {
-      mod.setDesiredState(desiredStates[mod.moduleNumber], false);
+  /**
+   * Allocation-free equivalent of {@link #setModuleStates(SwerveModuleState[])} with the module
+   * states of robot relative chassis speeds.
+   *
+   * @param vx Forward velocity in meters per second
+   * @param vy Sideways velocity in meters per second
+   * @param omega Angular velocity in radians per second
+   */
+  public void setChassisSpeeds(double vx, double vy, double omega) {
+    kinematics.toModuleStates(vx, vy, omega, desiredSpeeds, desiredAngles);
+    applyPathFollowingStates();
+  }
+
+  /** Commands the modules with the module states in the desired state buffers. */
+  private void applyPathFollowingStates() {
+    MutableSwerveKinematics.desaturateWheelSpeeds(desiredSpeeds, Constants.Swerve.maxSpeed);
+    // Path following already respects the robot's limits. Start the next driver request from
+    // these states instead of from stale ones.
+    if (setpointGenerator != null) {
+      setpointGenerator.reset(desiredSpeeds, desiredAngles);
     }
+
+    requestOpenLoop = false;
+    requestIsModuleStates = true;
+    hasRequest = true;
+    if (!hasControlTier) {
+      applyRequest();
+    }
+  }
+
+  /**
+   * Moves module control and telemetry out of the main loop into their own tiers. Module control
+   * then runs at the control tier's rate, with the setpoint generator stepping at that rate too.
+   *
+   * @param control Tier that reapplies the latest drive request to the modules
+   * @param telemetry Tier that publishes the drivetrain telemetry
+   */
+  public void useTiers(MultiRateScheduler.Tier control, MultiRateScheduler.Tier telemetry) {
+    controlPeriod = control.getPeriod();
+    hasControlTier = true;
+    control.add(this::controlPeriodic);
+    hasTelemetryTier = true;
+    telemetry.add(this::telemetryPeriodic);
+  }
+
+  /**
+   * Fuses the pose measurements from a vision queue into the pose estimator.
+   *
+   * @param queue Queue of vision measurements, or null to stop fusing them
+   */
+  public void setVisionQueue(VisionMeasurementQueue queue) {
+    visionQueue = queue;
   }
 
   public Pose2d getPose() {
-    return swervePoseEstimator.getEstimatedPosition();
+    odometryLock.lock();
+    try {
+      return swervePoseEstimator.getEstimatedPosition();
+    } finally {
+      odometryLock.unlock();
+    }
   }
 
   public void resetOdometry(Pose2d pose) {
-    swervePoseEstimator.resetPosition(getYaw(), getPositions(), pose);
+    odometryLock.lock();
+    try {
+      // Samples queued before the reset would be applied on top of the new pose.
+      if (odometryThread != null) {
+        odometryThread.clear();
+      }
+      if (visionQueue != null) {
+        visionQueue.clear();
+      }
+      updateInputs();
+      swervePoseEstimator.resetPosition(getYaw(), getPositions(), pose);
+      // Resetting the pose at the start of an auton stands for placing the robot there.
+      simulatedOdometry.resetPosition(getYaw(), getSimulatedPositions(), pose);
+    } finally {
+      odometryLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the pose of the simulated robot, which the simulated sensors see the field from. It
+   * only follows the simulated hardware and never gets vision corrections. Only meaningful in
+   * simulation.
+   *
+   * @return The simulated pose
+   */
+  public Pose2d getSimulatedPose() {
+    return simulatedOdometry.getPoseMeters();
+  }
+
+  private SwerveModulePosition[] getSimulatedPositions() {
+    for (SwerveModule mod : mSwerveMods) {
+      mod.updatePosition(simulatedPositions[mod.moduleNumber]);
+    }
+    return simulatedPositions;
   }
 
+  /**
+   * Returns the current module states. The returned array and its states are reused between calls.
+   *
+   * @return Module states indexed by module number
+   */
   public SwerveModuleState[] getStates() {
-    SwerveModuleState[] states = new SwerveModuleState[4];
     for (SwerveModule mod : mSwerveMods) {
-      states[mod.moduleNumber] = mod.getState();
+      mod.updateState(states[mod.moduleNumber]);
     }
     return states;
   }
 
+  /**
+   * Returns the current module positions. The returned array and its positions are reused between
+   * calls.
+   *
+   * @return Module positions indexed by module number
+   */
   public SwerveModulePosition[] getPositions() {
-    SwerveModulePosition[] positions = new SwerveModulePosition[4];
     for (SwerveModule mod : mSwerveMods) {
-      positions[mod.moduleNumber] = mod.getPosition();
+      mod.updatePosition(positions[mod.moduleNumber]);
     }
     return positions;
   }
@@ -101,19 +492,120 @@ public class Swerve extends SubsystemBase {
   }
 
   public Rotation2d getYaw() {
-    return (Constants.Swerve.invertGyro)
-        ? Rotation2d.fromDegrees(360 - gyro.getYaw())
-        : Rotation2d.fromDegrees(gyro.getYaw());
+    return Rotation2d.fromDegrees(inputs.gyroYawDegrees);
+  }
+
+  /** Reads every drivetrain sensor exactly once into the snapshot. */
+  private void updateInputs() {
+    gyro.updateInputs(inputs);
+    for (SwerveModule mod : mSwerveMods) {
+      mod.updateInputs();
+    }
+  }
+
+  private void addOdometrySample(
+      double timestamp, double yawDegrees, double[] distancesMeters, double[] anglesDegrees) {
+    for (int i = 0; i < odometryPositions.length; i++) {
+      odometryPositions[i].distanceMeters = distancesMeters[i];
+      odometryPositions[i].angle = Rotation2d.fromDegrees(anglesDegrees[i]);
+    }
+    swervePoseEstimator.updateWithTime(
+        timestamp, Rotation2d.fromDegrees(yawDegrees), odometryPositions);
+  }
+
+  private void addVisionMeasurement(
+      double timestamp, double xMeters, double yMeters, double thetaRadians) {
+    // The estimator replays the odometry recorded since the image was captured on top of it.
+    swervePoseEstimator.addVisionMeasurement(
+        new Pose2d(xMeters, yMeters, new Rotation2d(thetaRadians)), timestamp);
+    visionLatency.record((long) ((visionFusionTimestamp - timestamp) * 1e9));
+  }
+
+  private void applyTunables(SwerveTunables current) {
+    for (SwerveModule mod : mSwerveMods) {
+      mod.applyTunables(appliedTunables, current);
+    }
+    appliedTunables = current;
   }
 
   @Override
   public void periodic() {
-    swervePoseEstimator.update(getYaw(), getPositions());
+    long start = System.nanoTime();
+    updateInputs();
+    // Constant folded away in competition mode.
+    if (!Constants.General.competitionMode) {
+      tunables.periodic();
+    }
+
+    odometryLock.lock();
+    try {
+      if (odometryThread != null) {
+        odometryThread.drain(odometryConsumer);
+      } else {
+        swervePoseEstimator.updateWithTime(inputs.gyroTimestamp, getYaw(), getPositions());
+      }
+      if (visionQueue != null) {
+        visionFusionTimestamp = Timer.getFPGATimestamp();
+        visionQueue.drain(visionConsumer);
+      }
+    } finally {
+      odometryLock.unlock();
+    }
+
+    if (!hasTelemetryTier && mode == Mode.kRobot) {
+      telemetryPeriodic();
+    }
+    periodicTime.recordSince(start);
+  }
+
+  /** Reapplies the latest drive request against fresh sensor readings. */
+  private void controlPeriodic() {
+    if (!hasRequest) {
+      return;
+    }
+    // Don't replay a stale request once the robot is enabled again.
+    if (DriverStation.isDisabled()) {
+      hasRequest = false;
+      return;
+    }
+    updateInputs();
+    applyRequest();
+  }
+
+  private void telemetryPeriodic() {
     for (SwerveModule mod : mSwerveMods) {
       mod.periodic();
     }
-    field.setRobotPose(getPose());
-    gyroYaw.set(getYaw().getDegrees());
-    odometryPose.set(getPose());
+    Pose2d pose = getPose();
+    field.setRobotPose(pose);
+    gyroYaw.set(inputs.gyroYawDegrees);
+    odometryPose.set(pose);
+    moduleStates.set(inputs.driveVelocityMetersPerSecond, inputs.anglePositionDegrees);
+    desiredModuleStates.set(desiredSpeeds, desiredAngles);
+    modulePositions.set(inputs.drivePositionMeters, inputs.anglePositionDegrees);
+    kinematics.toChassisSpeeds(
+        inputs.driveVelocityMetersPerSecond, inputs.anglePositionDegrees, measuredSpeeds);
+    chassisSpeeds.set(measuredSpeeds[0], measuredSpeeds[1], measuredSpeeds[2]);
+
+    if (odometryThread != null) {
+      odometryJitter.set(odometryThread.getMaxJitter() * 1000.0);
+      odometryAverageJitter.set(odometryThread.getAverageJitter() * 1000.0);
+      odometryDropped.set(odometryThread.getDroppedSamples());
+    }
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    for (SwerveModule mod : mSwerveMods) {
+      mod.simulationPeriodic(TimedRobot.kDefaultPeriod);
+    }
+
+    // Turn the simulated gyro by however much the simulated modules turned the robot.
+    updateInputs();
+    kinematics.toChassisSpeeds(
+        inputs.driveVelocityMetersPerSecond, inputs.anglePositionDegrees, measuredSpeeds);
+    gyro.simulationPeriodic(measuredSpeeds[2], TimedRobot.kDefaultPeriod);
+
+    simulatedOdometry.update(Rotation2d.fromDegrees(gyro.getYawDegrees()), getSimulatedPositions());
   }
 }
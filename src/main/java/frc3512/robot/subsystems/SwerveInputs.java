@@ -0,0 +1,35 @@
+package frc3512.robot.subsystems;
+
+/**
+ * Snapshot of every sensor reading on the swerve drive, taken once at the start of each loop.
+ * Control, odometry and telemetry all read from the snapshot instead of going back to the devices,
+ * so each sensor is only read once per cycle. Module readings are indexed by module number.
+ */
+public class SwerveInputs {
+  /* Gyro */
+  public double gyroYawDegrees = 0.0;
+  public double gyroTimestamp = 0.0;
+  public double gyroYawRateDegreesPerSecond = 0.0;
+  public double gyroAccelerationXG = 0.0;
+  public double gyroAccelerationYG = 0.0;
+
+  /* Modules */
+  public final double[] drivePositionMeters;
+  public final double[] driveVelocityMetersPerSecond;
+  public final double[] anglePositionDegrees;
+  public final double[] cancoderDegrees;
+  public final double[] moduleTimestamps;
+
+  /**
+   * Creates a new, zeroed snapshot.
+   *
+   * @param numModules Number of swerve modules.
+   */
+  public SwerveInputs(int numModules) {
+    drivePositionMeters = new double[numModules];
+    driveVelocityMetersPerSecond = new double[numModules];
+    anglePositionDegrees = new double[numModules];
+    cancoderDegrees = new double[numModules];
+    moduleTimestamps = new double[numModules];
+  }
+}
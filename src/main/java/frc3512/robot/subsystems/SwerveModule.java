@@ -1,53 +1,43 @@
 package frc3512.robot.subsystems;
 
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import frc3512.lib.logging.SpartanDoubleEntry;
-import frc3512.lib.motion.SpartanCANCoder;
-import frc3512.lib.motion.SpartanSparkMax;
-import frc3512.lib.util.CANSparkMaxUtil.Usage;
-import frc3512.lib.util.SwerveModuleConstants;
+import frc3512.lib.util.Rotation2dTable;
 import frc3512.robot.Constants;
 
 public class SwerveModule {
   public int moduleNumber;
-  private Rotation2d lastAngle;
-  private Rotation2d angleOffset;
+  private double lastAngle;
 
-  private SpartanSparkMax angleMotor;
-  private SpartanSparkMax driveMotor;
-  private SpartanCANCoder angleEncoder;
+  private final ModuleIO io;
+  private final SwerveInputs inputs;
+  private final double[] optimized = new double[2];
 
-  private final SimpleMotorFeedforward feedforward =
+  private SimpleMotorFeedforward feedforward =
       new SimpleMotorFeedforward(
-          Constants.Swerve.driveKS, Constants.Swerve.driveKV, Constants.Swerve.driveKA);
+          SwerveTunables.kDefaults.driveKS,
+          SwerveTunables.kDefaults.driveKV,
+          SwerveTunables.kDefaults.driveKA);
 
   private final SpartanDoubleEntry cancoderReading;
   private final SpartanDoubleEntry integratedReading;
   private final SpartanDoubleEntry velocityReading;
 
   /**
-   * Creates a new swerve module with NEO motors and a CTRE CANCoder.
+   * Creates a new swerve module.
    *
    * @param moduleNumber - Number of the module (0-3)
-   * @param moduleIO - Module IO for the appropriate module
+   * @param io - Hardware of the module
+   * @param inputs - Sensor snapshot shared with the drivetrain
    */
-  public SwerveModule(int moduleNumber, SwerveModuleConstants moduleConstants) {
+  public SwerveModule(int moduleNumber, ModuleIO io, SwerveInputs inputs) {
     this.moduleNumber = moduleNumber;
-    angleOffset = moduleConstants.angleOffset;
-
-    angleEncoder = new SpartanCANCoder(moduleConstants.cancoderID, Constants.Swerve.canCoderInvert);
-
-    angleMotor =
-        new SpartanSparkMax(
-            moduleConstants.angleMotorID, Constants.Swerve.angleInvert, Usage.kPositionOnly);
-    configAngleMotor();
-
-    driveMotor =
-        new SpartanSparkMax(moduleConstants.driveMotorID, Constants.Swerve.driveInvert, Usage.kAll);
-    configDriveMotor();
+    this.io = io;
+    this.inputs = inputs;
 
     cancoderReading =
         new SpartanDoubleEntry("/Diagnostics/Swerve/Mod " + moduleNumber + "/CANCoder", 0.0, true);
@@ -57,98 +47,164 @@ public class SwerveModule {
     velocityReading =
         new SpartanDoubleEntry("/Diagnostics/Swerve/Mod " + moduleNumber + "/Velocity", 0.0, true);
 
-    lastAngle = getState().angle;
-  }
-
-  private void configAngleMotor() {
-    angleMotor.setSmartCurrentLimit(Constants.Swerve.angleContinuousCurrentLimit);
-    angleMotor.setIdleMode(Constants.Swerve.angleNeutralMode);
-    angleMotor.setPositionConversionFactor(Constants.Swerve.angleConversionFactor);
-    angleMotor.setPID(
-        Constants.Swerve.angleKP,
-        Constants.Swerve.angleKI,
-        Constants.Swerve.angleKD,
-        Constants.Swerve.angleKFF);
-    angleMotor.enableContinuousInput(0.0, 360.0);
-    angleMotor.enableVoltageComp(Constants.General.voltageComp);
-    angleMotor.burnFlash();
-    resetAbsolute();
-  }
-
-  private void configDriveMotor() {
-    driveMotor.setSmartCurrentLimit(Constants.Swerve.driveContinuousCurrentLimit);
-    driveMotor.setIdleMode(Constants.Swerve.driveNeutralMode);
-    driveMotor.setConversionFactors(
-        Constants.Swerve.driveConversionPositionFactor,
-        Constants.Swerve.driveConversionVelocityFactor);
-    driveMotor.setPID(
-        Constants.Swerve.driveKP,
-        Constants.Swerve.driveKI,
-        Constants.Swerve.driveKD,
-        Constants.Swerve.driveKFF);
-    driveMotor.enableVoltageComp(Constants.General.voltageComp);
-    driveMotor.burnFlash();
-    driveMotor.setPosition(0.0);
-  }
-
-  private void resetAbsolute() {
-    double absolutePosition = getCanCoder().getDegrees() - angleOffset.getDegrees();
-    angleMotor.setPosition(absolutePosition);
+    lastAngle = getAngleDegrees();
+  }
+
+  /**
+   * Applies tuned gains, only sending the ones that changed.
+   *
+   * @param previous Gains currently applied
+   * @param current Gains to apply
+   */
+  public void applyTunables(SwerveTunables previous, SwerveTunables current) {
+    if (current.drivePIDDiffers(previous)) {
+      io.setDrivePID(current.driveKP, current.driveKI, current.driveKD, current.driveKFF);
+    }
+    if (current.anglePIDDiffers(previous)) {
+      io.setAnglePID(current.angleKP, current.angleKI, current.angleKD, current.angleKFF);
+    }
+    if (current.feedforwardDiffers(previous)) {
+      feedforward = new SimpleMotorFeedforward(current.driveKS, current.driveKV, current.driveKA);
+    }
   }
 
   public void setDesiredState(SwerveModuleState desiredState, boolean isOpenLoop) {
-    desiredState = SwerveModuleState.optimize(desiredState, getState().angle);
+    setDesiredState(desiredState.speedMetersPerSecond, desiredState.angle.getDegrees(), isOpenLoop);
+  }
 
-    setAngle(desiredState);
-    setSpeed(desiredState, isOpenLoop);
+  /**
+   * Allocation-free version of {@link #setDesiredState(SwerveModuleState, boolean)}.
+   *
+   * @param speedMetersPerSecond Desired wheel speed
+   * @param angleDegrees Desired module angle
+   * @param isOpenLoop Whether to drive the wheel open loop
+   */
+  public void setDesiredState(
+      double speedMetersPerSecond, double angleDegrees, boolean isOpenLoop) {
+    optimize(
+        speedMetersPerSecond, angleDegrees, inputs.anglePositionDegrees[moduleNumber], optimized);
+    setAngle(optimized[0], optimized[1]);
+    setSpeed(optimized[0], isOpenLoop);
+  }
+
+  /**
+   * Equivalent to SwerveModuleState.optimize() without the intermediate objects. Flips the wheel
+   * direction instead of turning the module more than 90 degrees.
+   *
+   * @param speedMetersPerSecond Desired wheel speed
+   * @param angleDegrees Desired module angle
+   * @param currentAngleDegrees Current module angle
+   * @param out Output of [speed, angle in degrees]
+   */
+  public static void optimize(
+      double speedMetersPerSecond, double angleDegrees, double currentAngleDegrees, double[] out) {
+    double delta = MathUtil.inputModulus(angleDegrees - currentAngleDegrees, -180.0, 180.0);
+    if (Math.abs(delta) > 90.0) {
+      speedMetersPerSecond = -speedMetersPerSecond;
+      angleDegrees += 180.0;
+    }
+    out[0] = speedMetersPerSecond;
+    out[1] = MathUtil.inputModulus(angleDegrees, -180.0, 180.0);
   }
 
-  private void setSpeed(SwerveModuleState desiredState, boolean isOpenLoop) {
+  private void setSpeed(double speedMetersPerSecond, boolean isOpenLoop) {
     if (isOpenLoop) {
-      double percentOutput = desiredState.speedMetersPerSecond / Constants.Swerve.maxSpeed;
-      driveMotor.set(percentOutput);
+      double percentOutput = speedMetersPerSecond / Constants.Swerve.maxSpeed;
+      io.setDrivePercent(percentOutput);
     } else {
-      driveMotor.performVelocityControl(
-          desiredState.speedMetersPerSecond,
-          feedforward.calculate(desiredState.speedMetersPerSecond));
+      io.setDriveVelocity(speedMetersPerSecond, feedforward.calculate(speedMetersPerSecond));
     }
   }
 
-  private void setAngle(SwerveModuleState desiredState) {
+  private void setAngle(double speedMetersPerSecond, double angleDegrees) {
     // Prevent rotating module if speed is less then 1%. Prevents jittering.
-    Rotation2d angle =
-        (Math.abs(desiredState.speedMetersPerSecond) <= (Constants.Swerve.maxSpeed * 0.01))
+    double angle =
+        (Math.abs(speedMetersPerSecond) <= (Constants.Swerve.maxSpeed * 0.01))
             ? lastAngle
-            : desiredState.angle;
+            : angleDegrees;
 
-    angleMotor.performPositionControl(angle.getDegrees());
+    io.setAnglePosition(angle);
     lastAngle = angle;
   }
 
+  // The angle stays in degrees in the snapshot. Positions feed odometry, so they get the exact
+  // angle. States are only used for control and display, so they share preallocated rotations.
   private Rotation2d getAngle() {
-    return Rotation2d.fromDegrees(angleMotor.getPosition());
+    return Rotation2d.fromDegrees(inputs.anglePositionDegrees[moduleNumber]);
+  }
+
+  private Rotation2d getStateAngle() {
+    return Rotation2dTable.fromDegrees(inputs.anglePositionDegrees[moduleNumber]);
   }
 
   public Rotation2d getCanCoder() {
-    return Rotation2d.fromDegrees(angleEncoder.getAbsolutePosition());
+    return Rotation2d.fromDegrees(inputs.cancoderDegrees[moduleNumber]);
   }
 
   public void stop() {
-    driveMotor.stop();
-    angleMotor.stop();
+    io.stop();
+  }
+
+  /**
+   * Reads every sensor on the module exactly once into the shared snapshot. Everything else on the
+   * module works off of the snapshot for the rest of the loop.
+   */
+  public void updateInputs() {
+    io.updateInputs(inputs, moduleNumber);
   }
 
   public SwerveModuleState getState() {
-    return new SwerveModuleState(driveMotor.getVelocity(), getAngle());
+    return new SwerveModuleState(
+        inputs.driveVelocityMetersPerSecond[moduleNumber], getStateAngle());
   }
 
   public SwerveModulePosition getPosition() {
-    return new SwerveModulePosition(driveMotor.getPosition(), getAngle());
+    return new SwerveModulePosition(inputs.drivePositionMeters[moduleNumber], getAngle());
+  }
+
+  /**
+   * Writes the current state into an existing object instead of allocating a new one.
+   *
+   * @param state State to update
+   */
+  public void updateState(SwerveModuleState state) {
+    state.speedMetersPerSecond = inputs.driveVelocityMetersPerSecond[moduleNumber];
+    state.angle = getStateAngle();
+  }
+
+  /**
+   * Writes the current position into an existing object instead of allocating a new one. Only
+   * the exact angle is allocated, since odometry needs it.
+   *
+   * @param position Position to update
+   */
+  public void updatePosition(SwerveModulePosition position) {
+    position.distanceMeters = inputs.drivePositionMeters[moduleNumber];
+    position.angle = getAngle();
+  }
+
+  /* Direct sensor reads for the odometry thread, which samples faster than the snapshot. */
+
+  public double getDistanceMeters() {
+    return io.getDrivePositionMeters();
+  }
+
+  public double getAngleDegrees() {
+    return io.getAnglePositionDegrees();
+  }
+
+  /**
+   * Advances the simulated hardware. Does nothing on real hardware.
+   *
+   * @param dtSeconds Time since the last call
+   */
+  public void simulationPeriodic(double dtSeconds) {
+    io.simulationPeriodic(dtSeconds);
   }
 
   public void periodic() {
-    cancoderReading.set(getCanCoder().getDegrees());
-    integratedReading.set(getAngle().getDegrees());
-    velocityReading.set(driveMotor.getVelocity());
+    cancoderReading.set(inputs.cancoderDegrees[moduleNumber]);
+    integratedReading.set(inputs.anglePositionDegrees[moduleNumber]);
+    velocityReading.set(inputs.driveVelocityMetersPerSecond[moduleNumber]);
   }
 }
@@ -0,0 +1,133 @@
+package frc3512.robot.subsystems;
+
+import frc3512.lib.util.TunableParameters;
+import frc3512.robot.Constants;
+
+/**
+ * Snapshot of the swerve gains that can be tuned from NetworkTables under /Tuning/Swerve. Starts
+ * out with the values in {@link Constants.Swerve}. In competition mode the gains can't be tuned
+ * and {@link #kDefaults} is used everywhere.
+ */
+public final class SwerveTunables {
+  public static final SwerveTunables kDefaults =
+      new SwerveTunables(
+          new double[] {
+            Constants.Swerve.driveKP,
+            Constants.Swerve.driveKI,
+            Constants.Swerve.driveKD,
+            Constants.Swerve.driveKFF,
+            Constants.Swerve.angleKP,
+            Constants.Swerve.angleKI,
+            Constants.Swerve.angleKD,
+            Constants.Swerve.angleKFF,
+            Constants.Swerve.driveKS,
+            Constants.Swerve.driveKV,
+            Constants.Swerve.driveKA
+          });
+
+  private static final String[] kNames = {
+    "Drive kP", "Drive kI", "Drive kD", "Drive kFF",
+    "Angle kP", "Angle kI", "Angle kD", "Angle kFF",
+    "Drive kS", "Drive kV", "Drive kA"
+  };
+
+  public final double driveKP;
+  public final double driveKI;
+  public final double driveKD;
+  public final double driveKFF;
+  public final double angleKP;
+  public final double angleKI;
+  public final double angleKD;
+  public final double angleKFF;
+  public final double driveKS;
+  public final double driveKV;
+  public final double driveKA;
+
+  private SwerveTunables(double[] values) {
+    driveKP = values[0];
+    driveKI = values[1];
+    driveKD = values[2];
+    driveKFF = values[3];
+    angleKP = values[4];
+    angleKI = values[5];
+    angleKD = values[6];
+    angleKFF = values[7];
+    driveKS = values[8];
+    driveKV = values[9];
+    driveKA = values[10];
+  }
+
+  /**
+   * Creates the store of tunable swerve gains.
+   *
+   * @return The store, which never changes in competition mode.
+   */
+  public static TunableParameters<SwerveTunables> createStore() {
+    return createStore(true);
+  }
+
+  /**
+   * Creates a store of swerve gains.
+   *
+   * @param tunable Whether the gains can be changed from NetworkTables outside of competition mode.
+   *     When false, the store doesn't touch NetworkTables and always holds the defaults.
+   * @return The store.
+   */
+  public static TunableParameters<SwerveTunables> createStore(boolean tunable) {
+    double[] defaults = {
+      kDefaults.driveKP,
+      kDefaults.driveKI,
+      kDefaults.driveKD,
+      kDefaults.driveKFF,
+      kDefaults.angleKP,
+      kDefaults.angleKI,
+      kDefaults.angleKD,
+      kDefaults.angleKFF,
+      kDefaults.driveKS,
+      kDefaults.driveKV,
+      kDefaults.driveKA
+    };
+    return new TunableParameters<>(
+        "/Tuning/Swerve",
+        kNames,
+        defaults,
+        SwerveTunables::new,
+        tunable && !Constants.General.competitionMode);
+  }
+
+  /**
+   * Returns whether the PID gains of the drive motors differ from another snapshot.
+   *
+   * @param other Snapshot to compare to.
+   * @return Whether any drive PID gain differs.
+   */
+  public boolean drivePIDDiffers(SwerveTunables other) {
+    return driveKP != other.driveKP
+        || driveKI != other.driveKI
+        || driveKD != other.driveKD
+        || driveKFF != other.driveKFF;
+  }
+
+  /**
+   * Returns whether the PID gains of the angle motors differ from another snapshot.
+   *
+   * @param other Snapshot to compare to.
+   * @return Whether any angle PID gain differs.
+   */
+  public boolean anglePIDDiffers(SwerveTunables other) {
+    return angleKP != other.angleKP
+        || angleKI != other.angleKI
+        || angleKD != other.angleKD
+        || angleKFF != other.angleKFF;
+  }
+
+  /**
+   * Returns whether the drive feedforward gains differ from another snapshot.
+   *
+   * @param other Snapshot to compare to.
+   * @return Whether any feedforward gain differs.
+   */
+  public boolean feedforwardDiffers(SwerveTunables other) {
+    return driveKS != other.driveKS || driveKV != other.driveKV || driveKA != other.driveKA;
+  }
+}
@@ -0,0 +1,148 @@
+package frc3512.robot.subsystems;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc3512.lib.logging.SpartanDoubleEntry;
+import frc3512.lib.profiling.LatencyHistogram;
+import frc3512.lib.profiling.LoopProfiler;
+import frc3512.robot.Constants;
+import java.io.IOException;
+import java.util.function.Supplier;
+import org.photonvision.PhotonCamera;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.SimVisionSystem;
+import org.photonvision.targeting.PhotonPipelineResult;
+
+/**
+ * Estimates the robot pose from AprilTags. Camera results are fetched and solved on a dedicated
+ * thread, and the solved poses are passed to the main loop through a {@link VisionMeasurementQueue}
+ * that {@link Swerve} drains into its pose estimator, so a slow solve never holds up the robot
+ * loop.
+ *
+ * <p>In simulation the camera is replaced by photonlib's simulated camera, which sees the field's
+ * AprilTags from the pose supplied to the constructor. That has to be the simulated robot's true
+ * pose, not the estimate the measurements are fused into.
+ */
+public class Vision extends SubsystemBase {
+  private final PhotonCamera camera;
+  private final PhotonPoseEstimator poseEstimator;
+  private final VisionMeasurementQueue queue =
+      new VisionMeasurementQueue(Constants.Vision.queueCapacity);
+  private final Notifier notifier;
+
+  private final Supplier<Pose2d> simPoseSupplier;
+  private final SimVisionSystem simVision;
+
+  // Only touched by the vision thread.
+  private double lastResultTimestamp = 0.0;
+
+  private final LatencyHistogram solveTime =
+      LoopProfiler.register("Vision/Solve", 1.0 / Constants.Vision.updateFrequency);
+  private final LatencyHistogram captureToSolve =
+      LoopProfiler.register("Vision/Capture To Solve", TimedRobot.kDefaultPeriod);
+  private final SpartanDoubleEntry droppedMeasurements =
+      new SpartanDoubleEntry("/Diagnostics/Vision/Dropped", 0.0, true);
+
+  /**
+   * Subsystem class for the vision camera.
+   *
+   * @param simPoseSupplier Pose the simulated camera sees the field from. Unused on the robot.
+   */
+  public Vision(Supplier<Pose2d> simPoseSupplier) {
+    this.simPoseSupplier = simPoseSupplier;
+
+    AprilTagFieldLayout layout;
+    try {
+      layout = AprilTagFieldLayout.loadFromResource(AprilTagFields.k2023ChargedUp.m_resourceFile);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to load the AprilTag field layout", e);
+    }
+
+    camera = new PhotonCamera(Constants.Vision.visionCameraName);
+    poseEstimator =
+        new PhotonPoseEstimator(
+            layout, PoseStrategy.LOWEST_AMBIGUITY, camera, Constants.Vision.ROBOT_TO_CAMERA);
+
+    if (RobotBase.isReal()) {
+      simVision = null;
+    } else {
+      simVision =
+          new SimVisionSystem(
+              Constants.Vision.visionCameraName,
+              Constants.Vision.simDiagonalFovDegrees,
+              Constants.Vision.ROBOT_TO_CAMERA,
+              Constants.Vision.simMaxRangeMeters,
+              Constants.Vision.simResolutionWidth,
+              Constants.Vision.simResolutionHeight,
+              Constants.Vision.simMinTargetArea);
+      simVision.addVisionTargets(layout);
+    }
+
+    notifier = new Notifier(this::update);
+    notifier.setName("VisionThread");
+    notifier.startPeriodic(1.0 / Constants.Vision.updateFrequency);
+  }
+
+  /**
+   * Returns the queue of solved pose measurements.
+   *
+   * @return The measurement queue.
+   */
+  public VisionMeasurementQueue getQueue() {
+    return queue;
+  }
+
+  /** Fetches the latest camera result and queues the solved pose. Runs on the vision thread. */
+  private void update() {
+    long start = System.nanoTime();
+    PhotonPipelineResult result = camera.getLatestResult();
+    double timestamp = result.getTimestampSeconds();
+    if (timestamp == lastResultTimestamp || !result.hasTargets()) {
+      return;
+    }
+    lastResultTimestamp = timestamp;
+
+    // Targets without a 3D solve report an ambiguity of -1.
+    double ambiguity = Double.MAX_VALUE;
+    for (var target : result.getTargets()) {
+      double targetAmbiguity = target.getPoseAmbiguity();
+      if (targetAmbiguity >= 0.0 && targetAmbiguity < ambiguity) {
+        ambiguity = targetAmbiguity;
+      }
+    }
+    if (ambiguity > Constants.Vision.maxAmbiguity) {
+      return;
+    }
+
+    var estimate = poseEstimator.update(result);
+    if (estimate.isEmpty()) {
+      return;
+    }
+    var pose = estimate.get().estimatedPose;
+    queue.offer(
+        estimate.get().timestampSeconds,
+        pose.getX(),
+        pose.getY(),
+        pose.getRotation().toRotation2d().getRadians());
+
+    solveTime.recordSince(start);
+    captureToSolve.record((long) ((Timer.getFPGATimestamp() - timestamp) * 1e9));
+  }
+
+  @Override
+  public void periodic() {
+    droppedMeasurements.set(queue.getDroppedMeasurements());
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    simVision.processFrame(simPoseSupplier.get());
+  }
+}
@@ -0,0 +1,95 @@
+package frc3512.robot.subsystems;
+
+/**
+ * Lock-free single-producer, single-consumer queue of vision pose measurements. The vision thread
+ * offers measurements and the main loop drains them, and neither ever waits on the other. The
+ * queue is a preallocated ring buffer, so it doesn't allocate either.
+ */
+public class VisionMeasurementQueue {
+  /** Receives a single measurement drained from the queue. */
+  public interface MeasurementConsumer {
+    void accept(double timestamp, double xMeters, double yMeters, double thetaRadians);
+  }
+
+  private final int capacity;
+  private final double[] timestamps;
+  private final double[] xs;
+  private final double[] ys;
+  private final double[] thetas;
+
+  // Only written by the consumer.
+  private volatile long head = 0;
+
+  // Only written by the producer. Writing it publishes the slot that was just filled.
+  private volatile long tail = 0;
+  private volatile long droppedMeasurements = 0;
+
+  /**
+   * Creates a new VisionMeasurementQueue.
+   *
+   * @param capacity Number of measurements the queue can hold
+   */
+  public VisionMeasurementQueue(int capacity) {
+    this.capacity = capacity;
+    timestamps = new double[capacity];
+    xs = new double[capacity];
+    ys = new double[capacity];
+    thetas = new double[capacity];
+  }
+
+  /**
+   * Adds a measurement. Only call from the producer thread.
+   *
+   * @param timestamp FPGA timestamp of when the image was captured, in seconds
+   * @param xMeters Field-relative x of the measured robot pose
+   * @param yMeters Field-relative y of the measured robot pose
+   * @param thetaRadians Heading of the measured robot pose
+   * @return False if the queue was full and the measurement was dropped
+   */
+  public boolean offer(double timestamp, double xMeters, double yMeters, double thetaRadians) {
+    long t = tail;
+    if (t - head >= capacity) {
+      droppedMeasurements++;
+      return false;
+    }
+    int index = (int) (t % capacity);
+    timestamps[index] = timestamp;
+    xs[index] = xMeters;
+    ys[index] = yMeters;
+    thetas[index] = thetaRadians;
+    tail = t + 1;
+    return true;
+  }
+
+  /**
+   * Removes all queued measurements and passes them to the consumer, oldest first. Only call from
+   * the consumer thread.
+   *
+   * @param consumer Consumer for each drained measurement
+   * @return Number of measurements drained
+   */
+  public int drain(MeasurementConsumer consumer) {
+    long h = head;
+    long t = tail;
+    for (long i = h; i < t; i++) {
+      int index = (int) (i % capacity);
+      consumer.accept(timestamps[index], xs[index], ys[index], thetas[index]);
+    }
+    head = t;
+    return (int) (t - h);
+  }
+
+  /** Discards all queued measurements. Only call from the consumer thread. */
+  public void clear() {
+    head = tail;
+  }
+
+  /**
+   * Returns how many measurements were dropped because the consumer fell behind.
+   *
+   * @return Number of dropped measurements
+   */
+  public long getDroppedMeasurements() {
+    return droppedMeasurements;
+  }
+}
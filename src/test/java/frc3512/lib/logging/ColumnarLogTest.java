@@ -0,0 +1,102 @@
+package frc3512.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ColumnarLogTest {
+  @TempDir Path directory;
+
+  private Path convert() throws IOException {
+    var output = directory.resolve("test.spcl");
+    ColumnarLogConverter.convert(directory.resolve("test.wpilog"), output);
+    return output;
+  }
+
+  private static long[] timestamps(ColumnarLog.Column column) {
+    long[] timestamps = new long[column.size()];
+    for (int i = 0; i < timestamps.length; i++) {
+      timestamps[i] = column.getTimestamp(i);
+    }
+    return timestamps;
+  }
+
+  private static double[] values(ColumnarLog.Column column) {
+    double[] values = new double[column.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = column.getValue(i);
+    }
+    return values;
+  }
+
+  @Test
+  void convertsEveryNumericEntry() throws IOException {
+    var log = new DataLog(directory.toString(), "test.wpilog");
+    var speed = new DoubleLogEntry(log, "speed");
+    var enabled = new BooleanLogEntry(log, "enabled");
+    var states = new DoubleArrayLogEntry(log, "states");
+    var messages = new StringLogEntry(log, "messages");
+    for (int i = 0; i < 100; i++) {
+      speed.append(i * 0.5, 1000 + i * 20_000L);
+      enabled.append(i % 2 == 0, 1000 + i * 20_000L);
+      states.append(new double[] {i, -i}, 1000 + i * 20_000L);
+      messages.append("loop " + i, 1000 + i * 20_000L);
+    }
+    log.close();
+
+    try (var columnar = new ColumnarLog(convert())) {
+      var speedColumn = columnar.getColumn("speed");
+      assertEquals(100, speedColumn.size());
+      assertEquals(21_000L, speedColumn.getTimestamp(1));
+      assertEquals(0.5, speedColumn.getValue(1));
+      assertEquals(1.0, columnar.getColumn("enabled").getValue(0));
+      assertEquals(0.0, columnar.getColumn("enabled").getValue(1));
+      assertEquals(2, columnar.getColumns("states[").size());
+      assertEquals(-7.0, columnar.getColumn("states[1]").getValue(7));
+      assertNull(columnar.getColumn("messages"));
+
+      // Samples 10 to 19.
+      assertArrayEquals(new int[] {10, 20}, ColumnarQueries.range(speedColumn, 200_000L, 400_001L));
+      var stats = ColumnarQueries.aggregate(speedColumn, 200_000L, 400_001L);
+      assertEquals(10, stats.count);
+      assertEquals(5.0, stats.min);
+      assertEquals(9.5, stats.max);
+      assertEquals(381_000L, stats.maxTimestamp);
+    }
+  }
+
+  @Test
+  void sortsSamplesWrittenOutOfOrder() throws IOException {
+    var log = new DataLog(directory.toString(), "test.wpilog");
+    var speed = new DoubleLogEntry(log, "speed");
+    var states = new DoubleArrayLogEntry(log, "states");
+    // Like a sample queued in the async writer landing after a newer one written synchronously.
+    long[] written = {100, 300, 200, 400, 400, 250, 500};
+    for (int i = 0; i < written.length; i++) {
+      speed.append(i, written[i]);
+      states.append(new double[] {i}, written[i]);
+    }
+    log.close();
+
+    try (var columnar = new ColumnarLog(convert())) {
+      for (var name : new String[] {"speed", "states[0]"}) {
+        var column = columnar.getColumn(name);
+        assertArrayEquals(new long[] {100, 200, 250, 300, 400, 400, 500}, timestamps(column));
+        // Samples with equal timestamps keep their order in the log.
+        assertArrayEquals(new double[] {0, 2, 5, 1, 3, 4, 6}, values(column));
+        assertEquals(2, column.lowerBound(250));
+        assertArrayEquals(new int[] {2, 6}, ColumnarQueries.range(column, 250, 500));
+      }
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package frc3512.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class LogRotatorTest {
+  @Test
+  void namesFilesAfterTheirStartAndSequence() {
+    assertEquals("FRC_TBD_000042.wpilog", LogRotator.nameAt(null, 42));
+    assertEquals(
+        "FRC_20230304_050607_000042.wpilog",
+        LogRotator.nameAt(LocalDateTime.of(2023, 3, 4, 5, 6, 7), 42));
+    assertEquals("FRC_TBD_1234567.wpilog", LogRotator.nameAt(null, 1234567));
+  }
+
+  @Test
+  void readsTheSequenceBackFromTheName() {
+    var start = LocalDateTime.of(2023, 3, 4, 5, 6, 7);
+    for (long sequence : new long[] {1, 42, 999999, 1234567}) {
+      assertEquals(sequence, LogRotator.sequenceOf(new File(LogRotator.nameAt(null, sequence))));
+      assertEquals(sequence, LogRotator.sequenceOf(new File(LogRotator.nameAt(start, sequence))));
+    }
+  }
+
+  @Test
+  void doesNotReadSequencesFromOtherFiles() {
+    String[] legacy = {
+      // Written by the DataLogManager.
+      "FRC_TBD_7c5e2e4a1b3f9d80.wpilog",
+      "FRC_20230304_050607.wpilog",
+      "FRC_20230304_050607_WNE_Q12.wpilog",
+      // Close to the rotator's names, but not quite.
+      "FRC_20230304_050607_42.wpilog",
+      "FRC_TBD_000042.wpilog.bak",
+      "old_FRC_TBD_000042.wpilog",
+      "FRC_2023034_050607_000042.wpilog",
+      "FRC_TBD_00004x.wpilog",
+      "log_000042.wpilog",
+    };
+    for (var name : legacy) {
+      assertEquals(-1, LogRotator.sequenceOf(new File(name)), name);
+    }
+  }
+
+  @Test
+  void deletesOtherFilesThenTheLowestSequencesFirst() {
+    File[] files = {
+      new File("FRC_20230304_050607_000012.wpilog"),
+      new File("FRC_TBD_000003.wpilog"),
+      new File("FRC_20230304_050607.wpilog"),
+      // Named after a clock that was wrong, but the sequence says it is newer.
+      new File("FRC_20190101_000000_000013.wpilog"),
+      new File("FRC_TBD_000011.wpilog"),
+      new File("FRC_TBD_7c5e2e4a1b3f9d80.wpilog"),
+    };
+
+    LogRotator.sortOldestFirst(files);
+
+    assertArrayEquals(
+        new String[] {
+          "FRC_20230304_050607.wpilog",
+          "FRC_TBD_7c5e2e4a1b3f9d80.wpilog",
+          "FRC_TBD_000003.wpilog",
+          "FRC_TBD_000011.wpilog",
+          "FRC_20230304_050607_000012.wpilog",
+          "FRC_20190101_000000_000013.wpilog",
+        },
+        Arrays.stream(files).map(File::getName).toArray(String[]::new));
+  }
+}
@@ -0,0 +1,128 @@
+package frc3512.lib.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Checks the ring buffer of the log writer without starting its thread. */
+class SpartanLogWriterTest {
+  /** Records every double it is handed, in the order the writer hands them over. */
+  private static class RecordingTarget implements SpartanLogWriter.AsyncLogTarget {
+    final List<Double> values = new ArrayList<>();
+
+    @Override
+    public void writeAsync(SpartanLogWriter.Slot slot) {
+      values.add(slot.doubleValue);
+    }
+  }
+
+  @BeforeAll
+  static void initializeHal() {
+    assertTrue(HAL.initialize(500, 0));
+  }
+
+  @Test
+  void dropsAndCountsSamplesWhenFull() {
+    var writer = new SpartanLogWriter(8);
+    var target = new RecordingTarget();
+
+    for (int i = 0; i < 8; i++) {
+      assertTrue(writer.submit(target, (double) i));
+    }
+    assertFalse(writer.submit(target, 8.0));
+    assertFalse(writer.submit(target, 9.0));
+    assertEquals(2, writer.getDroppedSamples());
+
+    assertEquals(8, writer.drain());
+    assertEquals(List.of(0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0), target.values);
+
+    // Draining frees the slots again.
+    assertTrue(writer.submit(target, 10.0));
+    assertEquals(1, writer.drain());
+    assertEquals(2, writer.getDroppedSamples());
+  }
+
+  @Test
+  void keepsOrderWithOneProducer() {
+    var writer = new SpartanLogWriter(64);
+    var target = new RecordingTarget();
+
+    // Wraps around the buffer several times.
+    int next = 0;
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 50; i++) {
+        assertTrue(writer.submit(target, (double) next++));
+      }
+      writer.drain();
+    }
+
+    assertEquals(500, target.values.size());
+    for (int i = 0; i < 500; i++) {
+      assertEquals(i, target.values.get(i));
+    }
+    assertEquals(0, writer.getDroppedSamples());
+  }
+
+  @Test
+  void doesNotLoseOrDuplicateWithManyProducers() throws InterruptedException {
+    final int producers = 4;
+    final int samplesPerProducer = 100_000;
+    var writer = new SpartanLogWriter(256);
+    var target = new RecordingTarget();
+    var start = new CountDownLatch(1);
+    var done = new CountDownLatch(producers);
+
+    for (int p = 0; p < producers; p++) {
+      final int producer = p;
+      var thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                for (int i = 0; i < samplesPerProducer; i++) {
+                  // Retry instead of dropping so every sample has to arrive exactly once.
+                  while (!writer.submit(target, (double) (producer * samplesPerProducer + i))) {
+                    Thread.onSpinWait();
+                  }
+                }
+                done.countDown();
+              });
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    start.countDown();
+    while (done.getCount() > 0) {
+      writer.drain();
+    }
+    while (writer.drain() > 0) {}
+
+    var seen = new boolean[producers * samplesPerProducer];
+    var last = new int[producers];
+    Arrays.fill(last, -1);
+    for (double value : target.values) {
+      int sample = (int) value;
+      assertFalse(seen[sample], () -> "Sample " + sample + " was written twice");
+      seen[sample] = true;
+
+      // Samples from one producer still arrive in the order it submitted them.
+      int producer = sample / samplesPerProducer;
+      int index = sample % samplesPerProducer;
+      assertTrue(index > last[producer]);
+      last[producer] = index;
+    }
+    assertEquals(producers * samplesPerProducer, target.values.size());
+  }
+}
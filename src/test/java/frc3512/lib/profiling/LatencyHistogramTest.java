@@ -0,0 +1,73 @@
+package frc3512.lib.profiling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+  @Test
+  void hasOneBucketPerMicrosecondBelow32() {
+    assertEquals(0, LatencyHistogram.bucketIndex(-5));
+    for (int micros = 0; micros < 32; micros++) {
+      assertEquals(micros, LatencyHistogram.bucketIndex(micros));
+      assertEquals(micros + 0.5, LatencyHistogram.bucketMidpointMicros(micros));
+    }
+  }
+
+  @Test
+  void bucketsAreContiguousAndWithinSixPercent() {
+    assertEquals(337, LatencyHistogram.kNumBuckets);
+
+    int previous = LatencyHistogram.bucketIndex(0);
+    for (long micros = 1; micros < 1 << 24; micros++) {
+      int index = LatencyHistogram.bucketIndex(micros);
+      assertTrue(index == previous || index == previous + 1);
+      previous = index;
+
+      double midpoint = LatencyHistogram.bucketMidpointMicros(index);
+      assertTrue(Math.abs(midpoint - micros) <= 0.0625 * micros + 0.5);
+    }
+    assertEquals(LatencyHistogram.kNumBuckets - 2, previous);
+
+    // Everything from about 16 seconds up shares the last bucket.
+    assertEquals(LatencyHistogram.kNumBuckets - 1, LatencyHistogram.bucketIndex(1 << 24));
+    assertEquals(LatencyHistogram.kNumBuckets - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+  }
+
+  @Test
+  void computesPercentilesFromBuckets() {
+    var histogram = new LatencyHistogram("Test", 0.0005);
+    assertEquals(0.0, histogram.getPercentile(0.5));
+
+    for (int i = 0; i < 900; i++) {
+      histogram.record(10_000);
+    }
+    for (int i = 0; i < 100; i++) {
+      histogram.record(700_000);
+    }
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(100, histogram.getOverruns());
+    assertEquals(700e-6, histogram.getMax(), 1e-12);
+
+    assertEquals(10.5e-6, histogram.getPercentile(0.5), 1e-12);
+    // The 900th sample is still in the 10 us bucket.
+    assertEquals(10.5e-6, histogram.getPercentile(0.9), 1e-12);
+    assertEquals(700e-6, histogram.getPercentile(0.95), 700e-6 * 0.0625);
+    // Never above the largest recorded latency, even though the bucket midpoint is.
+    assertTrue(histogram.getPercentile(1.0) <= histogram.getMax());
+  }
+
+  @Test
+  void resetClearsEverything() {
+    var histogram = new LatencyHistogram("Test", 0.0);
+    histogram.record(1_000_000);
+    histogram.reset();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getOverruns());
+    assertEquals(0.0, histogram.getMax());
+    assertEquals(0.0, histogram.getPercentile(0.99));
+  }
+}
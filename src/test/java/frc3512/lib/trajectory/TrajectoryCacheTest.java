@@ -0,0 +1,109 @@
+package frc3512.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import edu.wpi.first.hal.HAL;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TrajectoryCacheTest {
+  // Offset of the data offset field of the first directory entry: magic, version and count, the
+  // name length and name, then the hash.
+  private static final int kFirstOffsetField = 12 + 2 + "Path".length() + 8;
+
+  @TempDir Path directory;
+
+  @BeforeAll
+  static void initializeHal() {
+    assertTrue(HAL.initialize(500, 0));
+  }
+
+  private static PathDefinition definition(double maxVelocity) {
+    return new PathDefinition("Path", maxVelocity, 4.0, false)
+        .addPoint(1.0, 1.0, 0.0, 0.0)
+        .addPoint(3.0, 2.0, 90.0, -90.0);
+  }
+
+  private static void assertSameTrajectory(
+      PathPlannerTrajectory expected, PathPlannerTrajectory actual) {
+    assertEquals(expected.getStates().size(), actual.getStates().size());
+    assertEquals(expected.getTotalTimeSeconds(), actual.getTotalTimeSeconds(), 1e-9);
+    for (int i = 0; i < expected.getStates().size(); i++) {
+      var a = (PathPlannerState) expected.getStates().get(i);
+      var b = (PathPlannerState) actual.getStates().get(i);
+      assertEquals(a.timeSeconds, b.timeSeconds, 1e-9);
+      assertEquals(a.poseMeters.getX(), b.poseMeters.getX(), 1e-9);
+      assertEquals(a.poseMeters.getY(), b.poseMeters.getY(), 1e-9);
+      assertEquals(
+          a.holonomicRotation.getRadians(), b.holonomicRotation.getRadians(), 1e-9);
+    }
+  }
+
+  @Test
+  void decodesCachedPaths() throws IOException {
+    var file = directory.resolve("trajectories.bin");
+    TrajectoryCache.write(file, List.of(definition(1.0)));
+
+    var cache = new TrajectoryCache(file);
+    assertSameTrajectory(definition(1.0).generate(), cache.get(definition(1.0)));
+  }
+
+  @Test
+  void generatesPathsWhoseDefinitionChanged() throws IOException {
+    var file = directory.resolve("trajectories.bin");
+    TrajectoryCache.write(file, List.of(definition(1.0)));
+
+    var cache = new TrajectoryCache(file);
+    var trajectory = cache.get(definition(2.0));
+    assertSameTrajectory(definition(2.0).generate(), trajectory);
+    assertTrue(
+        trajectory.getTotalTimeSeconds() < definition(1.0).generate().getTotalTimeSeconds());
+  }
+
+  @Test
+  void generatesPathsWhoseDataIsTruncated() throws IOException {
+    var file = directory.resolve("trajectories.bin");
+    TrajectoryCache.write(file, List.of(definition(1.0)));
+    try (var raf = new RandomAccessFile(file.toFile(), "rw")) {
+      raf.setLength(raf.length() - 8);
+    }
+
+    var cache = new TrajectoryCache(file);
+    assertSameTrajectory(definition(1.0).generate(), cache.get(definition(1.0)));
+  }
+
+  @Test
+  void generatesPathsWhoseOffsetIsOutOfBounds() throws IOException {
+    var file = directory.resolve("trajectories.bin");
+    TrajectoryCache.write(file, List.of(definition(1.0)));
+    try (var raf = new RandomAccessFile(file.toFile(), "rw")) {
+      raf.seek(kFirstOffsetField);
+      raf.writeInt(Integer.MAX_VALUE - 8);
+    }
+
+    var cache = new TrajectoryCache(file);
+    assertSameTrajectory(definition(1.0).generate(), cache.get(definition(1.0)));
+  }
+
+  @Test
+  void generatesPathsWhenTheFileIsGarbage() throws IOException {
+    var file = directory.resolve("trajectories.bin");
+    Files.write(file, "not a trajectory cache".getBytes(StandardCharsets.UTF_8));
+
+    var cache = new TrajectoryCache(file);
+    assertSameTrajectory(definition(1.0).generate(), cache.get(definition(1.0)));
+
+    var missing = new TrajectoryCache(directory.resolve("missing.bin"));
+    assertSameTrajectory(definition(1.0).generate(), missing.get(definition(1.0)));
+  }
+}
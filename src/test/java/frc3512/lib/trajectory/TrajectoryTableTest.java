@@ -0,0 +1,105 @@
+package frc3512.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.MathUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class TrajectoryTableTest {
+  private static final double kDt = 0.02;
+
+  // Linear interpolation between steps cuts the corners of the curved path slightly.
+  private static final double kPositionTolerance = 1e-3;
+  private static final double kRotationTolerance = 1e-3;
+  // Interpolating across a change in acceleration rounds it off by up to one step.
+  private static final double kVelocityTolerance = 4.0 * kDt;
+
+  @BeforeAll
+  static void initializeHal() {
+    assertTrue(HAL.initialize(500, 0));
+  }
+
+  /** Turns from 170 to -170 degrees, which PathPlanner does the short way across +-180. */
+  private static PathPlannerTrajectory generate() {
+    return new PathDefinition("Path", 2.0, 4.0, false)
+        .addPoint(1.0, 1.0, 0.0, 170.0)
+        .addPoint(3.0, 2.0, 90.0, -170.0)
+        .generate();
+  }
+
+  private static void assertSampleEquals(
+      PathPlannerState expected, TrajectoryTable.Sample actual, String time) {
+    assertEquals(expected.poseMeters.getX(), actual.xMeters, kPositionTolerance, time);
+    assertEquals(expected.poseMeters.getY(), actual.yMeters, kPositionTolerance, time);
+    assertEquals(
+        0.0,
+        MathUtil.angleModulus(
+            actual.holonomicRotationRadians - expected.holonomicRotation.getRadians()),
+        kRotationTolerance,
+        time);
+
+    double heading = expected.poseMeters.getRotation().getRadians();
+    assertEquals(
+        expected.velocityMetersPerSecond * Math.cos(heading),
+        actual.vxMetersPerSecond,
+        kVelocityTolerance,
+        time);
+    assertEquals(
+        expected.velocityMetersPerSecond * Math.sin(heading),
+        actual.vyMetersPerSecond,
+        kVelocityTolerance,
+        time);
+  }
+
+  @Test
+  void matchesTheTrajectoryBetweenSteps() {
+    var trajectory = generate();
+    var table = new TrajectoryTable(trajectory, kDt);
+    var sample = new TrajectoryTable.Sample();
+
+    // A third of a step apart, so most samples fall between steps.
+    for (double t = 0.0; t <= trajectory.getTotalTimeSeconds(); t += kDt / 3.0) {
+      table.sample(t, sample);
+      assertSampleEquals((PathPlannerState) trajectory.sample(t), sample, "t = " + t);
+    }
+  }
+
+  @Test
+  void clampsToTheEnds() {
+    var trajectory = generate();
+    var table = new TrajectoryTable(trajectory, kDt);
+    var sample = new TrajectoryTable.Sample();
+    double total = trajectory.getTotalTimeSeconds();
+
+    // The last step of the table usually lies past the end, so it has to be clamped as well.
+    for (double t : new double[] {total, total + kDt / 2.0, total + 1.0}) {
+      table.sample(t, sample);
+      assertSampleEquals((PathPlannerState) trajectory.getEndState(), sample, "t = " + t);
+    }
+    for (double t : new double[] {-kDt / 2.0, -1.0}) {
+      table.sample(t, sample);
+      assertSampleEquals((PathPlannerState) trajectory.getInitialState(), sample, "t = " + t);
+    }
+  }
+
+  @Test
+  void unwrapsTheRotationAcrossPi() {
+    var table = new TrajectoryTable(generate(), kDt);
+
+    // The table keeps turning past pi instead of jumping back to -pi.
+    assertEquals(Math.toRadians(170.0), table.getHolonomicRotation(0), kRotationTolerance);
+    assertEquals(
+        Math.toRadians(190.0),
+        table.getHolonomicRotation(table.getLength() - 1),
+        kRotationTolerance);
+    for (int i = 1; i < table.getLength(); i++) {
+      double change = table.getHolonomicRotation(i) - table.getHolonomicRotation(i - 1);
+      assertTrue(Math.abs(change) < Math.PI / 4.0, "step " + i);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package frc3512.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import frc3512.lib.util.CANFrameManager.Mode;
+import frc3512.lib.util.CANSparkMaxUtil.Usage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CANFrameManagerTest {
+  /** Device that sends a fixed number of frames in each mode and remembers the mode applied. */
+  private static class FakeDevice implements CANFrameManager.Device {
+    final double disabledFrames;
+    final double enabledFrames;
+    Mode applied = null;
+
+    FakeDevice(double disabledFrames, double enabledFrames) {
+      this.disabledFrames = disabledFrames;
+      this.enabledFrames = enabledFrames;
+    }
+
+    @Override
+    public void apply(Mode mode) {
+      applied = mode;
+    }
+
+    @Override
+    public double getFramesPerSecond(Mode mode) {
+      return mode == Mode.kDisabled ? disabledFrames : enabledFrames;
+    }
+  }
+
+  @BeforeAll
+  static void initializeHal() {
+    assertTrue(HAL.initialize(500, 0));
+  }
+
+  @AfterEach
+  void reset() {
+    CANFrameManager.reset();
+  }
+
+  @Test
+  void predictsUtilizationFromFrameRates() {
+    CANFrameManager.register("A", new FakeDevice(100.0, 1000.0));
+    CANFrameManager.register("B", new FakeDevice(100.0, 1000.0));
+
+    assertEquals(200.0, CANFrameManager.getPredictedFramesPerSecond(Mode.kDisabled), 1e-9);
+    assertEquals(2000.0, CANFrameManager.getPredictedFramesPerSecond(Mode.kTeleop), 1e-9);
+    // 150 bits per frame on a 1 Mbit/s bus.
+    assertEquals(0.03, CANFrameManager.getPredictedUtilization(Mode.kDisabled), 1e-9);
+    assertEquals(0.3, CANFrameManager.getPredictedUtilization(Mode.kTeleop), 1e-9);
+  }
+
+  @Test
+  void rejectsDevicesThatGoOverBudgetInAnyMode() {
+    CANFrameManager.setMaxUtilization(0.5);
+    CANFrameManager.register("A", new FakeDevice(100.0, 3000.0));
+
+    // Fine while disabled, but over budget once enabled.
+    var rejected = new FakeDevice(100.0, 1000.0);
+    assertThrows(IllegalStateException.class, () -> CANFrameManager.register("B", rejected));
+    assertNull(rejected.applied);
+    assertEquals(3000.0, CANFrameManager.getPredictedFramesPerSecond(Mode.kTeleop), 1e-9);
+
+    assertThrows(IllegalStateException.class, () -> CANFrameManager.setMaxUtilization(0.4));
+    CANFrameManager.register("C", new FakeDevice(100.0, 300.0));
+  }
+
+  @Test
+  void alwaysSwitchesToTheEnabledSchedule() {
+    var device = new FakeDevice(100.0, 1000.0);
+    CANFrameManager.register("A", device);
+    assertEquals(Mode.kDisabled, device.applied);
+
+    CANFrameManager.setMode(Mode.kTeleop);
+    assertEquals(Mode.kTeleop, CANFrameManager.getMode());
+    assertEquals(Mode.kTeleop, device.applied);
+
+    CANFrameManager.setMode(Mode.kDisabled);
+    assertEquals(Mode.kDisabled, device.applied);
+  }
+
+  @Test
+  void countsSetpointsAtTheControlRate() {
+    double status = CANSparkMaxUtil.getFramesPerSecond(Usage.kAll, false);
+    assertEquals(
+        status, CANFrameManager.getSparkMaxFramesPerSecond(Usage.kAll, Mode.kDisabled), 1e-9);
+    assertEquals(
+        status + 50.0, CANFrameManager.getSparkMaxFramesPerSecond(Usage.kAll, Mode.kTeleop), 1e-9);
+
+    CANFrameManager.setControlPeriod(0.005);
+    assertEquals(
+        status + 200.0,
+        CANFrameManager.getSparkMaxFramesPerSecond(Usage.kAll, Mode.kAutonomous),
+        1e-9);
+  }
+
+  @Test
+  void rejectsControlPeriodsThatGoOverBudget() {
+    CANFrameManager.setMaxUtilization(0.5);
+    // A Spark Max only sending setpoints at 200 Hz is 3% of the bus, so 16 fit at 50 Hz but not
+    // at 200 Hz.
+    for (int i = 0; i < 16; i++) {
+      CANFrameManager.register(
+          "Spark " + i,
+          new CANFrameManager.Device() {
+            @Override
+            public void apply(Mode mode) {}
+
+            @Override
+            public double getFramesPerSecond(Mode mode) {
+              return CANFrameManager.getSparkMaxFramesPerSecond(Usage.kMinimal, mode);
+            }
+          });
+    }
+
+    assertThrows(IllegalStateException.class, () -> CANFrameManager.setControlPeriod(0.005));
+    assertEquals(
+        CANSparkMaxUtil.getFramesPerSecond(Usage.kMinimal, false) + 50.0,
+        CANFrameManager.getSparkMaxFramesPerSecond(Usage.kMinimal, Mode.kTeleop),
+        1e-9);
+  }
+}
@@ -0,0 +1,145 @@
+package frc3512.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Checks the limits the setpoint generator keeps to and that it doesn't allocate. */
+class SwerveSetpointGeneratorTest {
+  private static final double kDt = 0.02;
+  private static final double kMaxAcceleration = 12.0;
+  private static final double kMaxSteerVelocity = 900.0;
+
+  private final MutableSwerveKinematics kinematics =
+      new MutableSwerveKinematics(
+          new Translation2d(-0.3, 0.3),
+          new Translation2d(-0.3, -0.3),
+          new Translation2d(0.3, 0.3),
+          new Translation2d(0.3, -0.3));
+  private final double[] speeds = new double[4];
+  private final double[] angles = new double[4];
+
+  private SwerveSetpointGenerator create(double maxAcceleration, int iterations) {
+    var generator =
+        new SwerveSetpointGenerator(kinematics, maxAcceleration, kMaxSteerVelocity, iterations);
+    generator.reset(speeds, angles);
+    return generator;
+  }
+
+  private void request(SwerveSetpointGenerator generator, double vx, double vy, double omega) {
+    kinematics.toModuleStates(vx, vy, omega, speeds, angles);
+    MutableSwerveKinematics.desaturateWheelSpeeds(speeds, 4.5);
+    generator.generate(speeds, angles, kDt);
+  }
+
+  private static double wrapDegrees(double degrees) {
+    return degrees - 360.0 * Math.floor((degrees + 180.0) / 360.0);
+  }
+
+  @Test
+  void limitsAccelerationInOneStep() {
+    var generator = create(kMaxAcceleration, 8);
+    request(generator, 4.0, 0.0, 0.0);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(kMaxAcceleration * kDt, speeds[i], 1e-9);
+      assertEquals(0.0, angles[i], 1e-9);
+    }
+  }
+
+  @Test
+  void neverExceedsTheLimits() {
+    var generator = create(kMaxAcceleration, 8);
+    var random = new Random(3512);
+    double[] previousX = new double[4];
+    double[] previousY = new double[4];
+    double[] previousAngles = new double[4];
+
+    for (int step = 0; step < 5000; step++) {
+      // Hold each request for a while so the setpoint can get close to it.
+      if (step % 25 == 0) {
+        request(
+            generator,
+            random.nextDouble() * 8 - 4,
+            random.nextDouble() * 8 - 4,
+            random.nextDouble() * 8 - 4);
+      } else {
+        generator.generate(speeds, angles, kDt);
+      }
+
+      for (int i = 0; i < 4; i++) {
+        double x = speeds[i] * Math.cos(Math.toRadians(angles[i]));
+        double y = speeds[i] * Math.sin(Math.toRadians(angles[i]));
+        // Stopped modules are sent a speed of exactly zero, which is off by up to the epsilon.
+        double velocityChange = Math.hypot(x - previousX[i], y - previousY[i]);
+        assertTrue(velocityChange <= kMaxAcceleration * kDt + 1e-5);
+        double angleChange = Math.abs(wrapDegrees(angles[i] - previousAngles[i]));
+        assertTrue(angleChange <= kMaxSteerVelocity * kDt + 1e-9);
+        previousX[i] = x;
+        previousY[i] = y;
+        previousAngles[i] = angles[i];
+      }
+    }
+  }
+
+  @Test
+  void bisectionFindsTheSteeringLimitWithinItsResolution() {
+    for (int iterations : new int[] {4, 8, 16}) {
+      // Driving straight ahead, then asked to drive sideways. Acceleration is unlimited, so only
+      // the steering limit holds the setpoint back.
+      for (int i = 0; i < 4; i++) {
+        speeds[i] = 1.0;
+        angles[i] = 0.0;
+      }
+      var generator = create(1e9, iterations);
+      request(generator, 0.0, 1.0, 0.0);
+
+      // A fraction f of the way there, the modules point atan(f / (1 - f)) away from straight.
+      double tan = Math.tan(Math.toRadians(kMaxSteerVelocity * kDt));
+      double limit = tan / (1.0 + tan);
+      double resolution = Math.pow(0.5, iterations);
+      for (int i = 0; i < 4; i++) {
+        double x = speeds[i] * Math.cos(Math.toRadians(angles[i]));
+        double y = speeds[i] * Math.sin(Math.toRadians(angles[i]));
+        double fraction = y / (x + y);
+        assertTrue(fraction <= limit + 1e-12);
+        assertTrue(fraction >= limit - resolution);
+      }
+    }
+  }
+
+  @Test
+  void doesNotAllocate() {
+    var generator = create(kMaxAcceleration, 8);
+    var cycle =
+        new Runnable() {
+          private int iteration = 0;
+
+          @Override
+          public void run() {
+            // Reverse and turn every few loops so every branch keeps running.
+            double sign = (iteration++ / 10) % 2 == 0 ? 1.0 : -1.0;
+            request(generator, 3.0 * sign, 1.0, -2.0 * sign);
+          }
+        };
+
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+    for (int i = 0; i < 20000; i++) {
+      cycle.run();
+    }
+
+    long overhead = -threads.getThreadAllocatedBytes(thread);
+    overhead += threads.getThreadAllocatedBytes(thread);
+
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < 1000; i++) {
+      cycle.run();
+    }
+    long after = threads.getThreadAllocatedBytes(thread);
+    assertEquals(0, after - before - overhead);
+  }
+}
@@ -0,0 +1,167 @@
+package frc3512.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Checks that the drive hot path doesn't allocate once it has warmed up. */
+class SwerveAllocationTest {
+  private static final int kWarmupCycles = 20000;
+  private static final int kMeasuredCycles = 1000;
+
+  /** Module whose wheel and steering follow the commands, so every reading changes each loop. */
+  private static class FakeModuleIO implements ModuleIO {
+    private double position = 0.0;
+    private double velocity = 0.0;
+    private double angle = 0.0;
+
+    @Override
+    public void updateInputs(SwerveInputs inputs, int index) {
+      position += velocity * 0.02;
+      inputs.drivePositionMeters[index] = position;
+      inputs.driveVelocityMetersPerSecond[index] = velocity;
+      inputs.anglePositionDegrees[index] = angle;
+      inputs.cancoderDegrees[index] = angle;
+    }
+
+    @Override
+    public double getDrivePositionMeters() {
+      return position;
+    }
+
+    @Override
+    public double getAnglePositionDegrees() {
+      return angle;
+    }
+
+    @Override
+    public void setDrivePercent(double percentOutput) {
+      velocity = percentOutput;
+    }
+
+    @Override
+    public void setDriveVelocity(double velocityMetersPerSecond, double feedforwardVolts) {
+      velocity = velocityMetersPerSecond;
+    }
+
+    @Override
+    public void setAnglePosition(double angleDegrees) {
+      // Only part of the way, so the angle is still moving on the next loop.
+      angle += (angleDegrees - angle) * 0.5;
+    }
+
+    @Override
+    public void stop() {
+      velocity = 0.0;
+    }
+  }
+
+  private static class FakeGyroIO implements GyroIO {
+    @Override
+    public void updateInputs(SwerveInputs inputs) {}
+
+    @Override
+    public double getYawDegrees() {
+      return 0.0;
+    }
+
+    @Override
+    public void setYaw(double yawDegrees) {}
+  }
+
+  @BeforeAll
+  static void initializeHal() {
+    assertTrue(HAL.initialize(500, 0));
+  }
+
+  private static com.sun.management.ThreadMXBean getThreadBean() {
+    return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  }
+
+  /**
+   * Runs a cycle many times and returns how many bytes were allocated after it warmed up, minus
+   * whatever reading the allocation counter itself costs.
+   */
+  private static long measureAllocatedBytes(Runnable cycle) {
+    var threads = getThreadBean();
+    long thread = Thread.currentThread().getId();
+    for (int i = 0; i < kWarmupCycles; i++) {
+      cycle.run();
+    }
+
+    long overhead = -threads.getThreadAllocatedBytes(thread);
+    overhead += threads.getThreadAllocatedBytes(thread);
+
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < kMeasuredCycles; i++) {
+      cycle.run();
+    }
+    long after = threads.getThreadAllocatedBytes(thread);
+    return after - before - overhead;
+  }
+
+  @Test
+  void driveAndGetStatesDoNotAllocate() {
+    var swerve =
+        new Swerve(
+            new FakeGyroIO(),
+            new ModuleIO[] {
+              new FakeModuleIO(), new FakeModuleIO(), new FakeModuleIO(), new FakeModuleIO()
+            },
+            Swerve.Mode.kStepped);
+    var cycle =
+        new Runnable() {
+          private int iteration = 0;
+
+          @Override
+          public void run() {
+            // Keep the request changing so the module commands change every cycle.
+            double rotation = Math.sin(iteration++ * 0.01);
+            swerve.drive(2.0, 1.0, rotation, true, false);
+            swerve.getStates();
+          }
+        };
+
+    assertEquals(0, measureAllocatedBytes(cycle));
+  }
+
+  @Test
+  void moduleStateDoesNotAllocate() {
+    var inputs = new SwerveInputs(4);
+    var module = new SwerveModule(0, new FakeModuleIO(), inputs);
+    var state = new SwerveModuleState();
+    var cycle =
+        new Runnable() {
+          private int iteration = 0;
+
+          @Override
+          public void run() {
+            module.updateInputs();
+            module.setDesiredState(2.0, (iteration++ % 360) - 180.0, false);
+            module.updateState(state);
+          }
+        };
+
+    assertEquals(0, measureAllocatedBytes(cycle));
+  }
+
+  @Test
+  void modulePositionHasExactAngle() {
+    var io = new FakeModuleIO();
+    var module = new SwerveModule(0, io, new SwerveInputs(4));
+    var position = new SwerveModulePosition();
+
+    // Between two entries of the rotation table.
+    io.angle = 12.3456;
+    module.updateInputs();
+    module.updatePosition(position);
+
+    assertEquals(12.3456, position.angle.getDegrees(), 1e-9);
+  }
+}